@@ -1,16 +1,32 @@
 package com.anncode.amazonviewer;
 
+import java.io.IOException;
+import java.nio.file.Paths;
 import java.text.SimpleDateFormat;
+import java.time.ZoneId;
 import java.util.ArrayList;
 import java.util.Date;
+import java.util.List;
 import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
 
+import com.anncode.amazonviewer.dao.BookDAO;
+import com.anncode.amazonviewer.dao.CatalogPage;
+import com.anncode.amazonviewer.dao.CatalogPager;
+import com.anncode.amazonviewer.dao.CatalogSnapshot;
+import com.anncode.amazonviewer.dao.DAOExecutor;
 import com.anncode.amazonviewer.dao.MagazineDAO;
+import com.anncode.amazonviewer.dao.MovieDAO;
 import com.anncode.amazonviewer.dao.SerieDAO;
 import com.anncode.amazonviewer.dao.UserDAO;
+import com.anncode.amazonviewer.db.MaterialRegistry;
 import com.anncode.amazonviewer.model.*;
-import com.anncode.makereport.Report;
+import com.anncode.amazonviewer.report.ReportWriter;
+import com.anncode.amazonviewer.report.ViewedReport;
 import com.anncode.util.AmazonUtil;
 
 /**
@@ -29,13 +45,10 @@ import com.anncode.util.AmazonUtil;
  * @since 2025-12-31
  */
 public class Main implements UserDAO {
-    /** Lista persistente de usuarios cargados en memoria */
-    public static User activeUser;
-    static ArrayList<Movie> movies = new ArrayList<>();;
-    static ArrayList<Serie> series = new ArrayList<>();
-    static ArrayList<Chapter> chapters = new ArrayList<>();
-    static ArrayList<Book> books = new ArrayList<>();
-    static ArrayList<Magazine> magazines = new ArrayList<>();
+    /** Sesión del usuario de la consola: identidad, historial y, tras el primer reporte general, el catálogo */
+    static Session session;
+    /** Cantidad de elementos por página en los menús del catálogo. */
+    static final int PAGE_SIZE = Integer.getInteger("amazonviewer.menu.pageSize", 10);
 
     /**
      * Constructor por defecto de la clase Main.
@@ -55,20 +68,108 @@ public class Main implements UserDAO {
      */
 	public static void main(String[] args) {
         Main app = new Main();
+        long start = System.nanoTime();
 
         // LOGIN DINÁMICO:
         // Si "Luigi" existe, trae su ID. Si no, lo crea y nos da el nuevo ID.
-        activeUser = app.login("Luigi");
+        session = app.openSession("Luigi");
 
-        // Esto evitará que los mensajes de conexión se repitan infinitamente
-        movies = Movie.makeMoviesList();
-        series = Serie.makeSeriesList();
-        books = Book.makeBookList();
-        magazines = Magazine.makeMagazineList();
+        // Cargamos una sola vez la tabla 'material' para no consultarla por cada fila
+        MaterialRegistry.getInstance().load();
+        logPhase("sesión", start);
+
+        // Los menús leen por páginas: el catálogo completo no se carga al arrancar,
+        // sólo cuando el reporte general lo necesita (ver catalog())
+        logPhase("arranque total", start);
 
         showMenu();
 	}
 
+    /**
+     * Obtiene el catálogo completo de la sesión, cargándolo la primera vez que se pide.
+     * <p>
+     * Sólo el reporte general recorre el catálogo completo; los menús navegan por páginas.
+     * Si la instantánea en disco coincide con la huella de la base de datos, el catálogo
+     * se decodifica de ella sin consultar las tablas; si no, se carga y se guarda.
+     * </p>
+     * @return El catálogo, con las marcas de visto del usuario de la sesión.
+     */
+    private static CatalogSnapshot catalog() {
+        CatalogSnapshot snapshot = session.getCatalog();
+        if (snapshot != null) {
+            return snapshot;
+        }
+        long catalogs = System.nanoTime();
+        long[] fingerprint = CatalogSnapshot.ENABLED ? CatalogSnapshot.fingerprint() : null;
+        snapshot = CatalogSnapshot.read(fingerprint);
+        if (snapshot != null) {
+            snapshot.applyViewed(session.getViewedIndex());
+            logPhase("instantánea", catalogs);
+        } else {
+            snapshot = loadCatalogs(session);
+            saveSnapshot(snapshot, fingerprint);
+        }
+        session.setCatalog(snapshot);
+        logPhase("catálogos", catalogs);
+        return snapshot;
+    }
+
+    /**
+     * Carga los cuatro catálogos desde la base de datos.
+     * <p>
+     * Los catálogos son independientes: se cargan en paralelo y el arranque
+     * tarda lo que el más lento, no la suma de todos. Corren en el mismo
+     * {@link DAOExecutor} que las operaciones asíncronas de los DAOs.
+     * </p>
+     * @param session La sesión cuyo historial marca los elementos vistos.
+     * @return Los catálogos cargados.
+     */
+    private static CatalogSnapshot loadCatalogs(Session session) {
+        Executor executor = DAOExecutor.get();
+        CompletableFuture<ArrayList<Movie>> moviesLoad = loadTimed("películas", () -> Movie.makeMoviesList(session), executor);
+        CompletableFuture<ArrayList<Serie>> seriesLoad = loadTimed("series", () -> Serie.makeSeriesList(session), executor);
+        CompletableFuture<ArrayList<Book>> booksLoad = loadTimed("libros", () -> Book.makeBookList(session), executor);
+        CompletableFuture<ArrayList<Magazine>> magazinesLoad = loadTimed("revistas", () -> Magazine.makeMagazineList(session), executor);
+
+        return new CatalogSnapshot(moviesLoad.join(), seriesLoad.join(), booksLoad.join(), magazinesLoad.join());
+    }
+
+    /**
+     * Guarda la instantánea del catálogo en segundo plano para no retrasar el menú.
+     * @param snapshot    Los catálogos recién cargados.
+     * @param fingerprint La huella de la base de datos, o {@code null} si no se pudo calcular.
+     */
+    private static void saveSnapshot(CatalogSnapshot snapshot, long[] fingerprint) {
+        if (fingerprint == null) {
+            return;
+        }
+        Thread writer = new Thread(() -> snapshot.write(fingerprint), "amazonviewer-snapshot");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Ejecuta la carga de un catálogo en el ejecutor indicado e informa su duración.
+     * @param phase  Nombre de la fase para el registro.
+     * @param loader La carga a ejecutar.
+     * @param executor El ejecutor donde corre la carga.
+     * @param <T> El tipo de resultado de la carga.
+     * @return La carga en curso.
+     */
+    private static <T> CompletableFuture<T> loadTimed(String phase, Supplier<T> loader, Executor executor) {
+        return CompletableFuture.supplyAsync(() -> {
+            long start = System.nanoTime();
+            T result = loader.get();
+            logPhase(phase, start);
+            return result;
+        }, executor);
+    }
+
+    private static void logPhase(String phase, long startNanos) {
+        System.out.println(">>> [carga] " + phase + ": " +
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos) + " ms");
+    }
+
     /**
      * Despliega el menú principal en consola y gestiona la navegación
      * general del usuario mediante un switch-case.
@@ -134,32 +235,34 @@ public class Main implements UserDAO {
 	public static void showMovies() {
 
 		int exit = 1;
+        MovieDAO movieDAO = new MovieDAO() {};
+        CatalogPager<Movie> pager = new CatalogPager<>(
+                (afterId, size) -> movieDAO.readPageAfter(session, afterId, size),
+                (beforeId, size) -> movieDAO.readPageBefore(session, beforeId, size),
+                PAGE_SIZE);
 
 		do {
 			System.out.println();
 			System.out.println(":: MOVIES ::");
 			System.out.println();
 
+            List<Movie> page = pager.current().getItems();
             AtomicInteger counter = new AtomicInteger(1);
-            movies.forEach(m -> System.out.println(counter.getAndIncrement() + ". " + m.getTitle() + ". Visto: " + m.isViewed()));
-
-//			for (int i = 0; i < movies.size(); i++) { //1. Movie 1
-//				System.out.println(i+1 + ". " + movies.get(i).getTitle() + " Visto: " + movies.get(i).isViewed());
-//			}
+            page.forEach(m -> System.out.println(counter.getAndIncrement() + ". " + m.getTitle() + ". Visto: " + m.isViewed()));
+            printPageOptions(pager.current());
 
 			System.out.println("0. Regresar al Menu");
 			System.out.println();
 
 			//Leer Respuesta usuario
-			int response = AmazonUtil.validateUserResponseMenu(0, movies.size());
+			int response = AmazonUtil.validateUserResponseMenu(0, page.size() + 2);
 
 			if(response == 0) {
 				exit = 0;
 				showMenu();
-			}
-			if (response > 0) {
-				Movie movieSelected = movies.get(response-1);
-                movieSelected.view();
+			} else if (!navigate(pager, response)) {
+				Movie movieSelected = page.get(response-1);
+                movieSelected.view(session);
 			}
 		} while (exit !=0);
 
@@ -171,44 +274,48 @@ public class Main implements UserDAO {
 	public static void showSeries() {
 
 		int exit = 1;
+        SerieDAO serieDAO = new SerieDAO() {};
+        CatalogPager<Serie> pager = new CatalogPager<>(
+                (afterId, size) -> serieDAO.readPageAfter(session, afterId, size),
+                (beforeId, size) -> serieDAO.readPageBefore(session, beforeId, size),
+                PAGE_SIZE);
 
 		do {
 			System.out.println();
 			System.out.println(":: SERIES ::");
 			System.out.println();
 
+            List<Serie> page = pager.current().getItems();
             AtomicInteger counter = new AtomicInteger(1);
-            series.forEach(s -> System.out.println(counter.getAndIncrement() + ". " + s.getTitle() + ". Visto: " + s.isViewed()));
+            page.forEach(s -> System.out.println(counter.getAndIncrement() + ". " + s.getTitle() + ". Visto: " + s.isViewed()));
+            printPageOptions(pager.current());
 
 			System.out.println("0. Regresar al Menu");
 			System.out.println();
 
 			//Leer Respuesta usuario
-			int response = AmazonUtil.validateUserResponseMenu(0, series.size());
+			int response = AmazonUtil.validateUserResponseMenu(0, page.size() + 2);
 
 			if(response == 0) {
 				exit = 0;
 				showMenu();
-			}
+			} else if (!navigate(pager, response)) {
+                Serie serieSeleccionada = page.get(response-1);
 
-            if(response > 0) {
-                Serie serieSeleccionada = series.get(response-1);
+                // Los capítulos se cargan sólo para la serie elegida
+                if (serieSeleccionada.getChapters() == null) {
+                    serieSeleccionada.setChapters(Chapter.makeChaptersList(session, serieSeleccionada));
+                }
 
                 // 1. Mostramos los capítulos
                 showChapters(serieSeleccionada.getChapters());
 
-                // 2. RE-VERIFICACIÓN MANUAL:
-                // Al regresar de los capítulos, comprobamos si todos están vistos
-                int contadorVistos = 0;
-                for (Chapter c : serieSeleccionada.getChapters()) {
-                    if (c.getIsViewed()) contadorVistos++;
-                }
-
-                // 3. Si todos están vistos, marcamos la serie en la lista de Main
-                if (contadorVistos == serieSeleccionada.getChapters().size() && contadorVistos > 0) {
+                // 2. RE-VERIFICACIÓN: Al regresar de los capítulos, comprobamos en el
+                // historial en memoria si todos están vistos y, de ser así, marcamos la serie.
+                // Una serie ya marcada no se vuelve a registrar (incrementaría view_count)
+                if (!serieSeleccionada.getIsViewed() && serieSeleccionada.isCompletelyViewed(session.getViewedIndex())) {
                     serieSeleccionada.setViewed(true);
-                    // Opcional: Llamar al DAO aquí si quieres asegurar persistencia inmediata
-                    new SerieDAO(){}.setSerieViewed(serieSeleccionada);
+                    new SerieDAO(){}.setSerieViewed(session, serieSeleccionada);
                 }
             }
 		} while (exit !=0);
@@ -245,13 +352,14 @@ public class Main implements UserDAO {
 
             if(response > 0) {
                 Chapter chapterSelected = chaptersOfSerieSelected.get(response-1);
-                chapterSelected.view();
-
-                // Después de ver un capítulo, verificamos si la serie padre
-                // ahora está vista y actualizamos nuestra lista global.
-                if (Boolean.parseBoolean(chapterSelected.getSerie().isViewed())) {
-                    // Buscamos la serie en nuestra lista estática y la actualizamos
-                    for (Serie s : series) {
+                chapterSelected.view(session);
+
+                // Después de ver un capítulo, verificamos si la serie padre ahora está
+                // vista y, si el reporte general ya cargó el catálogo completo, lo
+                // actualizamos; si no, se cargará con las marcas del historial.
+                if (chapterSelected.getSerie().getIsViewed() && session.getCatalog() != null) {
+                    // Buscamos la serie en el catálogo de la sesión y la actualizamos
+                    for (Serie s : session.getCatalog().getSeries()) {
                         if (s.getId() == chapterSelected.getSerie().getId()) {
                             s.setViewed(true);
                         }
@@ -267,29 +375,35 @@ public class Main implements UserDAO {
 	public static void showBooks() {
 
 		int exit = 1;
+        BookDAO bookDAO = new BookDAO() {};
+        // Sólo se cuentan las páginas de los libros de la página visible
+        CatalogPager<Book> pager = new CatalogPager<>(
+                (afterId, size) -> withPageCounts(bookDAO.readPageAfter(session, afterId, size)),
+                (beforeId, size) -> withPageCounts(bookDAO.readPageBefore(session, beforeId, size)),
+                PAGE_SIZE);
 
 		do {
 			System.out.println();
 			System.out.println(":: BOOKS ::");
 			System.out.println();
 
+            List<Book> page = pager.current().getItems();
             AtomicInteger counter = new AtomicInteger(1);
-            books.forEach(b -> System.out.println(counter.getAndIncrement() + ". " + b.getTitle() + ". Leido: " + b.isReaded()));
+            page.forEach(b -> System.out.println(counter.getAndIncrement() + ". " + b.getTitle() + ". Leido: " + b.isReaded()));
+            printPageOptions(pager.current());
 
 			System.out.println("0. Regresar al Menu");
 			System.out.println();
 
 			//Leer Respuesta usuario
-			int response = AmazonUtil.validateUserResponseMenu(0, books.size());
+			int response = AmazonUtil.validateUserResponseMenu(0, page.size() + 2);
 
 			if(response == 0) {
 				exit = 0;
 				showMenu();
-			}
-
-			if(response > 0) {
-				Book bookSelected = books.get(response-1);
-                bookSelected.view();
+			} else if (!navigate(pager, response)) {
+				Book bookSelected = page.get(response-1);
+                bookSelected.view(session);
 
                 System.out.println("\n----------------------------------------------");
                 System.out.println(" Has leído el libro : " + bookSelected.getTitle());
@@ -305,27 +419,32 @@ public class Main implements UserDAO {
      */
     public static void showMagazines() {
         int exit = 1;
+        MagazineDAO magazineDAO = new MagazineDAO() {};
+        CatalogPager<Magazine> pager = new CatalogPager<>(
+                (afterId, size) -> magazineDAO.readPageAfter(session, afterId, size),
+                (beforeId, size) -> magazineDAO.readPageBefore(session, beforeId, size),
+                PAGE_SIZE);
 
         do {
             System.out.println(":: LISTADO DE REVISTAS ::");
 
+            List<Magazine> page = pager.current().getItems();
             AtomicInteger counter = new AtomicInteger(1);
-            magazines.forEach(ma -> System.out.println(counter.getAndIncrement() + ". " + ma.getTitle() + ". Leida: " + ma.isReaded()));
+            page.forEach(ma -> System.out.println(counter.getAndIncrement() + ". " + ma.getTitle() + ". Leida: " + ma.isReaded()));
+            printPageOptions(pager.current());
 
             System.out.println("0. Regresar al Menu Principal");
             System.out.println();
 
-            // 1. CORRECCIÓN: El rango debe ser entre 0 y el tamaño de la lista
-            int response = AmazonUtil.validateUserResponseMenu(0, magazines.size());
+            // El rango cubre los elementos de la página y las dos opciones de navegación
+            int response = AmazonUtil.validateUserResponseMenu(0, page.size() + 2);
 
             if (response == 0) {
                 exit = 0;
                 showMenu();
-            }
-
-            if (response > 0) {
-                Magazine magazineSelected = magazines.get(response - 1);
-                magazineSelected.view();
+            } else if (!navigate(pager, response)) {
+                Magazine magazineSelected = page.get(response - 1);
+                magazineSelected.view(session);
 
                 System.out.println("----------------------------------------------");
                 System.out.println(" Has leído la revista: " + magazineSelected.getTitle());
@@ -336,86 +455,84 @@ public class Main implements UserDAO {
     }
 
     /**
-     * Genera un reporte general de todos los elementos marcados como vistos o leídos.
-     * Utiliza la clase {@link Report} para escribir el archivo en disco.
+     * Imprime las opciones de navegación disponibles para la página actual.
+     * Los elementos se numeran de 1 a n; n+1 es la página siguiente y n+2 la anterior.
+     * @param page La página que se está mostrando.
      */
-	public static void makeReport() {
-
-		Report report = new Report();
-		report.setNameFile("reporte");
-		report.setExtension("txt");
-		report.setTitle(":: VISTOS/LEIDOS ::");
-		String contentReport = "REPORTE GENERAL\n";;
+    private static void printPageOptions(CatalogPage<?> page) {
+        if (page.hasNext()) {
+            System.out.println((page.size() + 1) + ". Página siguiente >>");
+        }
+        if (page.hasPrevious()) {
+            System.out.println((page.size() + 2) + ". << Página anterior");
+        }
+    }
 
-		for (Movie movie : movies) {
-			if (movie.getIsViewed()) {
-				contentReport += movie.toString() + "\n";
-			}
-		}
+    /**
+     * Atiende las opciones de navegación de un menú paginado.
+     * @param pager    El paginador del menú.
+     * @param response La opción elegida (mayor a 0).
+     * @return {@code true} si la opción era de navegación; {@code false} si selecciona un elemento.
+     */
+    private static boolean navigate(CatalogPager<?> pager, int response) {
+        int size = pager.current().size();
+        if (response == size + 1) {
+            if (!pager.next()) {
+                System.out.println("....No hay más páginas....");
+            }
+            return true;
+        }
+        if (response == size + 2) {
+            if (!pager.previous()) {
+                System.out.println("....Ya estás en la primera página....");
+            }
+            return true;
+        }
+        return false;
+    }
 
-		for (Serie serie : series) {
-			ArrayList<Chapter> chapters = serie.getChapters();
-			for (Chapter chapter : chapters) {
-				if (chapter.getIsViewed()) {
-					contentReport += chapter.toString() + "\n";
-				}
-			}
-		}
+    private static CatalogPage<Book> withPageCounts(CatalogPage<Book> page) {
+        Book.loadPageCounts(page.getItems());
+        return page;
+    }
 
-		for (Book book : books) {
-			if (book.getIsReaded()) {
-				contentReport += book.toString() + "\n";
-			}
+    /**
+     * Genera un reporte general de todos los elementos marcados como vistos o leídos.
+     * Utiliza un {@link ReportWriter} para escribir el archivo en disco a medida que
+     * recorre el catálogo, que se carga aquí la primera vez (ver {@link #catalog()}).
+     */
+	public static void makeReport() {
+		catalog();
+		try (ReportWriter report = ReportWriter.open(Paths.get("reporte.txt"))) {
+			report.append("REPORTE GENERAL\n");
+			ViewedReport.write(session, report);
+		} catch (IOException e) {
+			e.printStackTrace();
 		}
-
-		report.setContent(contentReport);
-		report.makeReport();
 		System.out.println("Reporte Total");
 		System.out.println();
 	}
 
     /**
-     * Genera un reporte cronológico detallado con la fecha y hora actual.
+     * Genera el reporte de lo visto o leído por última vez en el día de la fecha indicada.
      * Sobrecarga el método {@link #makeReport()} para incluir una estampa de tiempo
-     * en el nombre del archivo y en el encabezado.
+     * en el nombre del archivo y en el encabezado; el contenido se consulta por fecha
+     * en la tabla {@code viewed} (ver {@link ViewedReport#writeDay}).
      * @param date Objeto {@link Date} con la fecha para el reporte.
      */
 	public static void makeReport(Date date) {
 		SimpleDateFormat df = new SimpleDateFormat("yyyy-MM-dd-h-m-s");
 		String dateString = df.format(date);
-		Report report = new Report();
-
-		report.setNameFile("reporte" + dateString);
-		report.setExtension("txt");
-		report.setTitle(":: VISTOS/LEIDOS ::");
 
         Locale spanishLocale = new Locale("es", "ES");
         SimpleDateFormat dfNameDays = new SimpleDateFormat("EEEE d 'de' MMMM 'de' yyyy", spanishLocale);
-		dateString = dfNameDays.format(date);
-		String contentReport = "Fecha: " + dateString + "\n\n";
-
-		for (Movie movie : movies) {
-			if (movie.getIsViewed()) {
-				contentReport += movie.toString() + "\n";
-			}
-		}
-
-		for (Serie serie : series) {
-			ArrayList<Chapter> chapters = serie.getChapters();
-			for (Chapter chapter : chapters) {
-				if (chapter.getIsViewed()) {
-					contentReport += chapter.toString() + "\n";
-				}
-			}
-		}
-
-		for (Book book : books) {
-			if (book.getIsReaded()) {
-				contentReport += book.toString() + "\n";
-			}
+		try (ReportWriter report = ReportWriter.open(Paths.get("reporte" + dateString + ".txt"))) {
+			report.append("Fecha: ").append(dfNameDays.format(date)).append("\n");
+			report.append("Vistos o leídos por última vez en este día\n\n");
+			ViewedReport.writeDay(session, date.toInstant().atZone(ZoneId.systemDefault()).toLocalDate(), report);
+		} catch (IOException e) {
+			e.printStackTrace();
 		}
-		report.setContent(contentReport);
-		report.makeReport();
 
 		System.out.println("Reporte Generado de hoy");
 		System.out.println();
@@ -0,0 +1,215 @@
+package com.anncode.amazonviewer.bench;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ejecutor de micro-benchmarks de rendimiento (operaciones por segundo).
+ * <p>
+ * Sigue el esquema de JMH sin depender de él: cada benchmark corre unas iteraciones
+ * de calentamiento que se descartan (para que el JIT compile el código medido) y luego
+ * las iteraciones de medición, cada una de duración fija. El resultado de cada llamada
+ * se acumula en un sumidero para que el JIT no elimine el trabajo como código muerto.
+ * </p>
+ * <p>
+ * Los resultados se imprimen como tabla y pueden exportarse en CSV o en JSON con los
+ * mismos campos que usa JMH ({@code benchmark}, {@code params}, {@code score},
+ * {@code scoreError}...), así que se pueden comparar entre ejecuciones con herramientas
+ * externas.
+ * </p>
+ * @author Luigi
+ * @version 1.4
+ * @since 2026-10-17
+ */
+public final class BenchmarkRunner {
+
+    /** Unidad de la puntuación de los resultados. */
+    public static final String UNIT = "ops/s";
+
+    /**
+     * Operación que se mide.
+     */
+    @FunctionalInterface
+    public interface Workload {
+        /**
+         * Ejecuta una vez la operación.
+         * @return Cualquier valor derivado del trabajo (se consume para evitar la eliminación de código muerto).
+         * @throws Exception Si la operación falla; el benchmark se aborta.
+         */
+        Object run() throws Exception;
+    }
+
+    /**
+     * Resultado de un benchmark.
+     */
+    public static final class Result {
+        private final String benchmark;
+        private final String params;
+        private final double[] scores;
+        private final double score;
+        private final double scoreError;
+
+        Result(String benchmark, String params, double[] scores) {
+            this.benchmark = benchmark;
+            this.params = params;
+            this.scores = scores;
+            double sum = 0;
+            for (double s : scores) {
+                sum += s;
+            }
+            this.score = sum / scores.length;
+            double variance = 0;
+            for (double s : scores) {
+                variance += (s - score) * (s - score);
+            }
+            this.scoreError = scores.length > 1 ? Math.sqrt(variance / (scores.length - 1)) : 0.0;
+        }
+
+        /** @return El nombre del benchmark. */
+        public String getBenchmark() {
+            return benchmark;
+        }
+
+        /** @return Los parámetros del benchmark (ej. {@code size=1000}), o cadena vacía. */
+        public String getParams() {
+            return params;
+        }
+
+        /** @return La media de operaciones por segundo de las iteraciones medidas. */
+        public double getScore() {
+            return score;
+        }
+
+        /** @return La desviación estándar de las iteraciones medidas. */
+        public double getScoreError() {
+            return scoreError;
+        }
+
+        /** @return La duración media de una operación, en microsegundos. */
+        public double getMicrosPerOp() {
+            return score == 0 ? 0.0 : 1e6 / score;
+        }
+    }
+
+    private final int warmupIterations;
+    private final int iterations;
+    private final long iterationNanos;
+    private final List<Result> results = new ArrayList<>();
+    /** Sumidero de los resultados de las operaciones medidas. */
+    private volatile int sink;
+
+    /**
+     * Crea el ejecutor.
+     * @param warmupIterations Iteraciones de calentamiento, que no se registran.
+     * @param iterations       Iteraciones de medición.
+     * @param iterationMillis  Duración de cada iteración en milisegundos.
+     */
+    public BenchmarkRunner(int warmupIterations, int iterations, long iterationMillis) {
+        if (iterations < 1 || iterationMillis < 1) {
+            throw new IllegalArgumentException("Se requiere al menos una iteración de al menos 1 ms");
+        }
+        this.warmupIterations = Math.max(0, warmupIterations);
+        this.iterations = iterations;
+        this.iterationNanos = TimeUnit.MILLISECONDS.toNanos(iterationMillis);
+    }
+
+    /**
+     * Mide una operación y registra su resultado.
+     * @param benchmark El nombre del benchmark.
+     * @param params    Los parámetros del benchmark, o cadena vacía.
+     * @param workload  La operación a medir.
+     * @return El resultado registrado.
+     * @throws Exception Si la operación falla.
+     */
+    public Result run(String benchmark, String params, Workload workload) throws Exception {
+        for (int i = 0; i < warmupIterations; i++) {
+            iteration(workload);
+        }
+        double[] scores = new double[iterations];
+        for (int i = 0; i < iterations; i++) {
+            scores[i] = iteration(workload);
+        }
+        Result result = new Result(benchmark, params, scores);
+        results.add(result);
+        return result;
+    }
+
+    /** Ejecuta la operación durante una iteración y devuelve las operaciones por segundo. */
+    private double iteration(Workload workload) throws Exception {
+        long ops = 0;
+        int consumed = 0;
+        long start = System.nanoTime();
+        long deadline = start + iterationNanos;
+        long now;
+        // Las operaciones lentas (ej. una consulta completa) se ejecutan al menos una vez
+        do {
+            Object value = workload.run();
+            consumed ^= value == null ? 0 : value.hashCode();
+            ops++;
+            now = System.nanoTime();
+        } while (now < deadline);
+        sink ^= consumed;
+        return ops / ((now - start) / 1e9);
+    }
+
+    /** @return Los resultados registrados, en orden de ejecución. */
+    public List<Result> getResults() {
+        return Collections.unmodifiableList(results);
+    }
+
+    /**
+     * Imprime los resultados como tabla.
+     * @param out El destino.
+     */
+    public void printTable(PrintStream out) {
+        out.printf("%-28s %-14s %14s %12s %12s%n", "benchmark", "params", "score", "error", "us/op");
+        for (Result r : results) {
+            out.printf(Locale.ROOT, "%-28s %-14s %14.2f %12.2f %12.3f%n",
+                    r.benchmark, r.params, r.score, r.scoreError, r.getMicrosPerOp());
+        }
+        out.println("(score en " + UNIT + "; error = desviación estándar de " + iterations + " iteraciones)");
+    }
+
+    /**
+     * Escribe los resultados en CSV, con encabezado.
+     * @param out El destino.
+     * @throws IOException Si falla la escritura.
+     */
+    public void writeCsv(Writer out) throws IOException {
+        out.write("benchmark,params,iterations,score,scoreError,unit,usPerOp\n");
+        for (Result r : results) {
+            out.write(String.format(Locale.ROOT, "%s,\"%s\",%d,%.4f,%.4f,%s,%.4f%n",
+                    r.benchmark, r.params, r.scores.length, r.score, r.scoreError, UNIT, r.getMicrosPerOp()));
+        }
+    }
+
+    /**
+     * Escribe los resultados como un arreglo JSON, un objeto por benchmark.
+     * @param out El destino.
+     * @throws IOException Si falla la escritura.
+     */
+    public void writeJson(Writer out) throws IOException {
+        out.write("[\n");
+        for (int i = 0; i < results.size(); i++) {
+            Result r = results.get(i);
+            StringBuilder raw = new StringBuilder();
+            for (int j = 0; j < r.scores.length; j++) {
+                raw.append(j == 0 ? "" : ", ").append(String.format(Locale.ROOT, "%.4f", r.scores[j]));
+            }
+            out.write(String.format(Locale.ROOT,
+                    "  {\"benchmark\": \"%s\", \"params\": \"%s\", \"mode\": \"thrpt\", \"warmupIterations\": %d, " +
+                    "\"iterations\": %d, \"iterationMillis\": %d, \"score\": %.4f, \"scoreError\": %.4f, " +
+                    "\"scoreUnit\": \"%s\", \"rawData\": [%s]}%s%n",
+                    r.benchmark, r.params, warmupIterations, r.scores.length,
+                    TimeUnit.NANOSECONDS.toMillis(iterationNanos), r.score, r.scoreError, UNIT, raw,
+                    i < results.size() - 1 ? "," : ""));
+        }
+        out.write("]\n");
+    }
+}
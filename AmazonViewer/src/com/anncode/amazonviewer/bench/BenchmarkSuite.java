@@ -0,0 +1,281 @@
+package com.anncode.amazonviewer.bench;
+
+import com.anncode.amazonviewer.dao.BookDAO;
+import com.anncode.amazonviewer.dao.CatalogSnapshot;
+import com.anncode.amazonviewer.dao.MovieDAO;
+import com.anncode.amazonviewer.dao.PageCache;
+import com.anncode.amazonviewer.dao.UserDAO;
+import com.anncode.amazonviewer.dao.ViewedIndex;
+import com.anncode.amazonviewer.db.ConnectionPool;
+import com.anncode.amazonviewer.db.DataBase.MaterialNames;
+import com.anncode.amazonviewer.db.DataBase.TMovie;
+import com.anncode.amazonviewer.db.DatabaseBackend;
+import com.anncode.amazonviewer.db.MaterialRegistry;
+import com.anncode.amazonviewer.model.Book;
+import com.anncode.amazonviewer.model.Chapter;
+import com.anncode.amazonviewer.model.Magazine;
+import com.anncode.amazonviewer.model.Movie;
+import com.anncode.amazonviewer.model.Serie;
+import com.anncode.amazonviewer.model.Session;
+import com.anncode.amazonviewer.model.User;
+import com.anncode.amazonviewer.report.ViewedReport;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Suite de benchmarks de las lecturas de los DAOs, la carga del catálogo y el reporte.
+ * <p>
+ * Los benchmarks en memoria corren sobre un catálogo sintético de cada tamaño indicado
+ * (la mitad de sus elementos marcados como vistos) y no requieren base de datos:
+ * </p>
+ * <ul>
+ * <li>{@code viewed.lookup}: consulta por fila del {@link ViewedIndex}, como al leer un catálogo.</li>
+ * <li>{@code report.content}: construcción del texto del reporte ({@link ViewedReport}).</li>
+ * <li>{@code toString.movie} y {@code toString.book}: render de las fichas del modelo.</li>
+ * </ul>
+ * <p>
+ * Los benchmarks {@code dao.*} leen la base de datos configurada en {@code DBConfig}:
+ * lectura de películas, series con el JOIN de sus capítulos, libros con sus totales de
+ * páginas y una ventana de páginas de un libro. Con H2 embebido
+ * ({@code -Damazonviewer.db.backend=h2}) la base de datos se siembra antes con el
+ * {@link DatasetGenerator} hasta tener {@code dbSize} películas (y la décima parte de
+ * series, libros y revistas), de modo que los resultados se repiten en cualquier equipo.
+ * MySQL se mide con el volumen que tenga cargado. Si la base de datos no responde se omiten.
+ * </p>
+ * <p>
+ * Parámetros: {@code -Damazonviewer.bench.sizes} (1000,10000),
+ * {@code -Damazonviewer.bench.warmupIterations} (3), {@code -Damazonviewer.bench.iterations} (5),
+ * {@code -Damazonviewer.bench.iterationMs} (1000), {@code -Damazonviewer.bench.include}
+ * (expresión regular sobre el nombre), {@code -Damazonviewer.bench.db} (true),
+ * {@code -Damazonviewer.bench.dbSize} (1000; 0 para no sembrar) y
+ * {@code -Damazonviewer.bench.result}, un archivo {@code .csv} o {@code .json} donde
+ * exportar los resultados.
+ * </p>
+ * @author Luigi
+ * @version 1.4
+ * @since 2026-10-17
+ */
+public final class BenchmarkSuite {
+
+    private static final String SIZES = System.getProperty("amazonviewer.bench.sizes", "1000,10000");
+    private static final int WARMUP_ITERATIONS = Integer.getInteger("amazonviewer.bench.warmupIterations", 3);
+    private static final int ITERATIONS = Integer.getInteger("amazonviewer.bench.iterations", 5);
+    private static final long ITERATION_MS = Long.getLong("amazonviewer.bench.iterationMs", 1000L);
+    private static final Pattern INCLUDE = Pattern.compile(System.getProperty("amazonviewer.bench.include", ".*"));
+    private static final boolean DB = Boolean.parseBoolean(System.getProperty("amazonviewer.bench.db", "true"));
+    private static final String RESULT = System.getProperty("amazonviewer.bench.result");
+    private static final int DB_SIZE = Integer.getInteger("amazonviewer.bench.dbSize", 1000);
+    /** Capítulos por serie del catálogo sintético. */
+    private static final int CHAPTERS_PER_SERIE = 10;
+
+    private final BenchmarkRunner runner = new BenchmarkRunner(WARMUP_ITERATIONS, ITERATIONS, ITERATION_MS);
+
+    private BenchmarkSuite() {
+    }
+
+    /**
+     * Ejecuta la suite.
+     * @param args No se usan.
+     * @throws Exception Si un benchmark falla o no se puede escribir el resultado.
+     */
+    public static void main(String[] args) throws Exception {
+        BenchmarkSuite suite = new BenchmarkSuite();
+        for (String size : SIZES.split(",")) {
+            suite.inMemory(Integer.parseInt(size.trim()));
+        }
+        if (DB && databaseAvailable()) {
+            seed();
+            suite.database();
+        }
+        suite.runner.printTable(System.out);
+        if (RESULT != null) {
+            suite.export(Paths.get(RESULT));
+        }
+    }
+
+    private void inMemory(int size) throws Exception {
+        String params = "size=" + size;
+        Session session = syntheticSession(size);
+        ViewedIndex viewed = session.getViewedIndex();
+        List<Movie> movies = session.getCatalog().getMovies();
+        List<Book> books = session.getCatalog().getBooks();
+
+        bench("viewed.lookup", params, () -> {
+            int count = 0;
+            for (Movie movie : movies) {
+                if (viewed.isViewed(MaterialNames.MOVIE, movie.getId())) {
+                    count++;
+                }
+            }
+            return count;
+        });
+        bench("report.content", params, () -> ViewedReport.content(session).length());
+        bench("toString.movie", params, () -> {
+            int length = 0;
+            for (Movie movie : movies) {
+                length += movie.toString().length();
+            }
+            return length;
+        });
+        bench("toString.book", params, () -> {
+            int length = 0;
+            for (Book book : books) {
+                length += book.toString().length();
+            }
+            return length;
+        });
+    }
+
+    private void database() throws Exception {
+        MaterialRegistry.getInstance().load();
+        Session session = new UserDAO() {}.openSession("bench");
+        MovieDAO movieDAO = new MovieDAO() {};
+        BookDAO bookDAO = new BookDAO() {};
+        List<Book> books = Book.makeBookList(session);
+        String params = "db movies=" + count(TMovie.NAME);
+
+        bench("dao.movie.read", params, () -> movieDAO.read(session).size());
+        bench("dao.serie.makeSeriesList", params, () -> Serie.makeSeriesList(session).size());
+        bench("dao.book.makeBookList", params, () -> Book.makeBookList(session).size());
+        if (!books.isEmpty()) {
+            int[] next = {0};
+            bench("dao.book.readPageWindow", params, () -> {
+                Book book = books.get(next[0]++ % books.size());
+                return bookDAO.readPageWindow(book.getId(), BookDAO.BEFORE_FIRST_PAGE, PageCache.WINDOW_SIZE).size();
+            });
+        }
+    }
+
+    private void bench(String name, String params, BenchmarkRunner.Workload workload) throws Exception {
+        if (INCLUDE.matcher(name).find()) {
+            System.out.println(">>> " + name + " [" + params + "]");
+            runner.run(name, params, workload);
+        }
+    }
+
+    private void export(Path path) throws IOException {
+        try (Writer out = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+            if (path.toString().endsWith(".csv")) {
+                runner.writeCsv(out);
+            } else {
+                runner.writeJson(out);
+            }
+        }
+        System.out.println(">>> Resultados en " + path.toAbsolutePath());
+    }
+
+    /**
+     * Siembra la base de datos H2 embebida hasta {@link #DB_SIZE} películas. Los datos del
+     * {@link DatasetGenerator} se agregan a los existentes, así que sólo se genera lo que
+     * falta; MySQL no se siembra para no alterar una base de datos real.
+     */
+    private static void seed() throws Exception {
+        if (DB_SIZE <= 0 || !DatabaseBackend.get().isEmbedded()) {
+            return;
+        }
+        long missing = DB_SIZE - count(TMovie.NAME);
+        if (missing > 0) {
+            System.out.println(">>> Sembrando H2 con " + missing + " películas");
+            DatasetGenerator.seed((int) missing);
+        }
+    }
+
+    private static long count(String table) throws SQLException {
+        try (Connection connection = ConnectionPool.getInstance().getConnection();
+             Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM " + table)) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+
+    private static boolean databaseAvailable() {
+        try (Connection connection = ConnectionPool.getInstance().getConnection()) {
+            return connection != null;
+        } catch (SQLException | RuntimeException e) {
+            System.err.println("Base de datos no disponible, se omiten los benchmarks dao.*: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Crea una sesión con un catálogo sintético en memoria.
+     * <p>
+     * {@code size} películas y libros, {@code size / 10} series de {@value #CHAPTERS_PER_SERIE}
+     * capítulos y {@code size / 10} revistas; los elementos con id par quedan vistos.
+     * </p>
+     */
+    static Session syntheticSession(int size) {
+        User user = new User("bench");
+        user.setId(1);
+        ViewedIndex viewed = new ViewedIndex(user.getId());
+        user.setViewedIndex(viewed);
+        Session session = new Session(user, viewed);
+        Date edition = new Date(1_600_000_000_000L);
+
+        ArrayList<Movie> movies = new ArrayList<>(size);
+        for (int id = 1; id <= size; id++) {
+            Movie movie = new Movie("Película " + id, "Drama", "Creador " + id % 97, 90 + id % 60,
+                    (short) (1950 + id % 75));
+            movie.setId(id);
+            movies.add(movie);
+            markEven(viewed, MaterialNames.MOVIE, id);
+        }
+
+        int serieCount = Math.max(1, size / CHAPTERS_PER_SERIE);
+        ArrayList<Serie> series = new ArrayList<>(serieCount);
+        int chapterId = 0;
+        for (int id = 1; id <= serieCount; id++) {
+            Serie serie = new Serie("Serie " + id, "Comedia", "Creador " + id % 97, 30, 1);
+            serie.setId(id);
+            ArrayList<Chapter> chapters = new ArrayList<>(CHAPTERS_PER_SERIE);
+            for (int n = 1; n <= CHAPTERS_PER_SERIE; n++) {
+                Chapter chapter = new Chapter("Capítulo " + n, serie.getGenre(), serie.getCreator(), 30,
+                        (short) 2020, 1, serie);
+                chapter.setId(++chapterId);
+                chapters.add(chapter);
+                markEven(viewed, MaterialNames.CHAPTER, chapterId);
+            }
+            serie.setChapters(chapters);
+            series.add(serie);
+        }
+
+        ArrayList<Book> books = new ArrayList<>(size);
+        for (int id = 1; id <= size; id++) {
+            Book book = new Book("Libro " + id, edition, "Editorial " + id % 31, "Autor A, Autor B", null);
+            book.setId(id);
+            book.setPageCount(100);
+            books.add(book);
+            markEven(viewed, MaterialNames.BOOK, id);
+        }
+
+        ArrayList<Magazine> magazines = new ArrayList<>(serieCount);
+        for (int id = 1; id <= serieCount; id++) {
+            Magazine magazine = new Magazine("Revista " + id, edition, "Editorial " + id % 31);
+            magazine.setId(id);
+            magazines.add(magazine);
+        }
+
+        session.setCatalog(new CatalogSnapshot(movies, series, books, magazines));
+        return session;
+    }
+
+    private static void markEven(ViewedIndex viewed, String material, int id) {
+        if (id % 2 == 0) {
+            viewed.markViewed(material, id);
+        }
+    }
+}
@@ -0,0 +1,395 @@
+package com.anncode.amazonviewer.bench;
+
+import com.anncode.amazonviewer.db.ConnectionPool;
+import com.anncode.amazonviewer.db.DataBase.*;
+import com.anncode.amazonviewer.db.IDBConnection;
+import com.anncode.amazonviewer.db.MaterialRegistry;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Generador de un conjunto de datos sintético de gran volumen.
+ * <p>
+ * Agrega a la base de datos configurada películas, series con temporadas y capítulos,
+ * libros con sus páginas, revistas, usuarios y registros de vistos, siguiendo el esquema
+ * de {@link com.anncode.amazonviewer.db.DataBase}. Los datos se agregan a continuación
+ * de los existentes: los ids se asignan a partir del máximo de cada tabla.
+ * </p>
+ * <p>
+ * Cada valor se deriva de la semilla, la tabla y el número de fila con una función de
+ * mezcla, no de un generador secuencial. Así el resultado es determinista aunque cada
+ * tabla se cargue en paralelo por tramos (un hilo y una conexión por tramo) y en
+ * cualquier orden. La carga usa lotes de {@code INSERT} preparados, que el driver de
+ * MySQL reescribe como sentencias de varias filas ({@code rewriteBatchedStatements}), y
+ * confirma una transacción por lote.
+ * </p>
+ * <p>
+ * Parámetros ({@code -Damazonviewer.data.*}): {@code seed} (42), {@code movies} (100000),
+ * {@code series} (10000), {@code seasons} (5), {@code chaptersPerSeason} (10),
+ * {@code books} (10000), {@code pagesPerBook} (1000), {@code magazines} (10000),
+ * {@code users} (10000), {@code viewedPerUser} (100), {@code days} (365),
+ * {@code endDate} (hoy; fijarla para repetir exactamente las fechas), {@code batchSize}
+ * (1000) y {@code threads} (4, acotado por el tamaño del {@link ConnectionPool}).
+ * {@link BenchmarkSuite} usa {@link #seed(int)}, que escala las tablas a un tamaño dado.
+ * </p>
+ * @author Luigi
+ * @version 1.4
+ * @since 2026-10-17
+ */
+public final class DatasetGenerator implements IDBConnection {
+
+    private static final long SEED = Long.getLong("amazonviewer.data.seed", 42L);
+    private static final int MOVIES = Integer.getInteger("amazonviewer.data.movies", 100_000);
+    private static final int SERIES = Integer.getInteger("amazonviewer.data.series", 10_000);
+    private static final int SEASONS = Integer.getInteger("amazonviewer.data.seasons", 5);
+    private static final int CHAPTERS_PER_SEASON = Integer.getInteger("amazonviewer.data.chaptersPerSeason", 10);
+    private static final int BOOKS = Integer.getInteger("amazonviewer.data.books", 10_000);
+    private static final int PAGES_PER_BOOK = Integer.getInteger("amazonviewer.data.pagesPerBook", 1_000);
+    private static final int MAGAZINES = Integer.getInteger("amazonviewer.data.magazines", 10_000);
+    private static final int USERS = Integer.getInteger("amazonviewer.data.users", 10_000);
+    private static final int VIEWED_PER_USER = Integer.getInteger("amazonviewer.data.viewedPerUser", 100);
+    private static final int DAYS = Integer.getInteger("amazonviewer.data.days", 365);
+    private static final String END_DATE = System.getProperty("amazonviewer.data.endDate");
+    private static final int BATCH_SIZE = Integer.getInteger("amazonviewer.data.batchSize", 1_000);
+    private static final int THREADS = Math.max(1, Math.min(ConnectionPool.MAX_SIZE,
+            Integer.getInteger("amazonviewer.data.threads", 4)));
+
+    private static final String[] GENRES = {"Drama", "Comedia", "Acción", "Terror", "Ciencia ficción",
+            "Documental", "Animación", "Suspenso", "Romance", "Aventura"};
+    private static final String[] EDITORIALS = {"Planeta", "Anagrama", "Alfaguara", "Siruela", "Tusquets",
+            "Debolsillo", "Salamandra", "Acantilado"};
+    private static final String[] WORDS = {"el", "la", "de", "que", "y", "en", "un", "una", "los", "las",
+            "tiempo", "ciudad", "noche", "camino", "historia", "mundo", "mar", "casa", "viento", "luz",
+            "voz", "memoria", "río", "silencio", "puerta", "libro", "sueño", "fuego", "tierra", "cielo",
+            "caminaba", "miraba", "decía", "pensaba", "esperaba", "volvía", "sabía", "recordaba"};
+    private static final int WORDS_PER_PAGE = 60;
+
+    /** Tablas generadas, usadas como sal para que cada una tenga su propia secuencia. */
+    private enum Table { MOVIE, SERIE, CHAPTER, BOOK, PAGE, MAGAZINE, USER, VIEWED }
+
+    /** Asigna los parámetros de una fila a partir de su número (0, 1, 2...). */
+    @FunctionalInterface
+    private interface RowBinder {
+        void bind(PreparedStatement ps, long row) throws SQLException;
+    }
+
+    private final int movies;
+    private final int series;
+    private final int books;
+    private final int magazines;
+    private final int users;
+    private final long endMillis;
+    private final long[] base = new long[Table.values().length];
+
+    private DatasetGenerator() {
+        this(MOVIES, SERIES, BOOKS, MAGAZINES, USERS);
+    }
+
+    private DatasetGenerator(int movies, int series, int books, int magazines, int users) {
+        this.movies = movies;
+        this.series = series;
+        this.books = books;
+        this.magazines = magazines;
+        this.users = users;
+        LocalDate end = END_DATE == null ? LocalDate.now() : LocalDate.parse(END_DATE);
+        endMillis = end.plusDays(1).atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli() - 1;
+    }
+
+    /**
+     * Genera y carga el conjunto de datos.
+     * @param args No se usan.
+     * @throws Exception Si falla la carga de alguna tabla.
+     */
+    public static void main(String[] args) throws Exception {
+        new DatasetGenerator().generate();
+    }
+
+    /**
+     * Genera y carga un conjunto de datos escalado: {@code size} películas y
+     * {@code size / 10} series, libros, revistas y usuarios. Las temporadas, capítulos,
+     * páginas y vistos por elemento siguen sus parámetros {@code amazonviewer.data.*}.
+     * @param size La cantidad de películas.
+     * @throws Exception Si falla la carga de alguna tabla.
+     */
+    static void seed(int size) throws Exception {
+        int others = Math.max(1, size / 10);
+        new DatasetGenerator(size, others, others, others, others).generate();
+    }
+
+    private void generate() throws Exception {
+        MaterialRegistry.getInstance().load();
+        readBases();
+
+        long start = System.nanoTime();
+        long rows = 0;
+        AtomicInteger counter = new AtomicInteger(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS, r -> {
+            Thread t = new Thread(r, "amazonviewer-dataset-" + counter.getAndIncrement());
+            t.setDaemon(true);
+            return t;
+        });
+        try {
+            rows += load(executor, Table.MOVIE, TMovie.NAME, movies, this::bindMovie,
+                    TMovie.ID, TMovie.TITLE, TMovie.GENRE, TMovie.CREATOR, TMovie.DURATION, TMovie.YEAR);
+            rows += load(executor, Table.SERIE, TSerie.NAME, series, this::bindSerie,
+                    TSerie.ID, TSerie.TITLE, TSerie.GENRE, TSerie.CREATOR, TSerie.DURATION, TSerie.YEAR,
+                    TSerie.SESSION_QUANTITY);
+            rows += load(executor, Table.CHAPTER, TChapter.NAME, chapters(),
+                    this::bindChapter, TChapter.ID, TChapter.TITLE, TChapter.DURATION, TChapter.YEAR,
+                    TChapter.SESSION_NUMBER, TChapter.ID_SERIE);
+            rows += load(executor, Table.BOOK, TBook.NAME, books, this::bindBook,
+                    TBook.ID, TBook.TITLE, TBook.EDITORIAL, TBook.EDITION_DATE, TBook.ISBN, TBook.AUTHORS);
+            rows += load(executor, Table.PAGE, TPage.NAME, (long) books * PAGES_PER_BOOK, this::bindPage,
+                    TPage.ID, TPage.NUMBER, TPage.CONTENT, TPage.ID_BOOK);
+            rows += load(executor, Table.MAGAZINE, TMagazine.NAME, magazines, this::bindMagazine,
+                    TMagazine.ID, TMagazine.TITLE, TMagazine.EDITORIAL, TMagazine.EDITION_DATE, TMagazine.AUTHORS);
+            rows += load(executor, Table.USER, TUser.NAME, users, this::bindUser, TUser.ID, TUser.USERNAME);
+            rows += load(executor, Table.VIEWED, TViewed.NAME, (long) users * viewedPerUser(), this::bindViewed,
+                    TViewed.ID, TViewed.ID_MATERIAL, TViewed.ID_ELEMENT, TViewed.ID_USER, TViewed.DATE,
+                    TViewed.VIEW_COUNT);
+        } finally {
+            executor.shutdown();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf(">>> Conjunto de datos cargado: %,d filas en %.1f s (%,.0f filas/s)%n",
+                rows, seconds, rows / seconds);
+    }
+
+    /** Lee el id máximo de cada tabla: los datos nuevos se numeran a continuación. */
+    private void readBases() throws SQLException {
+        String[][] tables = {{TMovie.NAME, TMovie.ID}, {TSerie.NAME, TSerie.ID}, {TChapter.NAME, TChapter.ID},
+                {TBook.NAME, TBook.ID}, {TPage.NAME, TPage.ID}, {TMagazine.NAME, TMagazine.ID},
+                {TUser.NAME, TUser.ID}, {TViewed.NAME, TViewed.ID}};
+        try (Connection connection = connectToDB(); Statement stmt = connection.createStatement()) {
+            for (int i = 0; i < tables.length; i++) {
+                try (ResultSet rs = stmt.executeQuery(
+                        "SELECT COALESCE(MAX(" + tables[i][1] + "), 0) FROM " + tables[i][0])) {
+                    rs.next();
+                    base[i] = rs.getLong(1);
+                }
+            }
+        }
+    }
+
+    /**
+     * Carga una tabla en tramos paralelos.
+     * @return La cantidad de filas insertadas.
+     */
+    private long load(ExecutorService executor, Table table, String name, long count, RowBinder binder,
+                      String... columns) throws InterruptedException, ExecutionException {
+        if (count <= 0) {
+            return 0;
+        }
+        String sql = "INSERT INTO " + name + " (" + String.join(", ", columns) + ") VALUES (" +
+                String.join(", ", Collections.nCopies(columns.length, "?")) + ")";
+        long start = System.nanoTime();
+        long chunk = (count + THREADS - 1) / THREADS;
+        List<Future<?>> parts = new ArrayList<>();
+        for (long from = 0; from < count; from += chunk) {
+            long first = from;
+            long last = Math.min(count, from + chunk);
+            parts.add(executor.submit(() -> {
+                insert(sql, first, last, binder);
+                return null;
+            }));
+        }
+        for (Future<?> part : parts) {
+            part.get();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf(">>> %-9s %,12d filas en %6.1f s (%,.0f filas/s, %d tramos)%n",
+                name, count, seconds, count / seconds, parts.size());
+        return count;
+    }
+
+    /** Inserta las filas {@code [first, last)} en lotes, con una transacción por lote. */
+    private void insert(String sql, long first, long last, RowBinder binder) throws SQLException {
+        try (Connection connection = connectToDB();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
+            connection.setAutoCommit(false);
+            int pending = 0;
+            for (long row = first; row < last; row++) {
+                binder.bind(ps, row);
+                ps.addBatch();
+                if (++pending == BATCH_SIZE) {
+                    ps.executeBatch();
+                    connection.commit();
+                    pending = 0;
+                }
+            }
+            if (pending > 0) {
+                ps.executeBatch();
+                connection.commit();
+            }
+        }
+    }
+
+    private void bindMovie(PreparedStatement ps, long row) throws SQLException {
+        ps.setLong(1, id(Table.MOVIE, row));
+        ps.setString(2, "Película " + (row + 1));
+        ps.setString(3, pick(GENRES, Table.MOVIE, row, 0));
+        ps.setString(4, "Director " + (1 + between(Table.MOVIE, row, 1, 0, 5_000)));
+        ps.setInt(5, 70 + between(Table.MOVIE, row, 2, 0, 110));
+        ps.setShort(6, (short) (1950 + between(Table.MOVIE, row, 3, 0, 76)));
+    }
+
+    private void bindSerie(PreparedStatement ps, long row) throws SQLException {
+        ps.setLong(1, id(Table.SERIE, row));
+        ps.setString(2, "Serie " + (row + 1));
+        ps.setString(3, pick(GENRES, Table.SERIE, row, 0));
+        ps.setString(4, "Creador " + (1 + between(Table.SERIE, row, 1, 0, 2_000)));
+        ps.setInt(5, 20 + between(Table.SERIE, row, 2, 0, 40));
+        ps.setShort(6, (short) (1990 + between(Table.SERIE, row, 3, 0, 36)));
+        ps.setInt(7, SEASONS);
+    }
+
+    /** Capítulos agrupados por serie: {@code SEASONS} temporadas de {@code CHAPTERS_PER_SEASON}. */
+    private void bindChapter(PreparedStatement ps, long row) throws SQLException {
+        int perSerie = SEASONS * CHAPTERS_PER_SEASON;
+        long serie = row / perSerie;
+        int within = (int) (row % perSerie);
+        int season = within / CHAPTERS_PER_SEASON + 1;
+        ps.setLong(1, id(Table.CHAPTER, row));
+        ps.setString(2, "T" + season + " E" + (within % CHAPTERS_PER_SEASON + 1));
+        ps.setInt(3, 20 + between(Table.CHAPTER, row, 0, 0, 40));
+        ps.setShort(4, (short) (1990 + between(Table.SERIE, serie, 3, 0, 36) + season - 1));
+        ps.setInt(5, season);
+        ps.setLong(6, id(Table.SERIE, serie));
+    }
+
+    private void bindBook(PreparedStatement ps, long row) throws SQLException {
+        ps.setLong(1, id(Table.BOOK, row));
+        ps.setString(2, "Libro " + (row + 1));
+        ps.setString(3, pick(EDITORIALS, Table.BOOK, row, 0));
+        ps.setDate(4, editionDate(Table.BOOK, row));
+        ps.setString(5, String.format("978%010d", id(Table.BOOK, row)));
+        ps.setString(6, "Autor " + (1 + between(Table.BOOK, row, 1, 0, 3_000)) +
+                ", Autor " + (1 + between(Table.BOOK, row, 2, 0, 3_000)));
+    }
+
+    /** Páginas agrupadas por libro, numeradas desde 1. */
+    private void bindPage(PreparedStatement ps, long row) throws SQLException {
+        long book = row / PAGES_PER_BOOK;
+        ps.setLong(1, id(Table.PAGE, row));
+        ps.setInt(2, (int) (row % PAGES_PER_BOOK) + 1);
+        StringBuilder content = new StringBuilder(WORDS_PER_PAGE * 8);
+        for (int i = 0; i < WORDS_PER_PAGE; i++) {
+            content.append(i == 0 ? "" : " ").append(pick(WORDS, Table.PAGE, row, i));
+        }
+        ps.setString(3, content.append('.').toString());
+        ps.setLong(4, id(Table.BOOK, book));
+    }
+
+    private void bindMagazine(PreparedStatement ps, long row) throws SQLException {
+        ps.setLong(1, id(Table.MAGAZINE, row));
+        ps.setString(2, "Revista " + (row + 1));
+        ps.setString(3, pick(EDITORIALS, Table.MAGAZINE, row, 0));
+        ps.setDate(4, editionDate(Table.MAGAZINE, row));
+        ps.setString(5, "Redacción " + (1 + between(Table.MAGAZINE, row, 1, 0, 500)));
+    }
+
+    private void bindUser(PreparedStatement ps, long row) throws SQLException {
+        long id = id(Table.USER, row);
+        ps.setLong(1, id);
+        ps.setString(2, "user-" + id);
+    }
+
+    /**
+     * Vistos de cada usuario, repartidos entre películas, capítulos, libros y revistas.
+     * <p>
+     * Los elementos de un usuario recorren cada catálogo con un paso coprimo con su
+     * tamaño desde un origen propio del usuario, así que nunca se repiten y se respeta
+     * la llave única (usuario, material, elemento) sin llevar un registro en memoria.
+     * </p>
+     */
+    private void bindViewed(PreparedStatement ps, long row) throws SQLException {
+        int perUser = viewedPerUser();
+        long user = row / perUser;
+        int k = (int) (row % perUser);
+        int material = k % 4;
+        long j = k / 4;
+
+        Table table;
+        String name;
+        long size;
+        switch (material) {
+            case 0: table = Table.MOVIE; name = MaterialNames.MOVIE; size = movies; break;
+            case 1: table = Table.CHAPTER; name = MaterialNames.CHAPTER; size = chapters(); break;
+            case 2: table = Table.BOOK; name = MaterialNames.BOOK; size = books; break;
+            default: table = Table.MAGAZINE; name = MaterialNames.MAGAZINE; size = magazines; break;
+        }
+        long origin = Math.floorMod(mix(Table.VIEWED, user, material), size);
+        long element = (origin + j * coprimeStep(size)) % size;
+
+        ps.setLong(1, id(Table.VIEWED, row));
+        ps.setInt(2, getMaterialId(name));
+        ps.setLong(3, id(table, element));
+        ps.setLong(4, id(Table.USER, user));
+        long offset = Math.floorMod(mix(Table.VIEWED, row, 4), DAYS * 86_400_000L);
+        ps.setTimestamp(5, new Timestamp(endMillis - offset));
+        ps.setInt(6, 1 + between(Table.VIEWED, row, 5, 0, 3));
+    }
+
+    /** Vistos por usuario, acotados para que ningún catálogo se repita dentro de un usuario. */
+    private int viewedPerUser() {
+        long smallest = Math.min(Math.min(movies, chapters()), Math.min(books, magazines));
+        return (int) Math.max(0, Math.min(VIEWED_PER_USER, smallest * 4));
+    }
+
+    private long chapters() {
+        return (long) series * SEASONS * CHAPTERS_PER_SEASON;
+    }
+
+    /** Paso primo que no divide al tamaño: recorre todo el catálogo sin repetir. */
+    private static long coprimeStep(long size) {
+        long[] primes = {1_000_003L, 999_983L, 7_919L, 104_729L};
+        for (long p : primes) {
+            if (size % p != 0) {
+                return p % size == 0 ? 1 : p;
+            }
+        }
+        return 1;
+    }
+
+    private long id(Table table, long row) {
+        return base[table.ordinal()] + row + 1;
+    }
+
+    private Date editionDate(Table table, long row) {
+        long offset = Math.floorMod(mix(table, row, 7), 30L * 365 * 86_400_000L);
+        return new Date(endMillis - offset);
+    }
+
+    private static String pick(String[] values, Table table, long row, int field) {
+        return values[between(table, row, field, 0, values.length)];
+    }
+
+    /** Entero determinista en {@code [from, from + range)} para un campo de una fila. */
+    private static int between(Table table, long row, int field, int from, int range) {
+        return from + (int) Math.floorMod(mix(table, row, field), (long) range);
+    }
+
+    /** Función de mezcla SplitMix64 sobre (semilla, tabla, fila, campo). */
+    private static long mix(Table table, long row, int field) {
+        long z = SEED + 0x9E3779B97F4A7C15L * (row + 1) + ((long) table.ordinal() << 56) + ((long) field << 48);
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,107 @@
+package com.anncode.amazonviewer.bench;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histograma de latencias concurrente, en microsegundos.
+ * <p>
+ * Usa cubetas log-lineales: los valores menores a {@value #LINEAR} µs se guardan
+ * exactos y, a partir de ahí, cada potencia de dos se divide en {@value #SUB_BUCKETS}
+ * cubetas, lo que acota el error de los percentiles a ~3 %. Registrar una muestra es
+ * un incremento atómico sin bloqueos, así que muchos hilos pueden compartir el
+ * histograma sin alterar la medición.
+ * </p>
+ * @author Luigi
+ * @version 1.4
+ * @since 2026-10-17
+ */
+public final class LatencyHistogram {
+
+    private static final int SUB_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BITS;
+    private static final int LINEAR = SUB_BUCKETS * 2;
+    /** Exponente máximo: las muestras sobre 2^36 µs (~19 h) se acumulan en la última cubeta. */
+    private static final int MAX_EXPONENT = 36;
+    private static final int BUCKETS = LINEAR + (MAX_EXPONENT - SUB_BITS) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder total = new LongAdder();
+    private final LongAdder sumMicros = new LongAdder();
+    private final AtomicLong maxMicros = new AtomicLong();
+
+    /**
+     * Registra una muestra.
+     * @param nanos La duración medida, en nanosegundos.
+     */
+    public void record(long nanos) {
+        long micros = Math.max(0, TimeUnit.NANOSECONDS.toMicros(nanos));
+        counts.incrementAndGet(index(micros));
+        total.increment();
+        sumMicros.add(micros);
+        maxMicros.accumulateAndGet(micros, Math::max);
+    }
+
+    /** @return La cantidad de muestras registradas. */
+    public long count() {
+        return total.sum();
+    }
+
+    /** @return La latencia media en microsegundos, o {@code 0} sin muestras. */
+    public double mean() {
+        long n = total.sum();
+        return n == 0 ? 0.0 : (double) sumMicros.sum() / n;
+    }
+
+    /** @return La mayor latencia registrada, en microsegundos. */
+    public long max() {
+        return maxMicros.get();
+    }
+
+    /**
+     * Calcula un percentil.
+     * @param percentile El percentil buscado, entre 0 y 100 (ej. {@code 99.9}).
+     * @return El límite superior de la cubeta que contiene el percentil, en microsegundos
+     * (acotado por {@link #max()}), o {@code 0} sin muestras.
+     */
+    public long percentile(double percentile) {
+        long n = total.sum();
+        if (n == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * n));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts.get(i);
+            if (seen >= rank) {
+                return Math.min(upperBound(i), max());
+            }
+        }
+        return max();
+    }
+
+    private static int index(long micros) {
+        if (micros < LINEAR) {
+            return (int) micros;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(micros);
+        if (exponent > MAX_EXPONENT) {
+            return BUCKETS - 1;
+        }
+        int shift = exponent - SUB_BITS;
+        int sub = (int) (micros >>> shift) - SUB_BUCKETS;
+        return LINEAR + (exponent - SUB_BITS - 1) * SUB_BUCKETS + sub;
+    }
+
+    private static long upperBound(int index) {
+        if (index < LINEAR) {
+            return index;
+        }
+        int k = index - LINEAR;
+        int shift = k / SUB_BUCKETS + 1;
+        long sub = k % SUB_BUCKETS + SUB_BUCKETS;
+        return ((sub + 1) << shift) - 1;
+    }
+}
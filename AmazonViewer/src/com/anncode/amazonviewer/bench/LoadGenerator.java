@@ -0,0 +1,309 @@
+package com.anncode.amazonviewer.bench;
+
+import com.anncode.amazonviewer.dao.BookDAO;
+import com.anncode.amazonviewer.dao.CatalogPage;
+import com.anncode.amazonviewer.dao.CatalogPager;
+import com.anncode.amazonviewer.dao.CatalogSnapshot;
+import com.anncode.amazonviewer.dao.ChapterDAO;
+import com.anncode.amazonviewer.dao.MagazineDAO;
+import com.anncode.amazonviewer.dao.MovieDAO;
+import com.anncode.amazonviewer.dao.PageCache;
+import com.anncode.amazonviewer.dao.SerieDAO;
+import com.anncode.amazonviewer.dao.UserDAO;
+import com.anncode.amazonviewer.dao.ViewedWriteQueue;
+import com.anncode.amazonviewer.db.MaterialRegistry;
+import com.anncode.amazonviewer.model.Book;
+import com.anncode.amazonviewer.model.Chapter;
+import com.anncode.amazonviewer.model.Magazine;
+import com.anncode.amazonviewer.model.Movie;
+import com.anncode.amazonviewer.model.Serie;
+import com.anncode.amazonviewer.model.Session;
+import com.anncode.amazonviewer.report.ViewedReport;
+import com.anncode.util.AmazonUtil;
+import com.anncode.util.VirtualThreads;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Generador de carga sin interfaz: simula muchos usuarios concurrentes contra la base
+ * de datos local, usando los mismos DAOs y modelos que la consola.
+ * <p>
+ * Cada usuario virtual ({@code load-N}) inicia sesión y repite, con una pausa de
+ * "pensar" entre operaciones, una mezcla de: navegar el catálogo por páginas (40 %),
+ * ver una película (20 %), ver un capítulo (15 %), leer un libro (15 %) y generar su
+ * reporte de vistos (10 %). Los usuarios corren en hilos virtuales cuando la JVM los
+ * tiene (ver {@link VirtualThreads}), así que miles de ellos sólo compiten por el
+ * {@link com.anncode.amazonviewer.db.ConnectionPool}.
+ * </p>
+ * <p>
+ * Al terminar imprime, por operación: cantidad, operaciones por segundo, latencia media,
+ * p50, p99, p999, máxima y errores. Las animaciones de {@link Movie} y {@link Magazine}
+ * se desactivan y la salida de consola de los modelos se descarta durante la prueba.
+ * </p>
+ * <p>
+ * Parámetros: {@code -Damazonviewer.load.users} (100), {@code -Damazonviewer.load.seconds}
+ * (60), {@code -Damazonviewer.load.warmupSeconds} (10) y {@code -Damazonviewer.load.thinkMs}
+ * (0, pausa máxima entre operaciones).
+ * </p>
+ * @author Luigi
+ * @version 1.4
+ * @since 2026-10-17
+ */
+public final class LoadGenerator {
+
+    private static final int USERS = Integer.getInteger("amazonviewer.load.users", 100);
+    private static final int SECONDS = Integer.getInteger("amazonviewer.load.seconds", 60);
+    private static final int WARMUP_SECONDS = Integer.getInteger("amazonviewer.load.warmupSeconds", 10);
+    private static final int THINK_MS = Integer.getInteger("amazonviewer.load.thinkMs", 0);
+    private static final int PAGE_SIZE = 20;
+    private static final int BROWSE_PAGES = 3;
+    private static final int READ_PAGES = 5;
+
+    /** Operaciones medidas, en el orden en que se informan. */
+    private enum Operation {
+        LOGIN("login"),
+        BROWSE("navegar"),
+        VIEW_MOVIE("ver película"),
+        VIEW_CHAPTER("ver capítulo"),
+        READ_BOOK("leer libro"),
+        REPORT("reporte");
+
+        private final String label;
+        private final LatencyHistogram latency = new LatencyHistogram();
+        private final LongAdder errors = new LongAdder();
+
+        Operation(String label) {
+            this.label = label;
+        }
+    }
+
+    /** Operación que ejecuta un usuario virtual sobre su sesión. */
+    @FunctionalInterface
+    private interface Action {
+        void run(Session session, ThreadLocalRandom random);
+    }
+
+    private final MovieDAO movieDAO = new MovieDAO() {};
+    private final SerieDAO serieDAO = new SerieDAO() {};
+    private final ChapterDAO chapterDAO = new ChapterDAO() {};
+    private final BookDAO bookDAO = new BookDAO() {};
+    private final MagazineDAO magazineDAO = new MagazineDAO() {};
+    private final UserDAO userDAO = new UserDAO() {};
+    private final AtomicBoolean measuring = new AtomicBoolean();
+    private final AtomicBoolean running = new AtomicBoolean(true);
+    private CatalogSnapshot catalog;
+
+    private LoadGenerator() {
+    }
+
+    /**
+     * Ejecuta la prueba de carga.
+     * @param args No se usan.
+     * @throws InterruptedException Si se interrumpe la espera de la prueba.
+     */
+    public static void main(String[] args) throws InterruptedException {
+        new LoadGenerator().run();
+    }
+
+    private void run() throws InterruptedException {
+        PrintStream console = System.out;
+        AmazonUtil.setAnimations(false);
+        MaterialRegistry.getInstance().load();
+
+        // El catálogo completo sólo alimenta los reportes: se carga una vez y se comparte
+        Session bootstrap = userDAO.openSession("load-0");
+        catalog = new CatalogSnapshot(Movie.makeMoviesList(bootstrap), Serie.makeSeriesList(bootstrap),
+                Book.makeBookList(bootstrap), Magazine.makeMagazineList(bootstrap));
+
+        console.println(">>> Carga: " + USERS + " usuarios, " + WARMUP_SECONDS + " s de calentamiento, " +
+                SECONDS + " s de medición" +
+                (VirtualThreads.isAvailable() ? " (hilos virtuales)" : " (hilos de plataforma)"));
+
+        // Los modelos imprimen cada reproducción: se descarta para no medir la consola
+        System.setOut(new PrintStream(new OutputStream() {
+            @Override
+            public void write(int b) {
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+            }
+        }));
+
+        ExecutorService users = VirtualThreads.newExecutor("amazonviewer-load");
+        double elapsed;
+        try {
+            for (int i = 1; i <= USERS; i++) {
+                String name = "load-" + i;
+                users.execute(() -> user(name));
+            }
+
+            TimeUnit.SECONDS.sleep(WARMUP_SECONDS);
+            measuring.set(true);
+            long start = System.nanoTime();
+            TimeUnit.SECONDS.sleep(SECONDS);
+            measuring.set(false);
+            elapsed = (System.nanoTime() - start) / 1e9;
+        } finally {
+            running.set(false);
+            users.shutdown();
+            users.awaitTermination(10, TimeUnit.SECONDS);
+            System.setOut(console);
+        }
+
+        ViewedWriteQueue.getInstance().flush();
+        report(console, elapsed);
+    }
+
+    private void user(String name) {
+        Session session = timed(Operation.LOGIN, () -> userDAO.openSession(name));
+        if (session == null) {
+            return;
+        }
+        session.setCatalog(catalog);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+
+        while (running.get()) {
+            int roll = random.nextInt(100);
+            if (roll < 40) {
+                timed(Operation.BROWSE, session, random, this::browse);
+            } else if (roll < 60) {
+                timed(Operation.VIEW_MOVIE, session, random, this::viewMovie);
+            } else if (roll < 75) {
+                timed(Operation.VIEW_CHAPTER, session, random, this::viewChapter);
+            } else if (roll < 90) {
+                timed(Operation.READ_BOOK, session, random, this::readBook);
+            } else {
+                timed(Operation.REPORT, session, random, (s, r) -> ViewedReport.content(s));
+            }
+
+            if (THINK_MS > 0) {
+                try {
+                    Thread.sleep(random.nextInt(THINK_MS + 1));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    /** Recorre hasta {@value #BROWSE_PAGES} páginas de un catálogo al azar. */
+    private void browse(Session session, ThreadLocalRandom random) {
+        CatalogPager<?> pager;
+        switch (random.nextInt(4)) {
+            case 0:
+                pager = new CatalogPager<Movie>((k, n) -> movieDAO.readPageAfter(session, k, n),
+                        (k, n) -> movieDAO.readPageBefore(session, k, n), PAGE_SIZE);
+                break;
+            case 1:
+                pager = new CatalogPager<Serie>((k, n) -> serieDAO.readPageAfter(session, k, n),
+                        (k, n) -> serieDAO.readPageBefore(session, k, n), PAGE_SIZE);
+                break;
+            case 2:
+                pager = new CatalogPager<Book>((k, n) -> bookDAO.readPageAfter(session, k, n),
+                        (k, n) -> bookDAO.readPageBefore(session, k, n), PAGE_SIZE);
+                break;
+            default:
+                pager = new CatalogPager<Magazine>((k, n) -> magazineDAO.readPageAfter(session, k, n),
+                        (k, n) -> magazineDAO.readPageBefore(session, k, n), PAGE_SIZE);
+                break;
+        }
+        int pagesRead = 1;
+        while (pagesRead < BROWSE_PAGES && pager.next()) {
+            pagesRead++;
+        }
+    }
+
+    private void viewMovie(Session session, ThreadLocalRandom random) {
+        Movie movie = pick(movieDAO.readPageAfter(session, 0, PAGE_SIZE), random);
+        if (movie != null) {
+            movie.view(session);
+        }
+    }
+
+    private void viewChapter(Session session, ThreadLocalRandom random) {
+        Serie serie = pick(serieDAO.readPageAfter(session, 0, PAGE_SIZE), random);
+        if (serie == null) {
+            return;
+        }
+        ArrayList<Chapter> chapters = chapterDAO.read(session, serie.getId());
+        if (!chapters.isEmpty()) {
+            serie.setChapters(chapters);
+            chapters.get(random.nextInt(chapters.size())).view(session);
+        }
+    }
+
+    /**
+     * Lee las primeras páginas de un libro y lo marca como leído.
+     * <p>
+     * {@link Book#view(Session)} espera la navegación del usuario por teclado, así que la
+     * lectura se reproduce con la {@link PageCache}, igual que lo hace ese método.
+     * </p>
+     */
+    private void readBook(Session session, ThreadLocalRandom random) {
+        Book book = pick(bookDAO.readPageAfter(session, 0, PAGE_SIZE), random);
+        if (book == null) {
+            return;
+        }
+        PageCache pages = PageCache.getInstance();
+        int count = Math.min(READ_PAGES, book.getPageCount());
+        for (int i = 0; i < count; i++) {
+            pages.getPage(book.getId(), i);
+        }
+        book.setReaded(true);
+        bookDAO.setBookRead(session, book);
+    }
+
+    private static <T> T pick(CatalogPage<T> page, ThreadLocalRandom random) {
+        List<T> items = page.getItems();
+        return items.isEmpty() ? null : items.get(random.nextInt(items.size()));
+    }
+
+    private void timed(Operation operation, Session session, ThreadLocalRandom random, Action action) {
+        timed(operation, () -> {
+            action.run(session, random);
+            return Boolean.TRUE;
+        });
+    }
+
+    private <T> T timed(Operation operation, Supplier<T> action) {
+        // Los usuarios inician sesión durante el calentamiento: el login se mide siempre
+        boolean measured = measuring.get() || operation == Operation.LOGIN;
+        long start = System.nanoTime();
+        try {
+            T result = action.get();
+            if (measured) {
+                operation.latency.record(System.nanoTime() - start);
+            }
+            return result;
+        } catch (RuntimeException e) {
+            if (measured) {
+                operation.errors.increment();
+            }
+            return null;
+        }
+    }
+
+    private static void report(PrintStream out, double elapsed) {
+        out.printf(">>> Resultados en %.1f s (latencias en ms)%n", elapsed);
+        out.printf("%-14s %9s %9s %8s %8s %8s %8s %8s %7s%n",
+                "operación", "cantidad", "ops/s", "media", "p50", "p99", "p999", "máx", "errores");
+        for (Operation operation : Operation.values()) {
+            LatencyHistogram h = operation.latency;
+            out.printf("%-14s %9d %9.1f %8.2f %8.2f %8.2f %8.2f %8.2f %7d%n",
+                    operation.label, h.count(), h.count() / elapsed, h.mean() / 1000.0,
+                    h.percentile(50) / 1000.0, h.percentile(99) / 1000.0, h.percentile(99.9) / 1000.0,
+                    h.max() / 1000.0, operation.errors.sum());
+        }
+    }
+}
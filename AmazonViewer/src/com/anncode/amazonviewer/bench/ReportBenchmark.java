@@ -0,0 +1,145 @@
+package com.anncode.amazonviewer.bench;
+
+import com.anncode.amazonviewer.dao.CatalogSnapshot;
+import com.anncode.amazonviewer.dao.ViewedIndex;
+import com.anncode.amazonviewer.db.DataBase.MaterialNames;
+import com.anncode.amazonviewer.model.Book;
+import com.anncode.amazonviewer.model.Chapter;
+import com.anncode.amazonviewer.model.Movie;
+import com.anncode.amazonviewer.model.Serie;
+import com.anncode.amazonviewer.model.Session;
+import com.anncode.amazonviewer.report.ReportWriter;
+import com.anncode.amazonviewer.report.ViewedReport;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Escalabilidad de la escritura del reporte de vistos.
+ * <p>
+ * Escribe el reporte con {@link ReportWriter} para catálogos sintéticos cada vez más
+ * grandes, hasta un millón de fichas, e informa el tiempo por ficha: si la escritura es
+ * lineal, se mantiene constante al crecer el reporte. Como referencia mide también la
+ * construcción anterior con {@code contentReport += ...}, cuyo tiempo por ficha crece con
+ * el tamaño (copia cuadrática); por eso sólo se mide en tamaños pequeños. La escritura
+ * con {@link ReportWriter} se mide con un solo hilo y con el renderizado en paralelo de
+ * {@link ViewedReport} ({@code -Damazonviewer.report.parallelism}).
+ * </p>
+ * <p>
+ * Parámetros: {@code -Damazonviewer.bench.reportEntries} (125000,250000,500000,1000000),
+ * {@code -Damazonviewer.bench.legacyEntries} (5000,10000,20000,40000) y
+ * {@code -Damazonviewer.bench.runs} (3, se informa la mejor).
+ * </p>
+ * @author Luigi
+ * @version 1.4
+ * @since 2026-10-17
+ */
+public final class ReportBenchmark {
+
+    private static final String REPORT_ENTRIES =
+            System.getProperty("amazonviewer.bench.reportEntries", "125000,250000,500000,1000000");
+    private static final String LEGACY_ENTRIES =
+            System.getProperty("amazonviewer.bench.legacyEntries", "5000,10000,20000,40000");
+    private static final int RUNS = Integer.getInteger("amazonviewer.bench.runs", 3);
+
+    private ReportBenchmark() {
+    }
+
+    /**
+     * Ejecuta la medición.
+     * @param args No se usan.
+     * @throws IOException Si no se puede escribir el archivo temporal.
+     */
+    public static void main(String[] args) throws IOException {
+        Path file = Files.createTempFile("amazonviewer-report", ".txt");
+        try {
+            System.out.printf("%-22s %10s %10s %12s %10s%n", "método", "fichas", "ms", "ns/ficha", "MB");
+            for (String entries : LEGACY_ENTRIES.split(",")) {
+                Session session = session(Integer.parseInt(entries.trim()));
+                measure("concatenación (+=)", session, () -> {
+                    String content = legacyContent(session);
+                    Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+                    return content.length();
+                }, file);
+            }
+            for (String entries : REPORT_ENTRIES.split(",")) {
+                Session session = session(Integer.parseInt(entries.trim()));
+                measure("ReportWriter (1 hilo)", session, () -> {
+                    try (ReportWriter out = ReportWriter.open(file)) {
+                        return ViewedReport.write(session, out, 1);
+                    }
+                }, file);
+                measure("ReportWriter (" + ViewedReport.PARALLELISM + " hilos)", session, () -> {
+                    try (ReportWriter out = ReportWriter.open(file)) {
+                        return ViewedReport.write(session, out, ViewedReport.PARALLELISM);
+                    }
+                }, file);
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    /** Una ejecución del reporte. */
+    @FunctionalInterface
+    private interface Run {
+        int write() throws IOException;
+    }
+
+    private static void measure(String method, Session session, Run run, Path file) throws IOException {
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < RUNS; i++) {
+            long start = System.nanoTime();
+            run.write();
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        int entries = countEntries(session);
+        System.out.printf("%-22s %10d %10.1f %12.1f %10.1f%n", method, entries, best / 1e6,
+                (double) best / Math.max(1, entries), Files.size(file) / 1e6);
+    }
+
+    /**
+     * Catálogo sintético con aproximadamente {@code entries} fichas vistas: se marcan
+     * la mitad de las películas, los capítulos y los libros.
+     */
+    private static Session session(int entries) {
+        return BenchmarkSuite.syntheticSession(Math.max(10, (int) Math.ceil(entries / 1.5)));
+    }
+
+    private static int countEntries(Session session) {
+        ViewedIndex viewed = session.getViewedIndex();
+        CatalogSnapshot catalog = session.getCatalog();
+        int chapters = 0;
+        for (Serie serie : catalog.getSeries()) {
+            chapters += viewed.countViewed(MaterialNames.CHAPTER, serie.getChapterIds());
+        }
+        return viewed.countViewed(MaterialNames.MOVIE) + chapters + viewed.countViewed(MaterialNames.BOOK);
+    }
+
+    /** Construcción del reporte tal como la hacía {@code Main.makeReport()} antes de {@link ReportWriter}. */
+    private static String legacyContent(Session session) {
+        String contentReport = "REPORTE GENERAL\n";
+        ViewedIndex viewed = session.getViewedIndex();
+        CatalogSnapshot catalog = session.getCatalog();
+        for (Movie movie : catalog.getMovies()) {
+            if (viewed.isViewed(MaterialNames.MOVIE, movie.getId())) {
+                contentReport += movie.toString() + "\n";
+            }
+        }
+        for (Serie serie : catalog.getSeries()) {
+            for (Chapter chapter : serie.getChapters()) {
+                if (viewed.isViewed(MaterialNames.CHAPTER, chapter.getId())) {
+                    contentReport += chapter.toString() + "\n";
+                }
+            }
+        }
+        for (Book book : catalog.getBooks()) {
+            if (viewed.isViewed(MaterialNames.BOOK, book.getId())) {
+                contentReport += book.toString() + "\n";
+            }
+        }
+        return contentReport;
+    }
+}
@@ -1,13 +1,19 @@
 package com.anncode.amazonviewer.dao;
 
-import com.anncode.amazonviewer.Main;
 import com.anncode.amazonviewer.db.IDBConnection;
+import com.anncode.amazonviewer.db.NamedQuery;
 import com.anncode.amazonviewer.db.DataBase.*;
 import com.anncode.amazonviewer.model.Book;
+import com.anncode.amazonviewer.model.Session;
 import com.anncode.amazonviewer.model.Page;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
 
 /**
  * Interfaz que define las operaciones de persistencia para el objeto {@link Book}.
@@ -20,84 +26,111 @@ import java.util.ArrayList;
  * @version 1.3
  * @since 2026-01-03
  */
-public interface BookDAO extends IDBConnection {
+public interface BookDAO extends ViewedDAO {
+
+    /** Cantidad máxima de libros por consulta al cargar páginas por bloques. */
+    int PAGE_BATCH_SIZE = NamedQuery.IN_LIST_SIZE;
+    /** Clave anterior a la primera página de un libro, para leer su primera ventana. */
+    int BEFORE_FIRST_PAGE = Integer.MIN_VALUE;
 
     /**
      * Registra en la base de datos que un libro ha sido leído.
+     * @param session La sesión del usuario.
      * @param book El libro leído.
      */
-    default void setBookRead(Book book) {
-        String query = "INSERT INTO " + TViewed.NAME +
-                " (" + TViewed.ID_MATERIAL + ", " + TViewed.ID_ELEMENT + ", " + TViewed.ID_USER + ", " + TViewed.DATE + ") " +
-                " VALUES (?, ?, ?, ?)";
-        try (Connection connection = connectToDB()) {
-            int idMaterial = getMaterialIdByName("Book", connection);
-
-            try (PreparedStatement pstmt = connection.prepareStatement(query)) {
-                pstmt.setInt(1, idMaterial);
-                pstmt.setInt(2, book.getId());
-                pstmt.setInt(3, Main.activeUser.getId());
-                pstmt.setTimestamp(4, new Timestamp(System.currentTimeMillis()));
-                pstmt.executeUpdate();
-            }
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
+    default void setBookRead(Session session, Book book) {
+        recordViewed(session, MaterialNames.BOOK, book.getId());
     }
 
     /**
-     * Busca dinámicamente el ID de un material por su nombre en la tabla 'material'.
-     * @return El ID del material.
+     * Obtiene una lista de libros desde la base de datos.
+     * @param session La sesión del usuario.
+     * @return Una lista de libros.
      */
-    default int getMaterialIdByName(String materialName, Connection connection) throws SQLException {
-        int idMaterial = 0;
-        String query = "SELECT " + TMaterial.ID + " FROM " + TMaterial.NAME +
-                " WHERE " + TMaterial.NAME_COL + " = ?";
+    default ArrayList<Book> read(Session session) {
+        ArrayList<Book> books = new ArrayList<>();
+        try (Stream<Book> rows = stream(session)) {
+            rows.forEach(books::add);
+        } catch (RuntimeException e) { e.printStackTrace(); }
+        return books;
+    }
 
-        try (PreparedStatement pstmt = connection.prepareStatement(query)) {
-            pstmt.setString(1, materialName);
-            try (ResultSet rs = pstmt.executeQuery()) {
-                if (rs.next()) {
-                    idMaterial = rs.getInt(TMaterial.ID);
-                }
-            }
-        }
-        return idMaterial;
+    /**
+     * Recorre los libros con un cursor de sólo avance, sin materializar el catálogo.
+     * Las páginas no se cargan; se obtienen bajo demanda con {@link PageCache}.
+     * @param session La sesión del usuario.
+     * @return Un flujo perezoso de libros que debe cerrarse (<i>try-with-resources</i>).
+     */
+    default Stream<Book> stream(Session session) {
+        // El historial del usuario ya está en memoria: no se consulta 'viewed' por cada fila
+        ViewedIndex viewed = session.getViewedIndex();
+        return queryStream(NamedQuery.BOOK_ALL, rs -> mapBook(rs, viewed));
     }
 
     /**
-     * Obtiene una lista de libros desde la base de datos.
-     * @return Una lista de libros.
+     * Lee el libro con el id indicado.
+     * @param session La sesión del usuario.
+     * @param id      El id del libro.
+     * @return El libro, o {@code null} si no existe.
      */
-    default ArrayList<Book> read() {
-        ArrayList<Book> books = new ArrayList<>();
-        String query = "SELECT * FROM " + TBook.NAME;
-        try (Connection connection = connectToDB();
-             PreparedStatement pstmt = connection.prepareStatement(query);
-             ResultSet rs = pstmt.executeQuery()) {
-
-            while (rs.next()) {
-                java.util.Date editionDate = new java.util.Date(rs.getDate(TBook.EDITION_DATE).getTime());
-
-                // CORRECCIÓN AQUÍ: Usamos Page, no Book.Page
-                ArrayList<Page> pages = new ArrayList<>();
-
-                Book book = new Book(
-                        rs.getString(TBook.TITLE),
-                        editionDate,
-                        rs.getString(TBook.EDITORIAL),
-                        rs.getString(TBook.AUTHORS),
-                        pages
-                );
-
-                book.setId(rs.getInt(TBook.ID));
-                book.setIsbn(rs.getString(TBook.ISBN));
-                book.setReaded(getIsBookRead(connection, book.getId()));
-
-                books.add(book);
-            }
-        } catch (SQLException e) { e.printStackTrace(); }
-        return books;
+    default Book readById(Session session, int id) {
+        ViewedIndex viewed = session.getViewedIndex();
+        return queryById(NamedQuery.BOOK_BY_ID, id, rs -> mapBook(rs, viewed));
+    }
+
+    /**
+     * Lee la página de libros con ids mayores a {@code afterId}.
+     * @param session La sesión del usuario.
+     * @param afterId El último id de la página anterior ({@code 0} para la primera).
+     * @param size    La cantidad de elementos por página.
+     * @return La página leída; el costo depende de {@code size}, no del tamaño del catálogo.
+     */
+    default CatalogPage<Book> readPageAfter(Session session, int afterId, int size) {
+        ViewedIndex viewed = session.getViewedIndex();
+        return queryPage(NamedQuery.BOOK_PAGE_AFTER, afterId, size, true, rs -> mapBook(rs, viewed), Book::getId);
+    }
+
+    /**
+     * Lee la página de libros con ids menores a {@code beforeId}.
+     * @param session La sesión del usuario.
+     * @param beforeId El primer id de la página actual.
+     * @param size     La cantidad de elementos por página.
+     * @return La página leída, en orden ascendente de id.
+     */
+    default CatalogPage<Book> readPageBefore(Session session, int beforeId, int size) {
+        ViewedIndex viewed = session.getViewedIndex();
+        return queryPage(NamedQuery.BOOK_PAGE_BEFORE, beforeId, size, false, rs -> mapBook(rs, viewed), Book::getId);
+    }
+
+    /**
+     * Recorre los libros que el usuario de la sesión leyó en un rango de fechas.
+     * @param session La sesión del usuario.
+     * @param from    El inicio del rango (inclusive).
+     * @param to      El fin del rango (exclusivo).
+     * @return Un flujo perezoso en orden cronológico que debe cerrarse (<i>try-with-resources</i>).
+     */
+    default Stream<Book> streamViewedBooks(Session session, Timestamp from, Timestamp to) {
+        ViewedIndex viewed = session.getViewedIndex();
+        return queryViewedBetween(NamedQuery.BOOK_VIEWED_BETWEEN, session, MaterialNames.BOOK, from, to,
+                rs -> mapBook(rs, viewed));
+    }
+
+    private Book mapBook(ResultSet rs, ViewedIndex viewed) throws SQLException {
+        java.util.Date editionDate = new java.util.Date(rs.getDate(TBook.EDITION_DATE).getTime());
+
+        // Las páginas no se materializan aquí: se cargan bajo demanda con PageCache
+        Book book = new Book(
+                rs.getString(TBook.TITLE),
+                editionDate,
+                rs.getString(TBook.EDITORIAL),
+                rs.getString(TBook.AUTHORS),
+                null
+        );
+
+        book.setId(rs.getInt(TBook.ID));
+        book.setIsbn(rs.getString(TBook.ISBN));
+        book.setReaded(viewed.isViewed(MaterialNames.BOOK, book.getId()));
+        return book;
     }
 
     /**
@@ -107,20 +140,17 @@ public interface BookDAO extends IDBConnection {
      */
     default ArrayList<Page> readPages(int idBook) {
         ArrayList<Page> pages = new ArrayList<>();
-        String query = "SELECT * FROM page WHERE id_book = ?";
-
-        try (Connection connection = connectToDB();
-             PreparedStatement pstmt = connection.prepareStatement(query)) {
-
+        try (Connection connection = connectToDB()) {
+            PreparedStatement pstmt = prepare(connection, NamedQuery.PAGE_BY_BOOK);
             pstmt.setInt(1, idBook);
             try (ResultSet rs = pstmt.executeQuery()) {
                 while (rs.next()) {
                     // Usamos el constructor de la nueva clase Page.java
                     Page page = new Page(
-                            rs.getInt("number"),
-                            rs.getString("content")
+                            rs.getInt(TPage.NUMBER),
+                            rs.getString(TPage.CONTENT)
                     );
-                    page.setId(rs.getInt("id"));
+                    page.setId(rs.getInt(TPage.ID));
                     pages.add(page);
                 }
             }
@@ -131,28 +161,162 @@ public interface BookDAO extends IDBConnection {
     }
 
     /**
-     * Verifica si el libro existe en la tabla viewed para el usuario actual.
-     * @return {@code true} si el libro ha sido leído, {@code false} en caso contrario.
-     */
-    private boolean getIsBookRead(Connection connection, int idBook) {
-        boolean read = false;
-        String query = "SELECT * FROM " + TViewed.NAME +
-                " WHERE " + TViewed.ID_MATERIAL + " = ?" +
-                " AND " + TViewed.ID_ELEMENT + " = ?" +
-                " AND " + TViewed.ID_USER + " = ?";
-        try {
-            int idMaterial = getMaterialIdByName("Book", connection);
-            try (PreparedStatement pstmt = connection.prepareStatement(query)) {
-                pstmt.setInt(1, idMaterial);
-                pstmt.setInt(2, idBook);
-                pstmt.setInt(3, Main.activeUser.getId());
-                try (ResultSet rs = pstmt.executeQuery()) {
-                    read = rs.next();
+     * Lee una ventana de páginas consecutivas de un libro, en orden de {@code number}.
+     * <p>
+     * Es la consulta que utiliza {@link PageCache} para cargar las páginas bajo demanda.
+     * La ventana empieza después de la página {@code afterNumber} ({@code WHERE number > ?}),
+     * de modo que el índice {@code (id_book, number)} la ubica directamente y su costo no
+     * crece con la posición dentro del libro, como ocurriría con {@code OFFSET}.
+     * </p>
+     * @param idBook      El identificador del libro.
+     * @param afterNumber El {@code number} de la última página de la ventana anterior,
+     *                    o {@link #BEFORE_FIRST_PAGE} para la primera ventana.
+     * @param limit       La cantidad máxima de páginas a leer.
+     * @return Una lista con las páginas de la ventana; vacía si el libro no tiene más páginas.
+     * @throws RuntimeException Si ocurre un error de SQL, para que la ventana no quede en caché vacía.
+     */
+    default List<Page> readPageWindow(int idBook, int afterNumber, int limit) {
+        List<Page> pages = new ArrayList<>(limit);
+        try (Connection connection = connectToDB()) {
+            PreparedStatement pstmt = prepare(connection, NamedQuery.PAGE_WINDOW);
+            pstmt.setInt(1, idBook);
+            pstmt.setInt(2, afterNumber);
+            pstmt.setInt(3, limit);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    Page page = new Page(rs.getInt(TPage.NUMBER), rs.getString(TPage.CONTENT));
+                    page.setId(rs.getInt(TPage.ID));
+                    pages.add(page);
+                }
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Error al leer las páginas del libro " + idBook, e);
+        }
+        return pages;
+    }
+
+    /**
+     * Obtiene la cantidad de páginas de cada libro con una sola consulta agrupada,
+     * sin cargar su contenido.
+     * <p>
+     * Si la lista cabe en un bloque de {@link #PAGE_BATCH_SIZE} (por ejemplo, una página
+     * del menú), la consulta se limita a esos libros con {@code WHERE id_book IN (...)};
+     * si no, se agrupa la tabla completa.
+     * </p>
+     * @param books Los libros a los que se les asignará su total de páginas.
+     */
+    default void readPageCounts(List<Book> books) {
+        if (books.isEmpty()) {
+            return;
+        }
+        Map<Integer, Book> booksById = new HashMap<>(books.size() * 2);
+        for (Book book : books) {
+            booksById.put(book.getId(), book);
+            book.setPageCount(0);
+        }
+
+        boolean bounded = books.size() <= PAGE_BATCH_SIZE;
+        try (Connection connection = connectToDB()) {
+            PreparedStatement pstmt = prepare(connection, bounded ? NamedQuery.PAGE_COUNTS_BY_BOOKS : NamedQuery.PAGE_COUNTS);
+            if (bounded) {
+                int index = 1;
+                for (Book book : books) {
+                    pstmt.setInt(index++, book.getId());
+                }
+                while (index <= PAGE_BATCH_SIZE) {
+                    pstmt.setInt(index++, books.get(0).getId());
+                }
+            }
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    Book book = booksById.get(rs.getInt(1));
+                    if (book != null) {
+                        book.setPageCount(rs.getInt(2));
+                    }
                 }
             }
         } catch (SQLException e) {
-            System.out.println("Error al verificar estado de lectura del libro:" + e.getMessage());
+            e.printStackTrace();
         }
-        return read;
     }
-}
\ No newline at end of file
+
+    /**
+     * Variante asíncrona de {@link #setBookRead(Session, Book)}.
+     * @param session La sesión del usuario.
+     * @param book El libro leído.
+     * @return Una tarea que se completa al registrar la lectura.
+     */
+    default CompletableFuture<Void> setBookReadAsync(Session session, Book book) {
+        return runAsync(() -> setBookRead(session, book));
+    }
+
+    /**
+     * Variante asíncrona de {@link #read(Session)}.
+     * @param session La sesión del usuario.
+     * @return El catálogo de libros, cuando termine la carga.
+     */
+    default CompletableFuture<ArrayList<Book>> readAsync(Session session) {
+        return supplyAsync(() -> read(session));
+    }
+
+    /**
+     * Variante asíncrona de {@link #readById(Session, int)}.
+     * @param session La sesión del usuario.
+     * @param id      El id del libro.
+     * @return El libro, o {@code null} si no existe, cuando termine la consulta.
+     */
+    default CompletableFuture<Book> readByIdAsync(Session session, int id) {
+        return supplyAsync(() -> readById(session, id));
+    }
+
+    /**
+     * Variante asíncrona de {@link #readPageAfter(Session, int, int)}.
+     * @param session La sesión del usuario.
+     * @param afterId El último id de la página anterior ({@code 0} para la primera).
+     * @param size    La cantidad de elementos por página.
+     * @return La página leída, cuando termine la consulta.
+     */
+    default CompletableFuture<CatalogPage<Book>> readPageAfterAsync(Session session, int afterId, int size) {
+        return supplyAsync(() -> readPageAfter(session, afterId, size));
+    }
+
+    /**
+     * Variante asíncrona de {@link #readPageBefore(Session, int, int)}.
+     * @param session La sesión del usuario.
+     * @param beforeId El primer id de la página actual.
+     * @param size     La cantidad de elementos por página.
+     * @return La página leída, cuando termine la consulta.
+     */
+    default CompletableFuture<CatalogPage<Book>> readPageBeforeAsync(Session session, int beforeId, int size) {
+        return supplyAsync(() -> readPageBefore(session, beforeId, size));
+    }
+
+    /**
+     * Variante asíncrona de {@link #readPages(int)}.
+     * @param idBook El identificador del libro.
+     * @return Las páginas del libro, cuando termine la consulta.
+     */
+    default CompletableFuture<ArrayList<Page>> readPagesAsync(int idBook) {
+        return supplyAsync(() -> readPages(idBook));
+    }
+
+    /**
+     * Variante asíncrona de {@link #readPageWindow(int, int, int)}.
+     * @param idBook      El identificador del libro.
+     * @param afterNumber El {@code number} de la última página de la ventana anterior.
+     * @param limit       La cantidad máxima de páginas a leer.
+     * @return Las páginas de la ventana; se completa con excepción si falla la consulta.
+     */
+    default CompletableFuture<List<Page>> readPageWindowAsync(int idBook, int afterNumber, int limit) {
+        return supplyAsync(() -> readPageWindow(idBook, afterNumber, limit));
+    }
+
+    /**
+     * Variante asíncrona de {@link #readPageCounts(List)}.
+     * @param books Los libros a los que se les asignará su total de páginas.
+     * @return Una tarea que se completa al asignar los totales.
+     */
+    default CompletableFuture<Void> readPageCountsAsync(List<Book> books) {
+        return runAsync(() -> readPageCounts(books));
+    }
+}
@@ -0,0 +1,80 @@
+package com.anncode.amazonviewer.dao;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.function.ToIntFunction;
+
+/**
+ * Página de un catálogo obtenida por paginación por llave ({@code WHERE id > ? ORDER BY id LIMIT ?}).
+ * <p>
+ * A diferencia de {@code LIMIT/OFFSET}, el costo de leer una página no depende de su
+ * posición en la tabla: la siguiente página se pide a partir de {@link #getLastId()} y la
+ * anterior a partir de {@link #getFirstId()}, aprovechando el índice de la llave primaria.
+ * </p>
+ * @param <T> El tipo de elemento del catálogo.
+ * @author Luigi
+ * @version 1.4
+ * @since 2026-10-17
+ */
+public final class CatalogPage<T> {
+
+    private final List<T> items;
+    private final int firstId;
+    private final int lastId;
+    private final boolean hasPrevious;
+    private final boolean hasNext;
+
+    /**
+     * Crea una página.
+     * @param items       Los elementos de la página, en orden ascendente de id.
+     * @param idOf        La forma de obtener el id de un elemento.
+     * @param keyId       El id desde el que se pidió la página; se usa como borde si está vacía.
+     * @param forward     Si la página se pidió hacia adelante ({@code id > keyId}) o hacia atrás.
+     * @param hasPrevious Si existen elementos antes de esta página.
+     * @param hasNext     Si existen elementos después de esta página.
+     */
+    CatalogPage(List<T> items, ToIntFunction<T> idOf, int keyId, boolean forward, boolean hasPrevious, boolean hasNext) {
+        this.items = Collections.unmodifiableList(items);
+        if (items.isEmpty()) {
+            // Una página vacía (p. ej. se borraron sus filas) se pidió desde el borde de la
+            // página de la que se venía: volver a ella debe incluir el id de ese borde
+            this.firstId = forward ? keyId + 1 : keyId;
+            this.lastId = forward ? keyId : keyId - 1;
+        } else {
+            this.firstId = idOf.applyAsInt(items.get(0));
+            this.lastId = idOf.applyAsInt(items.get(items.size() - 1));
+        }
+        this.hasPrevious = hasPrevious;
+        this.hasNext = hasNext;
+    }
+
+    /** @return Los elementos de la página, en orden ascendente de id. */
+    public List<T> getItems() {
+        return items;
+    }
+
+    /** @return El id del primer elemento; la llave para pedir la página anterior. */
+    public int getFirstId() {
+        return firstId;
+    }
+
+    /** @return El id del último elemento; la llave para pedir la página siguiente. */
+    public int getLastId() {
+        return lastId;
+    }
+
+    /** @return {@code true} si hay elementos antes de esta página. */
+    public boolean hasPrevious() {
+        return hasPrevious;
+    }
+
+    /** @return {@code true} si hay elementos después de esta página. */
+    public boolean hasNext() {
+        return hasNext;
+    }
+
+    /** @return La cantidad de elementos de la página. */
+    public int size() {
+        return items.size();
+    }
+}
@@ -0,0 +1,78 @@
+package com.anncode.amazonviewer.dao;
+
+/**
+ * Navegación secuencial (siguiente / anterior) sobre un catálogo paginado por llave.
+ * <p>
+ * Conserva sólo la página actual, de modo que la memoria y el costo de cada consulta
+ * dependen del tamaño de página y no del tamaño del catálogo. Los menús de consola
+ * lo usan para recorrer películas, series, libros y revistas.
+ * </p>
+ * @param <T> El tipo de elemento del catálogo.
+ * @author Luigi
+ * @version 1.4
+ * @since 2026-10-17
+ */
+public final class CatalogPager<T> {
+
+    /**
+     * Lectura de una página a partir de una llave.
+     * @param <T> El tipo de elemento del catálogo.
+     */
+    @FunctionalInterface
+    public interface PageReader<T> {
+        /**
+         * Lee una página.
+         * @param keyId El id de referencia (exclusivo).
+         * @param size  La cantidad máxima de elementos.
+         * @return La página leída.
+         */
+        CatalogPage<T> read(int keyId, int size);
+    }
+
+    private final PageReader<T> after;
+    private final PageReader<T> before;
+    private final int pageSize;
+    private CatalogPage<T> current;
+
+    /**
+     * Crea el paginador y carga la primera página.
+     * @param after    Lectura de la página con ids mayores a la llave.
+     * @param before   Lectura de la página con ids menores a la llave.
+     * @param pageSize La cantidad de elementos por página.
+     */
+    public CatalogPager(PageReader<T> after, PageReader<T> before, int pageSize) {
+        this.after = after;
+        this.before = before;
+        this.pageSize = pageSize;
+        this.current = after.read(0, pageSize);
+    }
+
+    /** @return La página que se está mostrando. */
+    public CatalogPage<T> current() {
+        return current;
+    }
+
+    /**
+     * Avanza a la página siguiente, si existe.
+     * @return {@code true} si se avanzó.
+     */
+    public boolean next() {
+        if (!current.hasNext()) {
+            return false;
+        }
+        current = after.read(current.getLastId(), pageSize);
+        return true;
+    }
+
+    /**
+     * Retrocede a la página anterior, si existe.
+     * @return {@code true} si se retrocedió.
+     */
+    public boolean previous() {
+        if (!current.hasPrevious()) {
+            return false;
+        }
+        current = before.read(current.getFirstId(), pageSize);
+        return true;
+    }
+}
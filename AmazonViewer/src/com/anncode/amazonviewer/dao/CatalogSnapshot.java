@@ -0,0 +1,416 @@
+package com.anncode.amazonviewer.dao;
+
+import com.anncode.amazonviewer.db.DataBase.MaterialNames;
+import com.anncode.amazonviewer.db.IDBConnection;
+import com.anncode.amazonviewer.db.NamedQuery;
+import com.anncode.amazonviewer.model.Book;
+import com.anncode.amazonviewer.model.Chapter;
+import com.anncode.amazonviewer.model.Magazine;
+import com.anncode.amazonviewer.model.Movie;
+import com.anncode.amazonviewer.model.Serie;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Instantánea binaria del catálogo (películas, series con capítulos, libros y revistas)
+ * para acelerar los arranques en caliente.
+ * <p>
+ * Tras una carga completa desde MySQL, el catálogo se escribe en un archivo local
+ * compacto y versionado. En el siguiente arranque el archivo se mapea en memoria y se
+ * decodifica sin consultar las tablas del catálogo, siempre que su <i>huella</i> siga
+ * coincidiendo con la de la base de datos. La huella se obtiene con una única consulta
+ * ({@link NamedQuery#CATALOG_FINGERPRINT}): cantidad de filas, id máximo y suma de
+ * verificación de las filas de cada tabla, calculada en el servidor sin transferir el
+ * catálogo. Así, además de las altas y bajas, se detectan las ediciones en el lugar (un
+ * título, una duración, un ISBN, un capítulo que cambia de serie). La tabla {@code page}
+ * es la excepción: recorrerla entera costaría más que la carga que se quiere evitar, así
+ * que sólo aporta cantidad e id máximo y una página que cambia de libro sin altas ni
+ * bajas no invalida la instantánea. Si no coincide, o el archivo está dañado, se hace la
+ * carga completa.
+ * </p>
+ * <p>
+ * La instantánea no guarda el estado visto/leído, que depende del usuario: se aplica
+ * desde su {@link ViewedIndex} con {@link #applyViewed(ViewedIndex)}. Para omitirla
+ * basta con arrancar con {@code -Damazonviewer.snapshot=false}.
+ * </p>
+ * <p>
+ * Formato: número mágico, versión, huella, las cuatro secciones (cada una con su
+ * cantidad de elementos seguida de sus campos; cadenas en UTF-8 precedidas de su
+ * longitud) y un CRC32 final de todo lo anterior.
+ * </p>
+ * @author Luigi
+ * @version 1.4
+ * @since 2026-10-17
+ */
+public final class CatalogSnapshot {
+
+    /** Ruta del archivo de la instantánea. */
+    public static final String PATH = System.getProperty("amazonviewer.snapshot.path", "catalog.snapshot");
+    /** Si es {@code false}, no se lee ni se escribe la instantánea. */
+    public static final boolean ENABLED = Boolean.parseBoolean(System.getProperty("amazonviewer.snapshot", "true"));
+
+    static final int MAGIC = 0x4156534E; // "AVSN"
+    static final int VERSION = 1;
+
+    private final ArrayList<Movie> movies;
+    private final ArrayList<Serie> series;
+    private final ArrayList<Book> books;
+    private final ArrayList<Magazine> magazines;
+
+    /**
+     * Agrupa los catálogos de una instantánea.
+     * @param movies    Las películas.
+     * @param series    Las series, con sus capítulos.
+     * @param books     Los libros, con su total de páginas.
+     * @param magazines Las revistas.
+     */
+    public CatalogSnapshot(ArrayList<Movie> movies, ArrayList<Serie> series,
+                           ArrayList<Book> books, ArrayList<Magazine> magazines) {
+        this.movies = movies;
+        this.series = series;
+        this.books = books;
+        this.magazines = magazines;
+    }
+
+    /** @return Las películas de la instantánea. */
+    public ArrayList<Movie> getMovies() {
+        return movies;
+    }
+
+    /** @return Las series de la instantánea, con sus capítulos. */
+    public ArrayList<Serie> getSeries() {
+        return series;
+    }
+
+    /** @return Los libros de la instantánea, con su total de páginas. */
+    public ArrayList<Book> getBooks() {
+        return books;
+    }
+
+    /** @return Las revistas de la instantánea. */
+    public ArrayList<Magazine> getMagazines() {
+        return magazines;
+    }
+
+    /**
+     * Marca los elementos vistos o leídos según el historial de un usuario.
+     * @param viewed El índice de elementos vistos del usuario.
+     */
+    public void applyViewed(ViewedIndex viewed) {
+        for (Movie movie : movies) {
+            movie.setViewed(viewed.isViewed(MaterialNames.MOVIE, movie.getId()));
+        }
+        for (Serie serie : series) {
+            serie.setViewed(viewed.isViewed(MaterialNames.SERIE, serie.getId()));
+            for (Chapter chapter : serie.getChapters()) {
+                chapter.setViewed(viewed.isViewed(MaterialNames.CHAPTER, chapter.getId()));
+            }
+        }
+        for (Book book : books) {
+            book.setReaded(viewed.isViewed(MaterialNames.BOOK, book.getId()));
+        }
+        for (Magazine magazine : magazines) {
+            magazine.setReaded(viewed.isViewed(MaterialNames.MAGAZINE, magazine.getId()));
+        }
+    }
+
+    /**
+     * Obtiene la huella actual del catálogo en la base de datos.
+     * @return Cantidad de filas, id máximo y suma de verificación de cada tabla del catálogo,
+     * o {@code null} si la consulta falla.
+     */
+    public static long[] fingerprint() {
+        IDBConnection db = new IDBConnection() {};
+        try (Connection connection = db.connectToDB();
+             ResultSet rs = db.prepare(connection, NamedQuery.CATALOG_FINGERPRINT).executeQuery()) {
+            if (!rs.next()) {
+                return null;
+            }
+            long[] values = new long[rs.getMetaData().getColumnCount()];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = rs.getLong(i + 1);
+            }
+            return values;
+        } catch (SQLException e) {
+            System.err.println("No se pudo calcular la huella del catálogo: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Lee la instantánea de la ruta por defecto si sigue vigente.
+     * @param fingerprint La huella actual de la base de datos (ver {@link #fingerprint()}).
+     * @return La instantánea, o {@code null} si no existe, está dañada o ya no coincide.
+     */
+    public static CatalogSnapshot read(long[] fingerprint) {
+        if (!ENABLED || fingerprint == null) {
+            return null;
+        }
+        return read(Paths.get(PATH), fingerprint);
+    }
+
+    /**
+     * Lee una instantánea mapeando el archivo en memoria.
+     * @param path        La ruta del archivo.
+     * @param fingerprint La huella que debe coincidir con la guardada.
+     * @return La instantánea, o {@code null} si no existe, está dañada o ya no coincide.
+     */
+    public static CatalogSnapshot read(Path path, long[] fingerprint) {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < 12 || size > Integer.MAX_VALUE) {
+                return null;
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+
+            // Verificamos el CRC antes de decodificar nada
+            int limit = (int) size - 4;
+            CRC32 crc = new CRC32();
+            ByteBuffer content = buffer.duplicate();
+            content.limit(limit);
+            crc.update(content);
+            if ((int) crc.getValue() != buffer.getInt(limit)) {
+                System.err.println("Instantánea del catálogo dañada; se recarga desde la base de datos");
+                return null;
+            }
+
+            buffer.limit(limit);
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+                return null;
+            }
+            long[] stored = new long[buffer.getInt()];
+            for (int i = 0; i < stored.length; i++) {
+                stored[i] = buffer.getLong();
+            }
+            if (!Arrays.equals(stored, fingerprint)) {
+                return null;
+            }
+            return new CatalogSnapshot(readMovies(buffer), readSeries(buffer), readBooks(buffer), readMagazines(buffer));
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException | RuntimeException e) {
+            System.err.println("No se pudo leer la instantánea del catálogo: " + e);
+            return null;
+        }
+    }
+
+    /**
+     * Escribe la instantánea en la ruta por defecto.
+     * @param fingerprint La huella de la base de datos en el momento de la carga.
+     */
+    public void write(long[] fingerprint) {
+        if (!ENABLED || fingerprint == null) {
+            return;
+        }
+        try {
+            write(Paths.get(PATH), fingerprint);
+        } catch (IOException e) {
+            System.err.println("No se pudo guardar la instantánea del catálogo: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Escribe la instantánea en un archivo temporal y lo mueve a su destino, de modo
+     * que un lector nunca ve un archivo a medio escribir.
+     * @param path        La ruta del archivo.
+     * @param fingerprint La huella de la base de datos en el momento de la carga.
+     * @throws IOException Si el archivo no se puede escribir.
+     */
+    public void write(Path path, long[] fingerprint) throws IOException {
+        Path absolute = path.toAbsolutePath();
+        Path tmp = absolute.resolveSibling(absolute.getFileName() + ".tmp");
+        CRC32 crc = new CRC32();
+        try (OutputStream file = Files.newOutputStream(tmp);
+             CheckedOutputStream checked = new CheckedOutputStream(new BufferedOutputStream(file, 1 << 16), crc);
+             DataOutputStream out = new DataOutputStream(checked)) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(fingerprint.length);
+            for (long value : fingerprint) {
+                out.writeLong(value);
+            }
+            writeMovies(out);
+            writeSeries(out);
+            writeBooks(out);
+            writeMagazines(out);
+            out.flush();
+            out.writeInt((int) crc.getValue());
+        }
+        Files.move(tmp, absolute, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private void writeMovies(DataOutputStream out) throws IOException {
+        out.writeInt(movies.size());
+        for (Movie movie : movies) {
+            out.writeInt(movie.getId());
+            writeString(out, movie.getTitle());
+            writeString(out, movie.getGenre());
+            writeString(out, movie.getCreator());
+            out.writeInt(movie.getDuration());
+            out.writeShort(movie.getYear());
+        }
+    }
+
+    private static ArrayList<Movie> readMovies(ByteBuffer in) {
+        int count = in.getInt();
+        ArrayList<Movie> movies = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int id = in.getInt();
+            Movie movie = new Movie(readString(in), readString(in), readString(in), in.getInt(), in.getShort());
+            movie.setId(id);
+            movies.add(movie);
+        }
+        return movies;
+    }
+
+    private void writeSeries(DataOutputStream out) throws IOException {
+        out.writeInt(series.size());
+        for (Serie serie : series) {
+            out.writeInt(serie.getId());
+            writeString(out, serie.getTitle());
+            writeString(out, serie.getGenre());
+            writeString(out, serie.getCreator());
+            out.writeInt(serie.getDuration());
+            out.writeInt(serie.getSessionQuantity());
+
+            List<Chapter> chapters = serie.getChapters();
+            out.writeInt(chapters.size());
+            for (Chapter chapter : chapters) {
+                out.writeInt(chapter.getId());
+                writeString(out, chapter.getTitle());
+                out.writeInt(chapter.getDuration());
+                out.writeShort(chapter.getYear());
+                out.writeInt(chapter.getSessionNumber());
+            }
+        }
+    }
+
+    private static ArrayList<Serie> readSeries(ByteBuffer in) {
+        int count = in.getInt();
+        ArrayList<Serie> series = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int id = in.getInt();
+            Serie serie = new Serie(readString(in), readString(in), readString(in), in.getInt(), in.getInt());
+            serie.setId(id);
+
+            int chapterCount = in.getInt();
+            ArrayList<Chapter> chapters = new ArrayList<>(chapterCount);
+            for (int j = 0; j < chapterCount; j++) {
+                int chapterId = in.getInt();
+                Chapter chapter = new Chapter(readString(in), serie.getGenre(), serie.getCreator(),
+                        in.getInt(), in.getShort(), in.getInt(), serie);
+                chapter.setId(chapterId);
+                chapters.add(chapter);
+            }
+            serie.setChapters(chapters);
+            series.add(serie);
+        }
+        return series;
+    }
+
+    private void writeBooks(DataOutputStream out) throws IOException {
+        out.writeInt(books.size());
+        for (Book book : books) {
+            out.writeInt(book.getId());
+            writeString(out, book.getTitle());
+            writeDate(out, book.getEditionDate());
+            writeString(out, book.getEditorial());
+            writeString(out, String.join(",", book.getAuthors()));
+            writeString(out, book.getIsbn());
+            // Los libros sin contenido llevan una página de aviso que no cuenta como real
+            out.writeInt(book.getPages() == null ? book.getPageCount() : 0);
+        }
+    }
+
+    private static ArrayList<Book> readBooks(ByteBuffer in) {
+        int count = in.getInt();
+        ArrayList<Book> books = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int id = in.getInt();
+            Book book = new Book(readString(in), readDate(in), readString(in), readString(in), null);
+            book.setId(id);
+            book.setIsbn(readString(in));
+            book.setPageCount(in.getInt());
+            books.add(book);
+        }
+        Book.addPlaceholderPages(books);
+        return books;
+    }
+
+    private void writeMagazines(DataOutputStream out) throws IOException {
+        out.writeInt(magazines.size());
+        for (Magazine magazine : magazines) {
+            out.writeInt(magazine.getId());
+            writeString(out, magazine.getTitle());
+            writeDate(out, magazine.getEditionDate());
+            writeString(out, magazine.getEditorial());
+            writeString(out, String.join(",", magazine.getAuthors()));
+        }
+    }
+
+    private static ArrayList<Magazine> readMagazines(ByteBuffer in) {
+        int count = in.getInt();
+        ArrayList<Magazine> magazines = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int id = in.getInt();
+            Magazine magazine = new Magazine(readString(in), readDate(in), readString(in));
+            magazine.setId(id);
+            magazine.setAuthors(readString(in));
+            magazines.add(magazine);
+        }
+        return magazines;
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer in) {
+        int length = in.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeDate(DataOutputStream out, Date date) throws IOException {
+        out.writeBoolean(date != null);
+        if (date != null) {
+            out.writeLong(date.getTime());
+        }
+    }
+
+    private static Date readDate(ByteBuffer in) {
+        return in.get() != 0 ? new Date(in.getLong()) : null;
+    }
+}
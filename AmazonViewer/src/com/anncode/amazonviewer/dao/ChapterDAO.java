@@ -1,13 +1,19 @@
 package com.anncode.amazonviewer.dao;
 
 import com.anncode.amazonviewer.db.IDBConnection;
+import com.anncode.amazonviewer.db.NamedQuery;
 import com.anncode.amazonviewer.db.DataBase.*;
 import com.anncode.amazonviewer.model.Chapter;
-import com.anncode.amazonviewer.Main;
 import com.anncode.amazonviewer.model.Serie;
+import com.anncode.amazonviewer.model.Session;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
 
 /**
  * Interfaz que define las operaciones de persistencia para el objeto {@link Chapter}.
@@ -21,33 +27,24 @@ import java.util.ArrayList;
  * @version 1.3
  * @since 2026-01-03
  */
-public interface ChapterDAO extends IDBConnection {
+public interface ChapterDAO extends ViewedDAO {
 
     /**
      * Registra en la base de datos que un capítulo ha sido visualizado.
      * <p>
-     * Este método inserta un nuevo registro en la tabla {@code viewed}, asociando
-     * el {@code id} del capítulo, el {@code id_material} correspondiente a "Chapter"
-     * y el {@code id} del usuario que tiene la sesión activa.
+     * Este método registra en la tabla {@code viewed} el {@code id} del capítulo,
+     * el {@code id_material} correspondiente a "Chapter" y el {@code id} del usuario
+     * de la sesión. La inserción se realiza en segundo plano mediante
+     * la {@link ViewedWriteQueue}.
      * </p>
+     * @param session La sesión del usuario.
      * @param chapter El objeto {@link Chapter} que el usuario ha terminado de ver.
      * @return El objeto {@link Chapter} procesado, permitiendo el encadenamiento de
      * métodos o la actualización de la interfaz de usuario.
      */
-    default Chapter setChapterViewed(Chapter chapter) {
-        String query = "INSERT INTO " + TViewed.NAME + " (" + TViewed.ID_MATERIAL + ", " +
-                TViewed.ID_ELEMENT + ", " + TViewed.ID_USER + ", " + TViewed.DATE + ") VALUES (?, ?, ?, ?)";
-        try (Connection connection = connectToDB()) {
-            int idMaterial = getMaterialIdByName(MaterialNames.CHAPTER, connection);
-            try (PreparedStatement pstmt = connection.prepareStatement(query)) {
-                pstmt.setInt(1, idMaterial);
-                pstmt.setInt(2, chapter.getId());
-                pstmt.setInt(3, Main.activeUser.getId());
-                pstmt.setTimestamp(4, new Timestamp(System.currentTimeMillis()));
-                pstmt.executeUpdate();
-                chapter.setViewed(true);
-            }
-        } catch (SQLException e) { e.printStackTrace(); }
+    default Chapter setChapterViewed(Session session, Chapter chapter) {
+        recordViewed(session, MaterialNames.CHAPTER, chapter.getId());
+        chapter.setViewed(true);
         return chapter;
     }
 
@@ -56,95 +53,171 @@ public interface ChapterDAO extends IDBConnection {
      * <p>
      * Este método ejecuta una consulta con un filtro {@code WHERE id_serie = ?} para
      * asegurar que solo se carguen los episodios vinculados a la serie seleccionada.
-     * Por cada registro encontrado, se verifica su estado de visualización en la tabla
-     * {@code viewed} para el usuario activo.
+     * El estado de visualización de cada capítulo se resuelve desde el
+     * {@link ViewedIndex} de la sesión, sin consultar la tabla {@code viewed}.
      * </p>
      *
+     * @param session La sesión del usuario.
      * @param idSerie El identificador único de la {@link Serie} cuyos capítulos se desean obtener.
      * @return Una {@link ArrayList} de objetos {@link Chapter} con sus datos y estado de
      * visualización sincronizados con la base de datos.
      */
-    default ArrayList<Chapter> read(int idSerie) {
+    default ArrayList<Chapter> read(Session session, int idSerie) {
         ArrayList<Chapter> chapters = new ArrayList<>();
 
         // QUERY COMPLETA: Traemos todos los datos necesarios para construir Serie y Chapter
-        String query = "SELECT c.*, s." + TSerie.TITLE + ", s." + TSerie.GENRE + ", s." + TSerie.CREATOR +
-                ", s." + TSerie.DURATION + ", s." + TSerie.SESSION_QUANTITY +
-                " FROM " + TChapter.NAME + " AS c " +
-                " INNER JOIN " + TSerie.NAME + " AS s " +
-                " ON c." + TChapter.ID_SERIE + " = s." + TSerie.ID +
-                " WHERE c." + TChapter.ID_SERIE + " = ?";
-
-        try (Connection connection = connectToDB();
-             PreparedStatement pstmt = connection.prepareStatement(query)) {
-
+        try (Connection connection = connectToDB()) {
+            PreparedStatement pstmt = prepare(connection, NamedQuery.CHAPTER_BY_SERIE);
             pstmt.setInt(1, idSerie);
-            ResultSet rs = pstmt.executeQuery();
-
-            while (rs.next()) {
-                // 1. Construir el objeto Serie con los datos del JOIN (Constructor de 5 parámetros)
-                Serie seriePadre = new Serie(
-                        rs.getString("s." + TSerie.TITLE),
-                        rs.getString("s." + TSerie.GENRE),
-                        rs.getString("s." + TSerie.CREATOR),
-                        rs.getInt("s." + TSerie.DURATION),
-                        rs.getInt("s." + TSerie.SESSION_QUANTITY)
-                );
-                seriePadre.setId(idSerie);
-
-                // 2. Extraer datos del Capítulo
-                String title = rs.getString("c." + TChapter.TITLE);
-                int duration = rs.getInt("c." + TChapter.DURATION);
-                short year = rs.getShort("c." + TChapter.YEAR);
-                int sessionNumber = rs.getInt("c." + TChapter.SESSION_NUMBER);
-
-                // 3. Crear Chapter usando los datos de la serie y el capítulo (Constructor de 7 parámetros)
-                Chapter chapter = new Chapter(
-                        title,
-                        seriePadre.getGenre(),
-                        seriePadre.getCreator(),
-                        duration,
-                        year,
-                        sessionNumber,
-                        seriePadre
-                );
-
-                chapter.setId(rs.getInt("c." + TChapter.ID));
-                chapter.setViewed(getChapterViewed(connection, chapter.getId()));
-
-                chapters.add(chapter);
+            ViewedIndex viewed = session.getViewedIndex();
+
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    chapters.add(mapChapter(rs, viewed));
+                }
             }
         } catch (SQLException e) { e.printStackTrace(); }
         return chapters;
     }
 
     /**
-     * Consulta la base de datos para verificar si un capítulo específico ya fue visto por el usuario.
+     * Recorre los capítulos que el usuario de la sesión vio en un rango de fechas,
+     * cada uno con los datos de su serie.
+     * @param session La sesión del usuario.
+     * @param from    El inicio del rango (inclusive).
+     * @param to      El fin del rango (exclusivo).
+     * @return Un flujo perezoso en orden cronológico que debe cerrarse (<i>try-with-resources</i>).
+     */
+    default Stream<Chapter> streamViewedChapters(Session session, Timestamp from, Timestamp to) {
+        ViewedIndex viewed = session.getViewedIndex();
+        return queryViewedBetween(NamedQuery.CHAPTER_VIEWED_BETWEEN, session, MaterialNames.CHAPTER, from, to,
+                rs -> mapChapter(rs, viewed));
+    }
+
+    /**
+     * Carga los capítulos de todas las series en un solo viaje a la base de datos.
      * <p>
-     * Este método realiza una búsqueda en la tabla {@code viewed} filtrando por el identificador
-     * del material (tipo Capítulo), el ID del elemento y el ID del usuario activo.
-     * Es fundamental para mantener la persistencia visual entre diferentes sesiones de ejecución.
+     * Ejecuta una única consulta ordenada por {@code id_serie} y {@code session_number}
+     * y la recorre como cursor (sin materializar el resultado completo en el driver),
+     * agrupando los capítulos en su {@link Serie} a medida que llegan. Así cargar
+     * miles de series cuesta una consulta en lugar de una por serie.
+     * Las series sin capítulos quedan con una lista vacía.
      * </p>
-     * @param connection La conexión activa a la base de datos necesaria para la consulta.
-     * @param idChapter  El identificador único del {@link Chapter} que se desea verificar.
-     * @return {@code true} si existe al menos un registro de visualización para este capítulo
-     * y usuario; {@code false} en caso contrario o si no hay un usuario activo.
-     * @throws SQLException Si ocurre un error durante la ejecución de la consulta SQL.
+     *
+     * @param session La sesión del usuario.
+     * @param series Las series ya cargadas cuyos capítulos se desean asignar.
      */
-    private boolean getChapterViewed(Connection connection, int idChapter) throws SQLException {
-        String query = "SELECT * FROM " + TViewed.NAME + " WHERE " + TViewed.ID_MATERIAL + " = ? AND " +
-                TViewed.ID_ELEMENT + " = ? AND " + TViewed.ID_USER + " = ?";
+    default void readChapters(Session session, List<Serie> series) {
+        Map<Integer, Serie> seriesById = new HashMap<>(series.size() * 2);
+        for (Serie serie : series) {
+            seriesById.put(serie.getId(), serie);
+        }
+
+        try (Connection connection = connectToDB()) {
+            PreparedStatement pstmt = prepare(connection, NamedQuery.CHAPTER_ALL);
 
-        int idMaterial = getMaterialIdByName(MaterialNames.CHAPTER, connection);
+            // Se recorre como cursor, con el mismo fetchSize que los flujos de los DAOs
+            pstmt.setFetchSize(ResultSetSpliterator.FETCH_SIZE);
+            ViewedIndex viewed = session.getViewedIndex();
 
-        try (PreparedStatement pstmt = connection.prepareStatement(query)) {
-            pstmt.setInt(1, idMaterial);
-            pstmt.setInt(2, idChapter);
-            pstmt.setInt(3, Main.activeUser.getId());
             try (ResultSet rs = pstmt.executeQuery()) {
-                return rs.next();
+                Serie current = null;
+                ArrayList<Chapter> chapters = null;
+
+                while (rs.next()) {
+                    int idSerie = rs.getInt(TChapter.ID_SERIE);
+                    if (current == null || current.getId() != idSerie) {
+                        // Cambió la serie: cerramos el grupo anterior
+                        if (current != null) {
+                            current.setChapters(chapters);
+                        }
+                        current = seriesById.remove(idSerie);
+                        chapters = new ArrayList<>();
+                    }
+                    if (current == null) {
+                        continue; // Capítulo huérfano de una serie que no está en el catálogo
+                    }
+
+                    Chapter chapter = new Chapter(
+                            rs.getString(TChapter.TITLE),
+                            current.getGenre(),
+                            current.getCreator(),
+                            rs.getInt(TChapter.DURATION),
+                            rs.getShort(TChapter.YEAR),
+                            rs.getInt(TChapter.SESSION_NUMBER),
+                            current
+                    );
+                    chapter.setId(rs.getInt(TChapter.ID));
+                    chapter.setViewed(viewed.isViewed(MaterialNames.CHAPTER, chapter.getId()));
+                    chapters.add(chapter);
+                }
+                if (current != null) {
+                    current.setChapters(chapters);
+                }
             }
+        } catch (SQLException e) { e.printStackTrace(); }
+
+        // Series restantes: no tienen capítulos registrados
+        for (Serie serie : seriesById.values()) {
+            serie.setChapters(new ArrayList<>());
         }
     }
 
-}
\ No newline at end of file
+    /**
+     * Variante asíncrona de {@link #setChapterViewed(Session, Chapter)}.
+     * @param session La sesión del usuario.
+     * @param chapter El capítulo que el usuario terminó de ver.
+     * @return El capítulo con su estado actualizado.
+     */
+    default CompletableFuture<Chapter> setChapterViewedAsync(Session session, Chapter chapter) {
+        return supplyAsync(() -> setChapterViewed(session, chapter));
+    }
+
+    /**
+     * Variante asíncrona de {@link #read(Session, int)}.
+     * @param session La sesión del usuario.
+     * @param idSerie El identificador de la serie.
+     * @return Los capítulos de la serie, cuando termine la consulta.
+     */
+    default CompletableFuture<ArrayList<Chapter>> readAsync(Session session, int idSerie) {
+        return supplyAsync(() -> read(session, idSerie));
+    }
+
+    /**
+     * Variante asíncrona de {@link #readChapters(Session, List)}.
+     * @param session La sesión del usuario.
+     * @param series Las series cuyos capítulos se desean asignar.
+     * @return Una tarea que se completa al asignar los capítulos.
+     */
+    default CompletableFuture<Void> readChaptersAsync(Session session, List<Serie> series) {
+        return runAsync(() -> readChapters(session, series));
+    }
+
+    /** Construye un capítulo y su serie a partir de una fila de {@link NamedQuery#CHAPTER_BY_SERIE}. */
+    private Chapter mapChapter(ResultSet rs, ViewedIndex viewed) throws SQLException {
+        // 1. Construir el objeto Serie con los datos del JOIN (Constructor de 5 parámetros)
+        Serie seriePadre = new Serie(
+                rs.getString(NamedQuery.SERIE_COLUMN_PREFIX + TSerie.TITLE),
+                rs.getString(NamedQuery.SERIE_COLUMN_PREFIX + TSerie.GENRE),
+                rs.getString(NamedQuery.SERIE_COLUMN_PREFIX + TSerie.CREATOR),
+                rs.getInt(NamedQuery.SERIE_COLUMN_PREFIX + TSerie.DURATION),
+                rs.getInt(NamedQuery.SERIE_COLUMN_PREFIX + TSerie.SESSION_QUANTITY)
+        );
+        seriePadre.setId(rs.getInt(TChapter.ID_SERIE));
+
+        // 2. Crear Chapter usando los datos de la serie y el capítulo (Constructor de 7 parámetros)
+        Chapter chapter = new Chapter(
+                rs.getString(TChapter.TITLE),
+                seriePadre.getGenre(),
+                seriePadre.getCreator(),
+                rs.getInt(TChapter.DURATION),
+                rs.getShort(TChapter.YEAR),
+                rs.getInt(TChapter.SESSION_NUMBER),
+                seriePadre
+        );
+
+        chapter.setId(rs.getInt(TChapter.ID));
+        chapter.setViewed(viewed.isViewed(MaterialNames.CHAPTER, chapter.getId()));
+        return chapter;
+    }
+}
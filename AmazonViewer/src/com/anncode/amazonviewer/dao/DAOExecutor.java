@@ -0,0 +1,58 @@
+package com.anncode.amazonviewer.dao;
+
+import com.anncode.util.VirtualThreads;
+
+import java.util.concurrent.Executor;
+
+/**
+ * Ejecutor compartido de las variantes asíncronas ({@code *Async}) de los DAOs.
+ * <p>
+ * Por defecto se usa un ejecutor de {@link VirtualThreads}, creado la primera vez que
+ * se necesita: cada operación bloquea en la base de datos, así que un hilo barato por
+ * tarea permite superponer consultas independientes sin dimensionar un grupo de hilos.
+ * Se puede reemplazar con {@link #set(Executor)}, por ejemplo para limitar la
+ * concurrencia al tamaño del {@link com.anncode.amazonviewer.db.ConnectionPool}.
+ * </p>
+ * @author Luigi
+ * @version 1.4
+ * @since 2026-10-17
+ */
+public final class DAOExecutor {
+
+    private static volatile Executor executor;
+
+    private DAOExecutor() {
+    }
+
+    /**
+     * Obtiene el ejecutor de las operaciones asíncronas.
+     * @return El ejecutor configurado, o el de hilos virtuales por defecto.
+     */
+    public static Executor get() {
+        Executor current = executor;
+        if (current == null) {
+            synchronized (DAOExecutor.class) {
+                current = executor;
+                if (current == null) {
+                    current = VirtualThreads.newExecutor("amazonviewer-dao");
+                    executor = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Reemplaza el ejecutor de las operaciones asíncronas.
+     * <p>
+     * El ejecutor anterior no se cierra; las operaciones ya enviadas terminan en él.
+     * </p>
+     * @param replacement El nuevo ejecutor.
+     */
+    public static void set(Executor replacement) {
+        if (replacement == null) {
+            throw new IllegalArgumentException("El ejecutor no puede ser nulo");
+        }
+        executor = replacement;
+    }
+}
@@ -1,14 +1,16 @@
 package com.anncode.amazonviewer.dao;
 
-import com.anncode.amazonviewer.Main;
-import com.anncode.amazonviewer.db.DataBase;
-import com.anncode.amazonviewer.db.DataBase.TViewed;
+import com.anncode.amazonviewer.db.DataBase.MaterialNames;
 import com.anncode.amazonviewer.db.DataBase.TMagazine;
 import com.anncode.amazonviewer.db.IDBConnection;
+import com.anncode.amazonviewer.db.NamedQuery;
 import com.anncode.amazonviewer.model.Magazine;
+import com.anncode.amazonviewer.model.Session;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
 
 /**
  * Interfaz que define las operaciones de acceso a datos para el objeto {@link Magazine}.
@@ -26,65 +28,19 @@ import java.util.ArrayList;
  * @version 1.3
  * @since 2026-01-03
  */
-public interface MagazineDAO extends IDBConnection {
+public interface MagazineDAO extends ViewedDAO {
     /**
      * Registra en la base de datos que una revista ha sido leída/vista.
+     * @param session La sesión del usuario.
      * @param magazine La revista seleccionada.
      * @return La revista con su estado actualizado.
      */
-    default Magazine setMagazineRead(Magazine magazine) {
-        String query = "INSERT INTO " + TViewed.NAME +
-                " (" + TViewed.ID_MATERIAL + ", " + TViewed.ID_ELEMENT + ", " + TViewed.ID_USER + ", " + TViewed.DATE + ") " +
-                " VALUES (?, ?, ?, ?)";
-
-        try (Connection connection = connectToDB()) {
-            int idMaterial = getMaterialIdByName("Magazine", connection);
-
-            try (PreparedStatement pstmt = connection.prepareStatement(query)) {
-                pstmt.setInt(1, idMaterial);
-                pstmt.setInt(2, magazine.getId());
-                pstmt.setInt(3, Main.activeUser.getId());
-                pstmt.setTimestamp(4, new Timestamp(System.currentTimeMillis()));
-                pstmt.executeUpdate();
-
-                // magazine.setReaded(true); // Solo si tu modelo Magazine tiene este atributo
-            }
-        } catch (SQLException e) {
-            System.err.println("Error al marcar la revista como leída: " + e.getMessage());
-        }
+    default Magazine setMagazineRead(Session session, Magazine magazine) {
+        recordViewed(session, MaterialNames.MAGAZINE, magazine.getId());
+        magazine.setReaded(true);
         return magazine;
     }
 
-    /**
-     * Obtiene el identificador numérico de un tipo de material a partir de su nombre.
-     * <p>
-     * Este método consulta la tabla {@code material} para encontrar el {@code id} asociado
-     * a una categoría específica (ej. "Movie", "Chapter", "Book"). Es una pieza auxiliar
-     * crítica para realizar inserciones y consultas precisas en la tabla de transacciones
-     * {@code viewed}.
-     * </p>
-     *
-     * @param materialName El nombre del material tal como está definido en {@link DataBase.MaterialNames}.
-     * @param connection   La conexión activa a la base de datos para realizar la búsqueda.
-     * @return El {@code id} numérico correspondiente al material encontrado.
-     * @throws SQLException Si ocurre un error al ejecutar la consulta o si el material no existe.
-     */
-    default int getMaterialIdByName(String materialName, Connection connection) throws SQLException {
-        int idMaterial = 0;
-        String query = "SELECT " + DataBase.TMaterial.ID + " FROM " + DataBase.TMaterial.NAME +
-                " WHERE " + DataBase.TMaterial.NAME_COL + " = ?";
-
-        try (PreparedStatement pstmt = connection.prepareStatement(query)) {
-            pstmt.setString(1, materialName);
-            try (ResultSet rs = pstmt.executeQuery()) {
-                if (rs.next()) {
-                    idMaterial = rs.getInt(DataBase.TMaterial.ID);
-                }
-            }
-        }
-        return idMaterial;
-    }
-
     /**
      * Recupera la lista completa de revistas almacenadas en la base de datos.
      * <p>
@@ -95,65 +51,126 @@ public interface MagazineDAO extends IDBConnection {
      * únicamente para exposición.
      * </p>
      *
+     * @param session La sesión del usuario.
      * @return Una {@link ArrayList} que contiene objetos de tipo {@link Magazine}
      * con su información de título, fecha de edición, editorial y autores.
      */
-    default ArrayList<Magazine> read() {
+    default ArrayList<Magazine> read(Session session) {
         ArrayList<Magazine> magazines = new ArrayList<>();
-        String query = "SELECT * FROM " + TMagazine.NAME;
-        try (Connection connection = connectToDB();
-             PreparedStatement pstmt = connection.prepareStatement(query);
-             ResultSet rs = pstmt.executeQuery()) {
-
-            while (rs.next()) {
-                String title = rs.getString(TMagazine.TITLE);
-                String editorial = rs.getString(TMagazine.EDITORIAL);
-                java.util.Date editionDate = new java.util.Date(rs.getDate(TMagazine.EDITION_DATE).getTime());
-
-                Magazine magazine = new Magazine(title, editionDate, editorial);
-                magazine.setId(rs.getInt(TMagazine.ID));
-                magazine.setAuthors(rs.getString("authors"));
-                magazine.setReaded(getMagazineRead(connection, magazine.getId()));
-
-                magazines.add(magazine);
-            }
-        } catch (SQLException e) {
+        try (Stream<Magazine> rows = stream(session)) {
+            rows.forEach(magazines::add);
+        } catch (RuntimeException e) {
             System.err.println("Error al leer revistas: " + e.getMessage());
         }
         return magazines;
     }
 
     /**
-     * Obtiene el estado de lectura de una revista.
-     * @param connection Conexión a la base de datos.
-     * @param idMagazine ID de la revista.
-     * @return {@code true} si la revista ha sido leída, {@code false} en caso contrario.
+     * Recorre las revistas con un cursor de sólo avance, sin materializar el catálogo.
+     * @param session La sesión del usuario.
+     * @return Un flujo perezoso de revistas que debe cerrarse (<i>try-with-resources</i>).
      */
-    private boolean getMagazineRead(Connection connection, int idMagazine) {
-        boolean read = false;
-        // La query es la misma para todos los materiales, lo que cambia es el ID_MATERIAL que enviamos
-        String query = "SELECT * FROM " + TViewed.NAME +
-                " WHERE " + TViewed.ID_MATERIAL + " = ?" +
-                " AND " + TViewed.ID_ELEMENT + " = ?" +
-                " AND " + TViewed.ID_USER + " = ?";
-        try {
-            // Obtenemos dinámicamente el ID del material "Magazine"
-            int idMaterial = getMaterialIdByName("Magazine", connection);
+    default Stream<Magazine> stream(Session session) {
+        // El historial del usuario ya está en memoria: no se consulta 'viewed' por cada fila
+        ViewedIndex viewed = session.getViewedIndex();
+        return queryStream(NamedQuery.MAGAZINE_ALL, rs -> mapMagazine(rs, viewed));
+    }
 
-            try (PreparedStatement pstmt = connection.prepareStatement(query)) {
-                pstmt.setInt(1, idMaterial);
-                pstmt.setInt(2, idMagazine);
-                // Filtramos por el usuario que tiene la sesión iniciada en el Main
-                pstmt.setInt(3, Main.activeUser.getId());
+    /**
+     * Lee la revista con el id indicado.
+     * @param session La sesión del usuario.
+     * @param id      El id de la revista.
+     * @return La revista, o {@code null} si no existe.
+     */
+    default Magazine readById(Session session, int id) {
+        ViewedIndex viewed = session.getViewedIndex();
+        return queryById(NamedQuery.MAGAZINE_BY_ID, id, rs -> mapMagazine(rs, viewed));
+    }
 
-                try (ResultSet rs = pstmt.executeQuery()) {
-                    // Si existe al menos un registro, rs.next() será true
-                    read = rs.next();
-                }
-            }
-        } catch (SQLException e) {
-            System.err.println("Error al verificar estado de lectura de la revista: " + e.getMessage());
-        }
-        return read;
+    /**
+     * Lee la página de revistas con ids mayores a {@code afterId}.
+     * @param session La sesión del usuario.
+     * @param afterId El último id de la página anterior ({@code 0} para la primera).
+     * @param size    La cantidad de elementos por página.
+     * @return La página leída; el costo depende de {@code size}, no del tamaño del catálogo.
+     */
+    default CatalogPage<Magazine> readPageAfter(Session session, int afterId, int size) {
+        ViewedIndex viewed = session.getViewedIndex();
+        return queryPage(NamedQuery.MAGAZINE_PAGE_AFTER, afterId, size, true, rs -> mapMagazine(rs, viewed), Magazine::getId);
+    }
+
+    /**
+     * Lee la página de revistas con ids menores a {@code beforeId}.
+     * @param session La sesión del usuario.
+     * @param beforeId El primer id de la página actual.
+     * @param size     La cantidad de elementos por página.
+     * @return La página leída, en orden ascendente de id.
+     */
+    default CatalogPage<Magazine> readPageBefore(Session session, int beforeId, int size) {
+        ViewedIndex viewed = session.getViewedIndex();
+        return queryPage(NamedQuery.MAGAZINE_PAGE_BEFORE, beforeId, size, false, rs -> mapMagazine(rs, viewed), Magazine::getId);
+    }
+
+    /**
+     * Variante asíncrona de {@link #setMagazineRead(Session, Magazine)}.
+     * @param session La sesión del usuario.
+     * @param magazine La revista seleccionada.
+     * @return La revista con su estado actualizado.
+     */
+    default CompletableFuture<Magazine> setMagazineReadAsync(Session session, Magazine magazine) {
+        return supplyAsync(() -> setMagazineRead(session, magazine));
+    }
+
+    /**
+     * Variante asíncrona de {@link #read(Session)}.
+     * @param session La sesión del usuario.
+     * @return El catálogo de revistas, cuando termine la carga.
+     */
+    default CompletableFuture<ArrayList<Magazine>> readAsync(Session session) {
+        return supplyAsync(() -> read(session));
+    }
+
+    /**
+     * Variante asíncrona de {@link #readById(Session, int)}.
+     * @param session La sesión del usuario.
+     * @param id      El id de la revista.
+     * @return La revista, o {@code null} si no existe, cuando termine la consulta.
+     */
+    default CompletableFuture<Magazine> readByIdAsync(Session session, int id) {
+        return supplyAsync(() -> readById(session, id));
+    }
+
+    /**
+     * Variante asíncrona de {@link #readPageAfter(Session, int, int)}.
+     * @param session La sesión del usuario.
+     * @param afterId El último id de la página anterior ({@code 0} para la primera).
+     * @param size    La cantidad de elementos por página.
+     * @return La página leída, cuando termine la consulta.
+     */
+    default CompletableFuture<CatalogPage<Magazine>> readPageAfterAsync(Session session, int afterId, int size) {
+        return supplyAsync(() -> readPageAfter(session, afterId, size));
+    }
+
+    /**
+     * Variante asíncrona de {@link #readPageBefore(Session, int, int)}.
+     * @param session La sesión del usuario.
+     * @param beforeId El primer id de la página actual.
+     * @param size     La cantidad de elementos por página.
+     * @return La página leída, cuando termine la consulta.
+     */
+    default CompletableFuture<CatalogPage<Magazine>> readPageBeforeAsync(Session session, int beforeId, int size) {
+        return supplyAsync(() -> readPageBefore(session, beforeId, size));
+    }
+
+    private Magazine mapMagazine(ResultSet rs, ViewedIndex viewed) throws SQLException {
+        String title = rs.getString(TMagazine.TITLE);
+        String editorial = rs.getString(TMagazine.EDITORIAL);
+        java.util.Date editionDate = new java.util.Date(rs.getDate(TMagazine.EDITION_DATE).getTime());
+
+        Magazine magazine = new Magazine(title, editionDate, editorial);
+        magazine.setId(rs.getInt(TMagazine.ID));
+        magazine.setAuthors(rs.getString(TMagazine.AUTHORS));
+        magazine.setReaded(viewed.isViewed(MaterialNames.MAGAZINE, magazine.getId()));
+        return magazine;
     }
 }
@@ -1,12 +1,15 @@
 package com.anncode.amazonviewer.dao;
 
-import com.anncode.amazonviewer.Main;
 import com.anncode.amazonviewer.db.IDBConnection;
+import com.anncode.amazonviewer.db.NamedQuery;
 import com.anncode.amazonviewer.db.DataBase.*; // Importamos nuestras constantes
 import com.anncode.amazonviewer.model.Movie;
+import com.anncode.amazonviewer.model.Session;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
 
 /**
  * Interfaz que define las operaciones de persistencia para el objeto {@link Movie}.
@@ -20,109 +23,162 @@ import java.util.ArrayList;
  * @version 1.3
  * @since 2026-01-03
  */
-public interface MovieDAO extends IDBConnection {
+public interface MovieDAO extends ViewedDAO {
 
     /**
      * Registra en la base de datos que una película ha sido vista.
+     * @param session La sesión del usuario.
      * @param movie La película seleccionada.
      * @return La película con su estado actualizado.
      */
-    default Movie setMovieViewed(Movie movie) {
-        String query = "INSERT INTO " + TViewed.NAME +
-                " (" + TViewed.ID_MATERIAL + ", " +
-                TViewed.ID_ELEMENT + ", " +
-                TViewed.ID_USER + ", " +
-                TViewed.DATE + ") " +
-                " VALUES (?, ?, ?, ?)";
-
-        try (Connection connection = connectToDB()) {
-            // OBTENCIÓN DINÁMICA DEL ID DE MATERIAL
-            int idMaterial = getMaterialIdByName(MaterialNames.MOVIE, connection);
-
-            try (PreparedStatement pstmt = connection.prepareStatement(query)) {
-                pstmt.setInt(1, idMaterial);            // ID Material Dinámico
-                pstmt.setInt(2, movie.getId());         // ID Elemento Dinámico
-                pstmt.setInt(3, Main.activeUser.getId()); // ID Usuario Dinámico
-                pstmt.setTimestamp(4, new Timestamp(System.currentTimeMillis()));
-
-                pstmt.executeUpdate();
-                movie.setViewed(true);
-            }
-        } catch (SQLException e) {
-            System.err.println("Error al marcar película como vista: " + e.getMessage());
-        }
+    default Movie setMovieViewed(Session session, Movie movie) {
+        // La inserción se difiere a la cola de escritura: la película se marca al instante
+        recordViewed(session, MaterialNames.MOVIE, movie.getId());
+        movie.setViewed(true);
         return movie;
     }
 
 
     /**
-     * Lee todas las películas de la base de datos y verifica si han sido vistas.
+     * Lee todas las películas de la base de datos y marca las que el usuario de la sesión ya vio.
+     * @param session La sesión del usuario.
      * @return Lista de objetos Movie.
      */
-    default ArrayList<Movie> read() {
+    default ArrayList<Movie> read(Session session) {
         ArrayList<Movie> movies = new ArrayList<>();
-        // Query utilizando constantes
-        String query = "SELECT * FROM " + TMovie.NAME;
-
-        try (Connection connection = connectToDB();
-             PreparedStatement preparedStatement = connection.prepareStatement(query);
-             ResultSet rs = preparedStatement.executeQuery()) {
-
-            while (rs.next()) {
-                Movie movie = new Movie(
-                        rs.getString(TMovie.TITLE),
-                        rs.getString(TMovie.GENRE),
-                        rs.getString(TMovie.CREATOR),
-                        rs.getInt(TMovie.DURATION),
-                        rs.getShort(TMovie.YEAR)
-                );
-
-                movie.setId(rs.getInt(TMovie.ID));
-                movie.setViewed(getMovieViewed(connection, movie.getId()));
-                movies.add(movie);
-            }
-        } catch (SQLException e) {
+        try (Stream<Movie> rows = stream(session)) {
+            rows.forEach(movies::add);
+        } catch (RuntimeException e) {
             System.err.println("Error al leer películas: " + e.getMessage());
         }
         return movies;
     }
 
     /**
-     * Consulta interna para verificar el estado de visualización de una película en la base de datos.
+     * Recorre las películas con un cursor de sólo avance, sin materializar el catálogo.
      * <p>
-     * Este método privado realiza una búsqueda en la tabla {@code viewed} filtrando por el
-     * identificador del material (tipo Película), el ID de la película específica y el ID
-     * del usuario activo. Permite determinar si existe una coincidencia que valide que
-     * el contenido ya fue consumido por el perfil actual.
+     * Cada película se construye al consumirla, de modo que la memoria no depende del
+     * tamaño de la tabla. El flujo retiene una conexión hasta cerrarse.
      * </p>
-     *
-     * @param connection La conexión activa a la base de datos proporcionada por el método {@code read()}.
-     * @param idMovie    El identificador único de la {@link Movie} que se desea verificar.
-     * @return {@code true} si existe un registro de visualización para este usuario y película;
-     * {@code false} en caso contrario o ante cualquier error de SQL.
+     * @param session La sesión del usuario.
+     * @return Un flujo perezoso de películas que debe cerrarse (<i>try-with-resources</i>).
      */
-    private boolean getMovieViewed(Connection connection, int idMovie) {
-        boolean viewed = false;
-        String query = "SELECT * FROM " + TViewed.NAME +
-                " WHERE " + TViewed.ID_MATERIAL + " = ?" + // Dinámico
-                " AND " + TViewed.ID_ELEMENT + " = ?" +
-                " AND " + TViewed.ID_USER + " = ?";        // Dinámico
-
-        try {
-            int idMaterial = getMaterialIdByName(MaterialNames.MOVIE, connection);
-
-            try (PreparedStatement pstmt = connection.prepareStatement(query)) {
-                pstmt.setInt(1, idMaterial);
-                pstmt.setInt(2, idMovie);
-                pstmt.setInt(3, Main.activeUser.getId()); // Solo lo que el usuario actual vio
-
-                try (ResultSet rs = pstmt.executeQuery()) {
-                    viewed = rs.next();
-                }
-            }
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
-        return viewed;
+    default Stream<Movie> stream(Session session) {
+        // El historial del usuario ya está en memoria: no se consulta 'viewed' por cada fila
+        ViewedIndex viewed = session.getViewedIndex();
+        return queryStream(NamedQuery.MOVIE_ALL, rs -> mapMovie(rs, viewed));
+    }
+
+    /**
+     * Lee la película con el id indicado.
+     * @param session La sesión del usuario.
+     * @param id      El id de la película.
+     * @return La película, o {@code null} si no existe.
+     */
+    default Movie readById(Session session, int id) {
+        ViewedIndex viewed = session.getViewedIndex();
+        return queryById(NamedQuery.MOVIE_BY_ID, id, rs -> mapMovie(rs, viewed));
+    }
+
+    /**
+     * Lee la página de películas con ids mayores a {@code afterId}.
+     * @param session La sesión del usuario.
+     * @param afterId El último id de la página anterior ({@code 0} para la primera).
+     * @param size    La cantidad de elementos por página.
+     * @return La página leída; el costo depende de {@code size}, no del tamaño del catálogo.
+     */
+    default CatalogPage<Movie> readPageAfter(Session session, int afterId, int size) {
+        ViewedIndex viewed = session.getViewedIndex();
+        return queryPage(NamedQuery.MOVIE_PAGE_AFTER, afterId, size, true, rs -> mapMovie(rs, viewed), Movie::getId);
+    }
+
+    /**
+     * Lee la página de películas con ids menores a {@code beforeId}.
+     * @param session La sesión del usuario.
+     * @param beforeId El primer id de la página actual.
+     * @param size     La cantidad de elementos por página.
+     * @return La página leída, en orden ascendente de id.
+     */
+    default CatalogPage<Movie> readPageBefore(Session session, int beforeId, int size) {
+        ViewedIndex viewed = session.getViewedIndex();
+        return queryPage(NamedQuery.MOVIE_PAGE_BEFORE, beforeId, size, false, rs -> mapMovie(rs, viewed), Movie::getId);
+    }
+
+    /**
+     * Recorre las películas que el usuario de la sesión vio en un rango de fechas.
+     * @param session La sesión del usuario.
+     * @param from    El inicio del rango (inclusive).
+     * @param to      El fin del rango (exclusivo).
+     * @return Un flujo perezoso en orden cronológico que debe cerrarse (<i>try-with-resources</i>).
+     */
+    default Stream<Movie> streamViewedMovies(Session session, Timestamp from, Timestamp to) {
+        ViewedIndex viewed = session.getViewedIndex();
+        return queryViewedBetween(NamedQuery.MOVIE_VIEWED_BETWEEN, session, MaterialNames.MOVIE, from, to,
+                rs -> mapMovie(rs, viewed));
+    }
+
+    /**
+     * Variante asíncrona de {@link #setMovieViewed(Session, Movie)}.
+     * @param session La sesión del usuario.
+     * @param movie La película seleccionada.
+     * @return La película con su estado actualizado.
+     */
+    default CompletableFuture<Movie> setMovieViewedAsync(Session session, Movie movie) {
+        return supplyAsync(() -> setMovieViewed(session, movie));
+    }
+
+    /**
+     * Variante asíncrona de {@link #read(Session)}.
+     * @param session La sesión del usuario.
+     * @return El catálogo de películas, cuando termine la carga.
+     */
+    default CompletableFuture<ArrayList<Movie>> readAsync(Session session) {
+        return supplyAsync(() -> read(session));
+    }
+
+    /**
+     * Variante asíncrona de {@link #readById(Session, int)}.
+     * @param session La sesión del usuario.
+     * @param id      El id de la película.
+     * @return La película, o {@code null} si no existe, cuando termine la consulta.
+     */
+    default CompletableFuture<Movie> readByIdAsync(Session session, int id) {
+        return supplyAsync(() -> readById(session, id));
+    }
+
+    /**
+     * Variante asíncrona de {@link #readPageAfter(Session, int, int)}.
+     * @param session La sesión del usuario.
+     * @param afterId El último id de la página anterior ({@code 0} para la primera).
+     * @param size    La cantidad de elementos por página.
+     * @return La página leída, cuando termine la consulta.
+     */
+    default CompletableFuture<CatalogPage<Movie>> readPageAfterAsync(Session session, int afterId, int size) {
+        return supplyAsync(() -> readPageAfter(session, afterId, size));
+    }
+
+    /**
+     * Variante asíncrona de {@link #readPageBefore(Session, int, int)}.
+     * @param session La sesión del usuario.
+     * @param beforeId El primer id de la página actual.
+     * @param size     La cantidad de elementos por página.
+     * @return La página leída, cuando termine la consulta.
+     */
+    default CompletableFuture<CatalogPage<Movie>> readPageBeforeAsync(Session session, int beforeId, int size) {
+        return supplyAsync(() -> readPageBefore(session, beforeId, size));
+    }
+
+    private Movie mapMovie(ResultSet rs, ViewedIndex viewed) throws SQLException {
+        Movie movie = new Movie(
+                rs.getString(TMovie.TITLE),
+                rs.getString(TMovie.GENRE),
+                rs.getString(TMovie.CREATOR),
+                rs.getInt(TMovie.DURATION),
+                rs.getShort(TMovie.YEAR)
+        );
+
+        movie.setId(rs.getInt(TMovie.ID));
+        movie.setViewed(viewed.isViewed(MaterialNames.MOVIE, movie.getId()));
+        return movie;
     }
 }
\ No newline at end of file
@@ -0,0 +1,238 @@
+package com.anncode.amazonviewer.dao;
+
+import com.anncode.amazonviewer.model.Page;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Caché LRU de páginas de libros, compartida por todos los libros de la aplicación.
+ * <p>
+ * Las páginas se cargan bajo demanda en ventanas de {@link #WINDOW_SIZE} páginas
+ * consecutivas. La caché conserva como máximo {@link #MAX_WINDOWS} ventanas y descarta
+ * las menos usadas recientemente, de modo que la memoria no crece con la cantidad
+ * ni con la extensión de los libros.
+ * </p>
+ * <p>
+ * Mientras el usuario lee, {@link #prefetchAround(int, int, int)} carga en segundo plano la
+ * ventana siguiente (o la anterior) para que avanzar de página no espere a la base de datos.
+ * Si una lectura llega mientras la ventana se está cargando, espera a esa misma carga
+ * en lugar de repetir la consulta.
+ * </p>
+ * <p>
+ * Cada ventana se lee a partir del {@code number} de la última página de la anterior
+ * (ver {@link BookDAO#readPageWindow(int, int, int)}), así que su costo no depende de
+ * la posición dentro del libro. Esos límites se recuerdan aparte de las páginas, porque
+ * ocupan un entero por ventana: retroceder a una ventana descartada no obliga a releer
+ * las anteriores.
+ * </p>
+ * @author Luigi
+ * @version 1.4
+ * @since 2026-10-17
+ */
+public final class PageCache {
+
+    /** Cantidad de páginas que se cargan por consulta. */
+    public static final int WINDOW_SIZE = Integer.getInteger("amazonviewer.pages.windowSize", 20);
+    /** Cantidad máxima de ventanas retenidas en memoria. */
+    public static final int MAX_WINDOWS = Integer.getInteger("amazonviewer.pages.maxWindows", 256);
+    /** Distancia (en páginas) al borde de la ventana a partir de la cual se precarga la contigua. */
+    public static final int PREFETCH_MARGIN = Math.max(1, WINDOW_SIZE / 4);
+
+    private static final PageCache INSTANCE = new PageCache();
+
+    private final BookDAO bookDAO = new BookDAO() {};
+
+    /** Ventanas cargadas o en carga, en orden de acceso (LRU). */
+    private final Map<Long, CompletableFuture<List<Page>>> windows =
+            new LinkedHashMap<Long, CompletableFuture<List<Page>>>(64, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Long, CompletableFuture<List<Page>>> eldest) {
+                    return size() > MAX_WINDOWS;
+                }
+            };
+
+    /**
+     * {@code number} de la última página de la ventana anterior a cada ventana cargada,
+     * con la misma clave que {@link #windows}. La primera ventana no se registra.
+     */
+    private final Map<Long, Integer> bounds =
+            new LinkedHashMap<Long, Integer>(64, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Long, Integer> eldest) {
+                    return size() > MAX_WINDOWS * 16;
+                }
+            };
+
+    private final ExecutorService prefetcher = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "amazonviewer-page-prefetch");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private PageCache() {
+    }
+
+    /**
+     * Obtiene la instancia única de la caché.
+     * @return La caché de páginas compartida.
+     */
+    public static PageCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Obtiene una página de un libro, cargando su ventana si no está en caché.
+     * @param idBook   El identificador del libro.
+     * @param position La posición de la página (0 = primera página, en orden de {@code number}).
+     * @return La {@link Page} solicitada, o {@code null} si el libro no tiene esa posición.
+     */
+    public Page getPage(int idBook, int position) {
+        int window = position / WINDOW_SIZE;
+        List<Page> pages;
+        try {
+            pages = window(idBook, window, false).join();
+        } catch (CompletionException e) {
+            System.err.println("Error al cargar páginas del libro " + idBook + ": " + e.getCause());
+            return null;
+        }
+        int offset = position - window * WINDOW_SIZE;
+        return offset < pages.size() ? pages.get(offset) : null;
+    }
+
+    /**
+     * Precarga en segundo plano la ventana contigua cuando la posición actual
+     * se acerca al borde de su ventana.
+     * @param idBook    El identificador del libro.
+     * @param position  La posición de la página que se está mostrando.
+     * @param pageCount El total de páginas del libro.
+     */
+    public void prefetchAround(int idBook, int position, int pageCount) {
+        int window = position / WINDOW_SIZE;
+        int offset = position - window * WINDOW_SIZE;
+
+        if (offset >= WINDOW_SIZE - PREFETCH_MARGIN && (window + 1) * WINDOW_SIZE < pageCount) {
+            window(idBook, window + 1, true);
+        }
+        if (offset < PREFETCH_MARGIN && window > 0) {
+            window(idBook, window - 1, true);
+        }
+    }
+
+    /**
+     * Descarta de la caché todas las ventanas de un libro.
+     * @param idBook El identificador del libro.
+     */
+    public void invalidate(int idBook) {
+        synchronized (windows) {
+            windows.keySet().removeIf(key -> (int) (key >>> 32) == idBook);
+            bounds.keySet().removeIf(key -> (int) (key >>> 32) == idBook);
+        }
+    }
+
+    /**
+     * Obtiene la cantidad de ventanas retenidas actualmente.
+     * @return El número de ventanas en caché (cargadas o en carga).
+     */
+    public int size() {
+        synchronized (windows) {
+            return windows.size();
+        }
+    }
+
+    private static long key(int idBook, int window) {
+        return ((long) idBook << 32) | window;
+    }
+
+    private CompletableFuture<List<Page>> window(int idBook, int window, boolean async) {
+        long key = key(idBook, window);
+        CompletableFuture<List<Page>> future;
+        boolean owner = false;
+
+        synchronized (windows) {
+            future = windows.get(key);
+            if (future == null) {
+                future = new CompletableFuture<>();
+                windows.put(key, future);
+                owner = true;
+            }
+        }
+
+        if (owner) {
+            CompletableFuture<List<Page>> target = future;
+            Runnable load = () -> {
+                try {
+                    target.complete(load(idBook, window));
+                } catch (RuntimeException e) {
+                    // No dejamos en caché una ventana fallida: el siguiente acceso reintenta
+                    synchronized (windows) {
+                        windows.remove(key, target);
+                    }
+                    target.completeExceptionally(e);
+                }
+            };
+            if (async) {
+                prefetcher.execute(load);
+            } else {
+                load.run();
+            }
+        }
+        return future;
+    }
+
+    /**
+     * Lee una ventana con una consulta por clave y registra dónde empieza la siguiente.
+     * Las ventanas de un libro que terminó antes quedan vacías.
+     */
+    private List<Page> load(int idBook, int window) {
+        Integer after = bound(idBook, window);
+        List<Page> pages = after == null
+                ? Collections.emptyList()
+                : bookDAO.readPageWindow(idBook, after, WINDOW_SIZE);
+        if (pages.size() == WINDOW_SIZE) {
+            synchronized (windows) {
+                bounds.put(key(idBook, window + 1), pages.get(WINDOW_SIZE - 1).getNumber());
+            }
+        }
+        return pages;
+    }
+
+    /**
+     * Obtiene el {@code number} tras el cual empieza una ventana.
+     * <p>
+     * Si el límite no se conoce (por ejemplo, al saltar hacia adelante o tras descartarse),
+     * se recorren por clave las ventanas desde el último límite conocido. Esas lecturas
+     * no pasan por {@link #windows}, para no esperar a una precarga encolada en el mismo hilo.
+     * </p>
+     * @return El límite, o {@code null} si el libro termina antes de la ventana.
+     */
+    private Integer bound(int idBook, int window) {
+        int known = window;
+        Integer after = null;
+        synchronized (windows) {
+            while (known > 0 && (after = bounds.get(key(idBook, known))) == null) {
+                known--;
+            }
+        }
+        if (known == 0) {
+            after = BookDAO.BEFORE_FIRST_PAGE;
+        }
+        for (int w = known; w < window; w++) {
+            List<Page> pages = bookDAO.readPageWindow(idBook, after, WINDOW_SIZE);
+            if (pages.size() < WINDOW_SIZE) {
+                return null;
+            }
+            after = pages.get(WINDOW_SIZE - 1).getNumber();
+            synchronized (windows) {
+                bounds.put(key(idBook, w + 1), after);
+            }
+        }
+        return after;
+    }
+}
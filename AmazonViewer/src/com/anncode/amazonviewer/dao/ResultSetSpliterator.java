@@ -0,0 +1,120 @@
+package com.anncode.amazonviewer.dao;
+
+import com.anncode.amazonviewer.db.DatabaseBackend;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * {@link Spliterator} respaldado por un cursor de sólo avance sobre un {@link ResultSet}.
+ * <p>
+ * Cada elemento se construye al pedirlo, de modo que recorrer un catálogo de millones
+ * de filas usa memoria constante y el primer elemento está disponible en cuanto llega
+ * la primera fila. Con el valor por defecto de {@link #FETCH_SIZE} en MySQL
+ * ({@code Integer.MIN_VALUE}) el driver entrega las filas una a una; un valor
+ * positivo usa un cursor del servidor que trae ese número de filas por viaje.
+ * </p>
+ * <p>
+ * El flujo retiene la conexión hasta cerrarse: debe usarse con <i>try-with-resources</i>.
+ * Al agotarse, el cursor y la conexión se liberan automáticamente.
+ * </p>
+ * @param <T> El tipo de elemento producido.
+ * @author Luigi
+ * @version 1.4
+ * @since 2026-10-17
+ */
+public final class ResultSetSpliterator<T> extends Spliterators.AbstractSpliterator<T> implements AutoCloseable {
+
+    /**
+     * Filas por viaje al servidor; por defecto, el valor de streaming del motor activo
+     * (ver {@link DatabaseBackend#getStreamingFetchSize()}).
+     */
+    public static final int FETCH_SIZE = Integer.getInteger("amazonviewer.fetchSize",
+            DatabaseBackend.get().getStreamingFetchSize());
+
+    private final Connection connection;
+    private final ResultSet rs;
+    private final RowMapper<T> mapper;
+    private boolean closed;
+
+    private ResultSetSpliterator(Connection connection, ResultSet rs, RowMapper<T> mapper) {
+        super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL | Spliterator.IMMUTABLE);
+        this.connection = connection;
+        this.rs = rs;
+        this.mapper = mapper;
+    }
+
+    /**
+     * Ejecuta una sentencia ya parametrizada y expone su resultado como {@link Stream}.
+     * <p>
+     * El flujo toma posesión de la conexión: al cerrarlo (o al agotarse) se cierra el
+     * {@link ResultSet} y la conexión vuelve al pool. La sentencia no se cierra, porque
+     * pertenece al {@link com.anncode.amazonviewer.db.StatementCache} de la conexión.
+     * </p>
+     * @param connection La conexión de la que proviene la sentencia.
+     * @param statement  La sentencia lista para ejecutarse.
+     * @param mapper     La conversión de cada fila.
+     * @param <T>        El tipo de elemento producido.
+     * @return Un flujo secuencial y perezoso de elementos.
+     * @throws SQLException Si la consulta falla; en ese caso la conexión se libera antes de propagar.
+     */
+    public static <T> Stream<T> stream(Connection connection, PreparedStatement statement, RowMapper<T> mapper)
+            throws SQLException {
+        ResultSet rs;
+        try {
+            statement.setFetchSize(FETCH_SIZE);
+            rs = statement.executeQuery();
+        } catch (SQLException e) {
+            connection.close();
+            throw e;
+        }
+        ResultSetSpliterator<T> spliterator = new ResultSetSpliterator<>(connection, rs, mapper);
+        return StreamSupport.stream(spliterator, false).onClose(spliterator::close);
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super T> action) {
+        if (closed) {
+            return false;
+        }
+        try {
+            if (!rs.next()) {
+                close();
+                return false;
+            }
+            action.accept(mapper.map(rs));
+            return true;
+        } catch (SQLException e) {
+            close();
+            throw new RuntimeException("Error al recorrer el resultado: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Libera el cursor y devuelve la conexión al pool. Puede llamarse más de una vez.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            rs.close();
+        } catch (SQLException e) {
+            System.err.println("Error al cerrar el cursor: " + e.getMessage());
+        }
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            System.err.println("Error al devolver la conexión: " + e.getMessage());
+        }
+    }
+}
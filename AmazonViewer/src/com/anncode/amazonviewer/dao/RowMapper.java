@@ -0,0 +1,27 @@
+package com.anncode.amazonviewer.dao;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Convierte la fila actual de un {@link ResultSet} en un objeto del modelo.
+ * <p>
+ * Permite que la lectura en lista ({@code read()}) y la lectura en flujo
+ * ({@code stream()}) de cada DAO compartan el mismo código de mapeo.
+ * </p>
+ * @param <T> El tipo de objeto producido por cada fila.
+ * @author Luigi
+ * @version 1.4
+ * @since 2026-10-17
+ */
+@FunctionalInterface
+public interface RowMapper<T> {
+
+    /**
+     * Construye el objeto correspondiente a la fila actual. No debe avanzar el cursor.
+     * @param rs El resultado posicionado en la fila a convertir.
+     * @return El objeto construido.
+     * @throws SQLException Si alguna columna no se puede leer.
+     */
+    T map(ResultSet rs) throws SQLException;
+}
@@ -1,14 +1,15 @@
 package com.anncode.amazonviewer.dao;
 
-import com.anncode.amazonviewer.Main;
-import com.anncode.amazonviewer.db.DataBase;
 import com.anncode.amazonviewer.db.IDBConnection;
+import com.anncode.amazonviewer.db.NamedQuery;
 import com.anncode.amazonviewer.db.DataBase.TSerie;
-import com.anncode.amazonviewer.db.DataBase.TViewed;
 import com.anncode.amazonviewer.db.DataBase.MaterialNames;
 import com.anncode.amazonviewer.model.Serie;
+import com.anncode.amazonviewer.model.Session;
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
 
 /**
  * Interfaz que define las operaciones de persistencia para el objeto {@link Serie}.
@@ -23,87 +24,150 @@ import java.util.ArrayList;
  * @version 1.3
  * @since 2026-01-03
  */
-public interface SerieDAO extends IDBConnection {
+public interface SerieDAO extends ViewedDAO {
 
     /**
      * Lee todas las series de la base de datos.
+     * @param session La sesión del usuario.
      * @return Lista de objetos Serie.
      */
-    default ArrayList<Serie> read() {
+    default ArrayList<Serie> read(Session session) {
         ArrayList<Serie> series = new ArrayList<>();
-        String query = "SELECT * FROM " + TSerie.NAME;
-        try (Connection connection = connectToDB();
-             PreparedStatement pstmt = connection.prepareStatement(query);
-             ResultSet rs = pstmt.executeQuery()) {
-            // Dentro del método read() de SerieDAO
-            while (rs.next()) {
-                // Obtenemos los datos de la base de datos
-                String title = rs.getString(TSerie.TITLE);
-                String genre = rs.getString(TSerie.GENRE);
-                String creator = rs.getString(TSerie.CREATOR);
-                int duration = rs.getInt(TSerie.DURATION);
-
-                // Suponiendo que el 5to parámetro es la cantidad de temporadas
-                // y que tienes esa columna en tu DB (por ejemplo TSerie.SESSION_QUANTITY)
-                int year = rs.getInt(TSerie.YEAR);
-
-                // LLAMADA CORRECTA CON LOS 5 PARÁMETROS
-                Serie serie = new Serie(
-                        title,
-                        genre,
-                        creator,
-                        duration,
-                        year
-                );
-
-                serie.setId(rs.getInt(TSerie.ID));
-                serie.setViewed(getSerieViewed(connection, serie.getId()));
-
-                series.add(serie);
-            }
-        } catch (SQLException e) { e.printStackTrace(); }
+        try (Stream<Serie> rows = stream(session)) {
+            rows.forEach(series::add);
+        } catch (RuntimeException e) { e.printStackTrace(); }
         return series;
     }
 
-    private boolean getSerieViewed(Connection connection, int idSerie) {
-        boolean viewed = false;
-        String query = "SELECT * FROM " + TViewed.NAME +
-                " WHERE " + TViewed.ID_MATERIAL + " = ?" +
-                " AND " + TViewed.ID_ELEMENT + " = ?" +
-                " AND " + TViewed.ID_USER + " = ?";
-        try {
-            int idMaterial = getMaterialIdByName(MaterialNames.SERIE, connection);
-            try (PreparedStatement pstmt = connection.prepareStatement(query)) {
-                pstmt.setInt(1, idMaterial);
-                pstmt.setInt(2, idSerie);
-                pstmt.setInt(3, Main.activeUser.getId());
-                try (ResultSet rs = pstmt.executeQuery()) {
-                    viewed = rs.next();
-                }
-            }
-        } catch (SQLException e) { e.printStackTrace(); }
-        return viewed;
+    /**
+     * Recorre las series con un cursor de sólo avance, sin materializar el catálogo.
+     * Los capítulos no se cargan; ver {@link ChapterDAO#readChapters(java.util.List)}.
+     * @param session La sesión del usuario.
+     * @return Un flujo perezoso de series que debe cerrarse (<i>try-with-resources</i>).
+     */
+    default Stream<Serie> stream(Session session) {
+        // El historial del usuario ya está en memoria: no se consulta 'viewed' por cada fila
+        ViewedIndex viewed = session.getViewedIndex();
+        return queryStream(NamedQuery.SERIE_ALL, rs -> mapSerie(rs, viewed));
+    }
+
+    /**
+     * Lee la serie con el id indicado.
+     * @param session La sesión del usuario.
+     * @param id      El id de la serie.
+     * @return La serie, o {@code null} si no existe.
+     */
+    default Serie readById(Session session, int id) {
+        ViewedIndex viewed = session.getViewedIndex();
+        return queryById(NamedQuery.SERIE_BY_ID, id, rs -> mapSerie(rs, viewed));
     }
 
-    default void setSerieViewed(Serie serie) {
-        String query = "INSERT INTO " + TViewed.NAME +
-                " (" + TViewed.ID_MATERIAL + ", " + TViewed.ID_ELEMENT + ", " + TViewed.ID_USER + ", " + TViewed.DATE + ") " +
-                " VALUES (?, ?, ?, ?)";
-
-        try (Connection connection = connectToDB()) {
-            // Obtenemos el ID del material "Serie"
-            int idMaterial = getMaterialIdByName(MaterialNames.SERIE, connection);
-
-            try (PreparedStatement pstmt = connection.prepareStatement(query)) {
-                pstmt.setInt(1, idMaterial);
-                pstmt.setInt(2, serie.getId());
-                pstmt.setInt(3, Main.activeUser.getId());
-                pstmt.setTimestamp(4, new Timestamp(System.currentTimeMillis()));
-
-                pstmt.executeUpdate();
-            }
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
+    /**
+     * Lee la página de series con ids mayores a {@code afterId}.
+     * @param session La sesión del usuario.
+     * @param afterId El último id de la página anterior ({@code 0} para la primera).
+     * @param size    La cantidad de elementos por página.
+     * @return La página leída; el costo depende de {@code size}, no del tamaño del catálogo.
+     */
+    default CatalogPage<Serie> readPageAfter(Session session, int afterId, int size) {
+        ViewedIndex viewed = session.getViewedIndex();
+        return queryPage(NamedQuery.SERIE_PAGE_AFTER, afterId, size, true, rs -> mapSerie(rs, viewed), Serie::getId);
+    }
+
+    /**
+     * Lee la página de series con ids menores a {@code beforeId}.
+     * @param session La sesión del usuario.
+     * @param beforeId El primer id de la página actual.
+     * @param size     La cantidad de elementos por página.
+     * @return La página leída, en orden ascendente de id.
+     */
+    default CatalogPage<Serie> readPageBefore(Session session, int beforeId, int size) {
+        ViewedIndex viewed = session.getViewedIndex();
+        return queryPage(NamedQuery.SERIE_PAGE_BEFORE, beforeId, size, false, rs -> mapSerie(rs, viewed), Serie::getId);
+    }
+
+    /**
+     * Variante asíncrona de {@link #read(Session)}.
+     * @param session La sesión del usuario.
+     * @return El catálogo de series, cuando termine la carga.
+     */
+    default CompletableFuture<ArrayList<Serie>> readAsync(Session session) {
+        return supplyAsync(() -> read(session));
+    }
+
+    /**
+     * Variante asíncrona de {@link #readById(Session, int)}.
+     * @param session La sesión del usuario.
+     * @param id      El id de la serie.
+     * @return La serie, o {@code null} si no existe, cuando termine la consulta.
+     */
+    default CompletableFuture<Serie> readByIdAsync(Session session, int id) {
+        return supplyAsync(() -> readById(session, id));
+    }
+
+    /**
+     * Variante asíncrona de {@link #readPageAfter(Session, int, int)}.
+     * @param session La sesión del usuario.
+     * @param afterId El último id de la página anterior ({@code 0} para la primera).
+     * @param size    La cantidad de elementos por página.
+     * @return La página leída, cuando termine la consulta.
+     */
+    default CompletableFuture<CatalogPage<Serie>> readPageAfterAsync(Session session, int afterId, int size) {
+        return supplyAsync(() -> readPageAfter(session, afterId, size));
+    }
+
+    /**
+     * Variante asíncrona de {@link #readPageBefore(Session, int, int)}.
+     * @param session La sesión del usuario.
+     * @param beforeId El primer id de la página actual.
+     * @param size     La cantidad de elementos por página.
+     * @return La página leída, cuando termine la consulta.
+     */
+    default CompletableFuture<CatalogPage<Serie>> readPageBeforeAsync(Session session, int beforeId, int size) {
+        return supplyAsync(() -> readPageBefore(session, beforeId, size));
+    }
+
+    /**
+     * Variante asíncrona de {@link #setSerieViewed(Session, Serie)}.
+     * @param session La sesión del usuario.
+     * @param serie La serie vista por completo.
+     * @return Una tarea que se completa al registrar la serie.
+     */
+    default CompletableFuture<Void> setSerieViewedAsync(Session session, Serie serie) {
+        return runAsync(() -> setSerieViewed(session, serie));
+    }
+
+    private Serie mapSerie(ResultSet rs, ViewedIndex viewed) throws SQLException {
+        // Obtenemos los datos de la base de datos
+        String title = rs.getString(TSerie.TITLE);
+        String genre = rs.getString(TSerie.GENRE);
+        String creator = rs.getString(TSerie.CREATOR);
+        int duration = rs.getInt(TSerie.DURATION);
+
+        // Suponiendo que el 5to parámetro es la cantidad de temporadas
+        // y que tienes esa columna en tu DB (por ejemplo TSerie.SESSION_QUANTITY)
+        int year = rs.getInt(TSerie.YEAR);
+
+        // LLAMADA CORRECTA CON LOS 5 PARÁMETROS
+        Serie serie = new Serie(
+                title,
+                genre,
+                creator,
+                duration,
+                year
+        );
+
+        serie.setId(rs.getInt(TSerie.ID));
+        serie.setViewed(viewed.isViewed(MaterialNames.SERIE, serie.getId()));
+        return serie;
+    }
+
+    /**
+     * Registra en la base de datos que una serie fue vista por completo.
+     * @param session La sesión del usuario.
+     * @param serie La serie cuyos capítulos ya fueron vistos.
+     */
+    default void setSerieViewed(Session session, Serie serie) {
+        recordViewed(session, MaterialNames.SERIE, serie.getId());
     }
 }
\ No newline at end of file
@@ -1,14 +1,16 @@
 package com.anncode.amazonviewer.dao;
 
 import com.anncode.amazonviewer.db.IDBConnection;
+import com.anncode.amazonviewer.db.NamedQuery;
 import com.anncode.amazonviewer.db.DataBase.TUser;
+import com.anncode.amazonviewer.model.Session;
 import com.anncode.amazonviewer.model.User;
 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.sql.Statement;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Interfaz que define las operaciones de persistencia para el objeto {@link User}.
@@ -22,27 +24,32 @@ import java.sql.Statement;
  * @version 1.2
  * @since 2026-01-03
  */
-public interface UserDAO extends IDBConnection {
+public interface UserDAO extends ViewedDAO {
 
     /**
      * Busca un usuario por nombre. Si no existe, lo crea.
+     * <p>
+     * Al iniciar sesión se carga también su historial de la tabla {@code viewed}
+     * en un {@link ViewedIndex}, del cual se alimentan los catálogos.
+     * </p>
      * @param name Nombre del usuario (ej. "Luis")
      * @return Objeto User con su ID asignado por la DB.
      */
     default User login(String name) {
         User user = new User(name);
-        String querySelect = "SELECT * FROM " + TUser.NAME + " WHERE " + TUser.USERNAME + " = ?";
-
-        try (Connection connection = connectToDB();
-             PreparedStatement pstmt = connection.prepareStatement(querySelect)) {
-
+        try (Connection connection = connectToDB()) {
+            PreparedStatement pstmt = prepare(connection, NamedQuery.USER_BY_NAME);
             pstmt.setString(1, name);
-            ResultSet rs = pstmt.executeQuery();
 
-            if (rs.next()) {
-                // Usuario encontrado
-                user.setId(rs.getInt(TUser.ID));
-            } else {
+            boolean found;
+            try (ResultSet rs = pstmt.executeQuery()) {
+                found = rs.next();
+                if (found) {
+                    // Usuario encontrado
+                    user.setId(rs.getInt(TUser.ID));
+                }
+            }
+            if (!found) {
                 // Usuario no existe, procedemos a insertarlo dinámicamente
                 user = insertUser(user, connection);
             }
@@ -50,22 +57,40 @@ public interface UserDAO extends IDBConnection {
         } catch (SQLException e) {
             System.err.println("Error al gestionar sesión de usuario: " + e.getMessage());
         }
+        user.setViewedIndex(readViewedIndex(user.getId()));
         return user;
     }
 
+    /**
+     * Inicia sesión y crea el contexto del usuario para los DAOs y los modelos.
+     * @param name Nombre del usuario.
+     * @return La {@link Session} del usuario, con su historial cargado.
+     */
+    default Session openSession(String name) {
+        User user = login(name);
+        return new Session(user, user.getViewedIndex());
+    }
+
+    /**
+     * Variante asíncrona de {@link #login(String)}.
+     * @param name Nombre del usuario.
+     * @return El usuario con su ID y su historial, cuando termine el inicio de sesión.
+     */
+    default CompletableFuture<User> loginAsync(String name) {
+        return supplyAsync(() -> login(name));
+    }
+
     /**
      * Inserta un nuevo usuario y recupera el ID generado.
      * @return Objeto User con su ID asignado por la DB.
      */
     private User insertUser(User user, Connection connection) throws SQLException {
-        String queryInsert = "INSERT INTO " + TUser.NAME + " (" + TUser.USERNAME + ") VALUES (?)";
-
-        try (PreparedStatement pstmt = connection.prepareStatement(queryInsert, Statement.RETURN_GENERATED_KEYS)) {
-            pstmt.setString(1, user.getName());
-            pstmt.executeUpdate();
+        PreparedStatement pstmt = prepare(connection, NamedQuery.USER_INSERT);
+        pstmt.setString(1, user.getName());
+        pstmt.executeUpdate();
 
-            // Recuperamos el ID que MySQL generó automáticamente
-            ResultSet rs = pstmt.getGeneratedKeys();
+        // Recuperamos el ID que MySQL generó automáticamente
+        try (ResultSet rs = pstmt.getGeneratedKeys()) {
             if (rs.next()) {
                 user.setId(rs.getInt(1));
                 System.out.println(">>> Nuevo usuario creado: " + user.getName() + " con ID: " + user.getId());
@@ -73,4 +98,13 @@ public interface UserDAO extends IDBConnection {
         }
         return user;
     }
-}
\ No newline at end of file
+
+    /**
+     * Variante asíncrona de {@link #openSession(String)}.
+     * @param name Nombre del usuario.
+     * @return La sesión del usuario, cuando termine el inicio de sesión.
+     */
+    default CompletableFuture<Session> openSessionAsync(String name) {
+        return supplyAsync(() -> openSession(name));
+    }
+}
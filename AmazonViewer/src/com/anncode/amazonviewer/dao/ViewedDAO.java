@@ -0,0 +1,243 @@
+package com.anncode.amazonviewer.dao;
+
+import com.anncode.amazonviewer.db.IDBConnection;
+import com.anncode.amazonviewer.db.NamedQuery;
+import com.anncode.amazonviewer.model.Session;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+import java.util.stream.Stream;
+
+/**
+ * Interfaz que agrupa las operaciones comunes sobre la tabla de transacciones {@code viewed}.
+ * <p>
+ * El historial completo del usuario se carga con una sola consulta al iniciar sesión
+ * en un {@link ViewedIndex}. Los DAOs de cada material heredan de esta interfaz para
+ * marcar su catálogo a partir de ese índice, de modo que la carga de un catálogo no
+ * ejecuta consultas adicionales sobre {@code viewed}, sin importar la cantidad de filas.
+ * El usuario y su índice llegan en la {@link Session} que reciben los métodos.
+ * </p>
+ * <p>
+ * Las nuevas visualizaciones se registran con {@link #recordViewed(Session, String, int)}, que
+ * delega la inserción en la {@link ViewedWriteQueue}.
+ * </p>
+ * <p>
+ * Cada operación de los DAOs tiene una variante {@code *Async} que la ejecuta en el
+ * {@link DAOExecutor} y devuelve un {@link CompletableFuture}, para que el llamador
+ * pueda superponer consultas independientes y componer sus resultados sin bloquear.
+ * </p>
+ * @author Luigi
+ * @version 1.4
+ * @since 2026-10-17
+ */
+public interface ViewedDAO extends IDBConnection {
+
+    /**
+     * Lee todos los registros de {@code viewed} de un usuario y construye su índice en memoria.
+     * <p>
+     * Incluye las visualizaciones que siguen pendientes en la {@link ViewedWriteQueue}
+     * (por ejemplo, las reproducidas de la bitácora), aunque aún no estén en la tabla.
+     * </p>
+     *
+     * @param idUser El identificador del usuario.
+     * @return Un {@link ViewedIndex} con los elementos vistos o leídos, agrupados por material.
+     */
+    default ViewedIndex readViewedIndex(int idUser) {
+        ViewedIndex index = new ViewedIndex(idUser);
+        // Primero lo pendiente: un lote que se escriba durante la consulta ya quedó marcado.
+        // Al obtener la cola por primera vez se reproduce la bitácora de la ejecución anterior.
+        ViewedWriteQueue.getInstance().applyPending(index);
+        try (Connection connection = connectToDB()) {
+            PreparedStatement pstmt = prepare(connection, NamedQuery.VIEWED_BY_USER);
+            pstmt.setInt(1, idUser);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    index.markViewed(rs.getInt(1), rs.getInt(2));
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error al cargar el historial de visualización: " + e.getMessage());
+        }
+        return index;
+    }
+
+    /**
+     * Variante asíncrona de {@link #readViewedIndex(int)}.
+     * @param idUser El identificador del usuario.
+     * @return El índice del usuario, cuando termine la consulta.
+     */
+    default CompletableFuture<ViewedIndex> readViewedIndexAsync(int idUser) {
+        return supplyAsync(() -> readViewedIndex(idUser));
+    }
+
+    /**
+     * Ejecuta una consulta del catálogo y entrega sus filas como un flujo perezoso.
+     * <p>
+     * Es la base de los métodos {@code stream()} de los DAOs de catálogo. El flujo
+     * retiene una conexión del pool hasta cerrarse, por lo que debe consumirse dentro
+     * de un bloque <i>try-with-resources</i> (ver {@link ResultSetSpliterator}).
+     * </p>
+     * @param query  La consulta, sin parámetros.
+     * @param mapper La conversión de cada fila.
+     * @param <T>    El tipo de elemento producido.
+     * @return El flujo de elementos, o un flujo vacío si la consulta no se pudo ejecutar.
+     */
+    default <T> Stream<T> queryStream(NamedQuery query, RowMapper<T> mapper) {
+        Connection connection = connectToDB();
+        try {
+            return ResultSetSpliterator.stream(connection, prepare(connection, query), mapper);
+        } catch (SQLException e) {
+            closeConnection(connection);
+            System.err.println("Error al consultar " + query + ": " + e.getMessage());
+            return Stream.empty();
+        }
+    }
+
+    /**
+     * Entrega como flujo perezoso los elementos de un material que el usuario de la
+     * sesión vio en un rango de fechas.
+     * <p>
+     * La consulta parte de {@code viewed} por el índice (id_user, date) y une cada fila
+     * con su elemento del catálogo, así que sólo se leen las filas del rango. Como cada
+     * usuario tiene una fila por elemento, la fecha es la de la última visualización.
+     * </p>
+     * @param query        La consulta {@code *_VIEWED_BETWEEN} del catálogo.
+     * @param session      La sesión del usuario.
+     * @param materialName El nombre del material, como en
+     *                     {@link com.anncode.amazonviewer.db.DataBase.MaterialNames}.
+     * @param from         El inicio del rango (inclusive).
+     * @param to           El fin del rango (exclusivo).
+     * @param mapper       La conversión de cada fila.
+     * @param <T>          El tipo de elemento del catálogo.
+     * @return El flujo de elementos en orden cronológico, que debe cerrarse; vacío si la consulta falla.
+     */
+    default <T> Stream<T> queryViewedBetween(NamedQuery query, Session session, String materialName,
+                                             Timestamp from, Timestamp to, RowMapper<T> mapper) {
+        Connection connection = connectToDB();
+        try {
+            PreparedStatement pstmt = prepare(connection, query);
+            pstmt.setInt(1, session.getUserId());
+            pstmt.setTimestamp(2, from);
+            pstmt.setTimestamp(3, to);
+            pstmt.setInt(4, getMaterialId(materialName));
+            return ResultSetSpliterator.stream(connection, pstmt, mapper);
+        } catch (SQLException e) {
+            closeConnection(connection);
+            System.err.println("Error al consultar " + query + ": " + e.getMessage());
+            return Stream.empty();
+        }
+    }
+
+    /**
+     * Lee un elemento del catálogo por su id.
+     * @param query  La consulta {@code *_BY_ID} del catálogo.
+     * @param id     El id del elemento.
+     * @param mapper La conversión de la fila.
+     * @param <T>    El tipo de elemento del catálogo.
+     * @return El elemento, o {@code null} si no existe o la consulta falla.
+     */
+    default <T> T queryById(NamedQuery query, int id, RowMapper<T> mapper) {
+        try (Connection connection = connectToDB()) {
+            PreparedStatement pstmt = prepare(connection, query);
+            pstmt.setInt(1, id);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next() ? mapper.map(rs) : null;
+            }
+        } catch (SQLException e) {
+            System.err.println("Error al consultar " + query + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Lee una página de un catálogo por paginación por llave.
+     * <p>
+     * La consulta recibe la llave y el límite ({@code WHERE id > ? ORDER BY id LIMIT ?}
+     * o {@code WHERE id < ? ORDER BY id DESC LIMIT ?}). Se pide un elemento extra para
+     * saber, sin contar la tabla, si existe otra página en la dirección de lectura.
+     * </p>
+     * @param query   La consulta {@code *_PAGE_AFTER} o {@code *_PAGE_BEFORE} del catálogo.
+     * @param keyId   El id de referencia (exclusivo).
+     * @param size    La cantidad máxima de elementos de la página.
+     * @param forward {@code true} para leer hacia ids mayores, {@code false} hacia ids menores.
+     * @param mapper  La conversión de cada fila.
+     * @param idOf    La forma de obtener el id de un elemento.
+     * @param <T>     El tipo de elemento del catálogo.
+     * @return La página leída, en orden ascendente de id.
+     */
+    default <T> CatalogPage<T> queryPage(NamedQuery query, int keyId, int size, boolean forward,
+                                         RowMapper<T> mapper, ToIntFunction<T> idOf) {
+        List<T> items = new ArrayList<>(size + 1);
+        try (Connection connection = connectToDB()) {
+            PreparedStatement pstmt = prepare(connection, query);
+            pstmt.setInt(1, keyId);
+            pstmt.setInt(2, size + 1);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    items.add(mapper.map(rs));
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error al leer la página de " + query + ": " + e.getMessage());
+        }
+
+        boolean more = items.size() > size;
+        if (more) {
+            items.remove(items.size() - 1);
+        }
+        if (forward) {
+            return new CatalogPage<>(items, idOf, keyId, true, keyId > 0, more);
+        }
+        Collections.reverse(items);
+        return new CatalogPage<>(items, idOf, keyId, false, more, true);
+    }
+
+    /**
+     * Registra que el usuario de una sesión vio o leyó un elemento.
+     * <p>
+     * Actualiza de inmediato el {@link ViewedIndex} en memoria y encola la inserción en
+     * la {@link ViewedWriteQueue}, de modo que la acción del usuario no espera a la
+     * base de datos.
+     * </p>
+     * @param session      La sesión del usuario.
+     * @param materialName El nombre del material tal como está definido en
+     *                     {@link com.anncode.amazonviewer.db.DataBase.MaterialNames}.
+     * @param idElement    El identificador del elemento visto o leído.
+     */
+    default void recordViewed(Session session, String materialName, int idElement) {
+        session.getViewedIndex().markViewed(materialName, idElement);
+        ViewedWriteQueue.getInstance().enqueue(new ViewedEvent(
+                session.getUserId(),
+                getMaterialId(materialName),
+                idElement,
+                System.currentTimeMillis()));
+    }
+
+    /**
+     * Ejecuta una operación del DAO en el {@link DAOExecutor}.
+     * @param operation La operación síncrona a ejecutar.
+     * @param <T>       El tipo de resultado.
+     * @return El resultado de la operación, cuando termine.
+     */
+    default <T> CompletableFuture<T> supplyAsync(Supplier<T> operation) {
+        return CompletableFuture.supplyAsync(operation, DAOExecutor.get());
+    }
+
+    /**
+     * Ejecuta una operación del DAO sin resultado en el {@link DAOExecutor}.
+     * @param operation La operación síncrona a ejecutar.
+     * @return Una tarea que se completa al terminar la operación.
+     */
+    default CompletableFuture<Void> runAsync(Runnable operation) {
+        return CompletableFuture.runAsync(operation, DAOExecutor.get());
+    }
+}
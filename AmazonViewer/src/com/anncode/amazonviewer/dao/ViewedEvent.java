@@ -0,0 +1,86 @@
+package com.anncode.amazonviewer.dao;
+
+/**
+ * Registro inmutable de una visualización o lectura pendiente de escribir en la tabla {@code viewed}.
+ * <p>
+ * Lo producen los métodos {@code setXViewed}/{@code setXRead} de los DAOs y lo consume
+ * {@link ViewedWriteQueue}, que lo inserta en lotes. Antes de encolarse se anexa a la
+ * {@link ViewedJournal}; la posición del registro viaja con el evento para confirmarlo
+ * una vez escrito.
+ * </p>
+ * @author Luigi
+ * @version 1.4
+ * @since 2026-10-17
+ */
+public final class ViewedEvent {
+
+    private final int idUser;
+    private final int idMaterial;
+    private final int idElement;
+    private final long timestamp;
+    private final long journalPosition;
+
+    /**
+     * Crea un evento de visualización.
+     * @param idUser     El identificador del usuario.
+     * @param idMaterial El identificador del material en la tabla {@code material}.
+     * @param idElement  El identificador del elemento visto o leído.
+     * @param timestamp  El instante de la visualización en milisegundos desde la época.
+     */
+    public ViewedEvent(int idUser, int idMaterial, int idElement, long timestamp) {
+        this(idUser, idMaterial, idElement, timestamp, -1L);
+    }
+
+    /**
+     * Crea un evento ya anexado a la bitácora.
+     * @param journalPosition La posición devuelta por {@link ViewedJournal#append(ViewedEvent)},
+     *                        o {@code -1} si el evento no está en la bitácora.
+     */
+    ViewedEvent(int idUser, int idMaterial, int idElement, long timestamp, long journalPosition) {
+        this.idUser = idUser;
+        this.idMaterial = idMaterial;
+        this.idElement = idElement;
+        this.timestamp = timestamp;
+        this.journalPosition = journalPosition;
+    }
+
+    /**
+     * Devuelve una copia del evento con su posición en la bitácora.
+     * @param position La posición devuelta por {@link ViewedJournal#append(ViewedEvent)}.
+     * @return El evento con la posición asignada.
+     */
+    ViewedEvent withJournalPosition(long position) {
+        return new ViewedEvent(idUser, idMaterial, idElement, timestamp, position);
+    }
+
+    /** @return El identificador del usuario. */
+    public int getIdUser() {
+        return idUser;
+    }
+
+    /** @return El identificador del material. */
+    public int getIdMaterial() {
+        return idMaterial;
+    }
+
+    /** @return El identificador del elemento visto o leído. */
+    public int getIdElement() {
+        return idElement;
+    }
+
+    /** @return El instante de la visualización en milisegundos desde la época. */
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    /** @return La posición del evento en la {@link ViewedJournal}, o {@code -1} si no está en ella. */
+    public long getJournalPosition() {
+        return journalPosition;
+    }
+
+    @Override
+    public String toString() {
+        return "ViewedEvent[user=" + idUser + ", material=" + idMaterial +
+                ", element=" + idElement + ", ts=" + timestamp + "]";
+    }
+}
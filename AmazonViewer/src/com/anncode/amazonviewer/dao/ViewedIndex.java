@@ -0,0 +1,135 @@
+package com.anncode.amazonviewer.dao;
+
+import com.anncode.amazonviewer.db.MaterialRegistry;
+import com.anncode.util.RoaringBitmap;
+
+/**
+ * Índice en memoria de los elementos vistos o leídos por un usuario, agrupados por material.
+ * <p>
+ * Se carga una vez al iniciar sesión (ver {@link ViewedDAO#readViewedIndex(int)}) y se
+ * mantiene actualizado por los métodos {@code setMovieViewed}, {@code setChapterViewed},
+ * {@code setSerieViewed}, {@code setBookRead} y {@code setMagazineRead}. Cada material
+ * se guarda en un {@link RoaringBitmap}, por lo que saber si un elemento fue visto es
+ * de tiempo constante y contar los capítulos vistos de una serie es una intersección
+ * de mapas de bits, sin consultas ni recorridos del grafo de objetos.
+ * </p>
+ * <p>
+ * Todos los métodos están sincronizados: el índice se comparte entre los hilos que
+ * atienden al mismo usuario.
+ * </p>
+ * @author Luigi
+ * @version 1.4
+ * @since 2026-10-17
+ */
+public class ViewedIndex {
+
+    private final int idUser;
+    private final RoaringBitmap[] bitmaps = new RoaringBitmap[MaterialRegistry.size()];
+
+    /**
+     * Crea un índice vacío para el usuario indicado.
+     * @param idUser El identificador del usuario dueño del historial.
+     */
+    public ViewedIndex(int idUser) {
+        this.idUser = idUser;
+        for (int i = 0; i < bitmaps.length; i++) {
+            bitmaps[i] = new RoaringBitmap();
+        }
+    }
+
+    /**
+     * Obtiene el identificador del usuario dueño del índice.
+     * @return El {@code id} del usuario.
+     */
+    public int getIdUser() {
+        return idUser;
+    }
+
+    /**
+     * Indica si el usuario ya vio o leyó un elemento.
+     * @param material  El nombre del material ({@link com.anncode.amazonviewer.db.DataBase.MaterialNames}).
+     * @param idElement El identificador del elemento.
+     * @return {@code true} si el elemento está registrado como visto.
+     */
+    public synchronized boolean isViewed(String material, int idElement) {
+        return bitmaps[MaterialRegistry.indexOf(material)].contains(idElement);
+    }
+
+    /**
+     * Registra un elemento como visto.
+     * @param material  El nombre del material.
+     * @param idElement El identificador del elemento.
+     * @return {@code true} si el elemento no estaba registrado.
+     */
+    public synchronized boolean markViewed(String material, int idElement) {
+        return bitmaps[MaterialRegistry.indexOf(material)].add(idElement);
+    }
+
+    /**
+     * Registra un elemento como visto a partir del identificador de material de la base de datos.
+     * Los materiales desconocidos se ignoran.
+     * @param idMaterial El {@code id_material} de la tabla {@code viewed}.
+     * @param idElement  El identificador del elemento.
+     */
+    synchronized void markViewed(int idMaterial, int idElement) {
+        int i = MaterialRegistry.getInstance().indexOfId(idMaterial);
+        if (i >= 0) {
+            bitmaps[i].add(idElement);
+        }
+    }
+
+    /**
+     * Cuenta cuántos elementos de un material ha visto el usuario.
+     * @param material El nombre del material.
+     * @return La cantidad de elementos vistos.
+     */
+    public synchronized int countViewed(String material) {
+        return bitmaps[MaterialRegistry.indexOf(material)].getCardinality();
+    }
+
+    /**
+     * Cuenta cuántos de los elementos indicados ha visto el usuario
+     * (por ejemplo, los capítulos de una serie).
+     * @param material   El nombre del material.
+     * @param candidates Los identificadores a comprobar.
+     * @return La cardinalidad de la intersección.
+     */
+    public synchronized int countViewed(String material, RoaringBitmap candidates) {
+        return bitmaps[MaterialRegistry.indexOf(material)].andCardinality(candidates);
+    }
+
+    /**
+     * Obtiene cuáles de los elementos indicados ha visto el usuario.
+     * @param material   El nombre del material.
+     * @param candidates Los identificadores a comprobar.
+     * @return Un nuevo {@link RoaringBitmap} con la intersección.
+     */
+    public synchronized RoaringBitmap intersect(String material, RoaringBitmap candidates) {
+        return RoaringBitmap.and(bitmaps[MaterialRegistry.indexOf(material)], candidates);
+    }
+
+    /**
+     * Copia los elementos vistos de un material. La copia no cambia con las nuevas
+     * visualizaciones, así que varios hilos pueden consultarla sin pasar por el candado
+     * del índice (por ejemplo, al renderizar el reporte en paralelo).
+     * @param material El nombre del material.
+     * @return Un nuevo {@link RoaringBitmap} con los identificadores vistos.
+     */
+    public synchronized RoaringBitmap copyOf(String material) {
+        RoaringBitmap copy = new RoaringBitmap();
+        bitmaps[MaterialRegistry.indexOf(material)].forEach(copy::add);
+        return copy;
+    }
+
+    /**
+     * Estima la memoria ocupada por el índice.
+     * @return Tamaño aproximado en bytes.
+     */
+    public synchronized long getSizeInBytes() {
+        long bytes = 0;
+        for (RoaringBitmap bitmap : bitmaps) {
+            bytes += bitmap.getSizeInBytes();
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,254 @@
+package com.anncode.amazonviewer.dao;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Bitácora local, de sólo anexado, de los eventos de visualización pendientes.
+ * <p>
+ * Cada {@link ViewedEvent} se escribe en un archivo mapeado en memoria antes de
+ * encolarse para su inserción en la tabla {@code viewed}. Si MySQL está lento o caído,
+ * o el proceso termina antes de vaciar la {@link ViewedWriteQueue}, los eventos siguen
+ * en la bitácora y se reproducen en el siguiente arranque. Cuando la cola confirma la
+ * escritura de todo lo anexado, la bitácora se trunca lógicamente y vuelve a empezar.
+ * </p>
+ * <p>
+ * Con tráfico constante la cola rara vez alcanza a confirmarlo todo, así que la bitácora
+ * también se compacta: cuando la parte confirmada ocupa al menos la mitad del mapeo y
+ * supera a la pendiente, los registros pendientes se copian al inicio. Las posiciones que
+ * devuelve {@link #append(ViewedEvent)} son lógicas y siguen siendo válidas tras compactar.
+ * </p>
+ * <p>
+ * Formato: una cabecera de {@value #HEADER_SIZE} bytes (número mágico, versión, posición
+ * de escritura y posición confirmada) seguida de registros fijos de {@value #RECORD_SIZE}
+ * bytes ({@code id_user}, {@code id_material}, {@code id_element}, fecha y un CRC32 de
+ * los campos anteriores). Un registro con CRC inválido (escritura interrumpida) marca
+ * el final de los datos recuperables.
+ * </p>
+ * @author Luigi
+ * @version 1.4
+ * @since 2026-10-17
+ */
+public final class ViewedJournal {
+
+    /** Ruta del archivo de bitácora. */
+    public static final String PATH = System.getProperty("amazonviewer.journal.path", "viewed.journal");
+    /** Tamaño inicial del mapeo (bytes). */
+    static final int INITIAL_SIZE = 1 << 20;
+    /**
+     * Tamaño máximo del mapeo (bytes). Sólo se alcanza si los eventos pendientes (no los
+     * confirmados) lo llenan; entonces {@link #append(ViewedEvent)} falla.
+     */
+    static final int MAX_SIZE = Integer.getInteger("amazonviewer.journal.maxBytes", 64 << 20);
+
+    static final int MAGIC = 0x41565631; // "AVV1"
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 24;
+    static final int RECORD_SIZE = 24;
+
+    private static final int OFFSET_WRITE = 8;
+    private static final int OFFSET_ACK = 16;
+
+    private final FileChannel channel;
+    private MappedByteBuffer buffer;
+    private long writePosition;
+    private long ackPosition;
+    /** Bytes descartados al truncar o compactar desde la apertura; convierte posiciones lógicas en físicas. */
+    private long discarded;
+    private final CRC32 crc = new CRC32();
+
+    /**
+     * Abre (o crea) la bitácora en la ruta indicada.
+     * @param path La ruta del archivo.
+     * @throws IOException Si el archivo no se puede abrir o mapear.
+     */
+    public ViewedJournal(Path path) throws IOException {
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        long size = Math.max(INITIAL_SIZE, channel.size());
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+
+        if (buffer.getInt(0) == MAGIC && buffer.getInt(4) == VERSION) {
+            writePosition = buffer.getLong(OFFSET_WRITE);
+            ackPosition = buffer.getLong(OFFSET_ACK);
+            if (writePosition < HEADER_SIZE || writePosition > size || ackPosition < HEADER_SIZE || ackPosition > writePosition) {
+                System.err.println("Bitácora de visualizaciones con cabecera inválida; se reinicia: " + path);
+                reset();
+            }
+        } else {
+            buffer.putInt(0, MAGIC);
+            buffer.putInt(4, VERSION);
+            reset();
+        }
+    }
+
+    /**
+     * Abre la bitácora en la ruta por defecto ({@link #PATH}).
+     * @return La bitácora abierta.
+     * @throws IOException Si el archivo no se puede abrir o mapear.
+     */
+    public static ViewedJournal open() throws IOException {
+        return new ViewedJournal(Paths.get(PATH));
+    }
+
+    /**
+     * Anexa un evento a la bitácora.
+     * @param event El evento a registrar.
+     * @return La posición final (lógica) del registro, que se usa para confirmarlo con
+     * {@link #acknowledge(long)}.
+     * @throws IOException Si los eventos pendientes llenan {@link #MAX_SIZE} o el mapeo no se pudo ampliar.
+     */
+    public synchronized long append(ViewedEvent event) throws IOException {
+        if (writePosition + RECORD_SIZE > buffer.capacity()) {
+            if (ackPosition - HEADER_SIZE >= writePosition - ackPosition) {
+                compact();
+            } else {
+                grow();
+            }
+        }
+        int pos = (int) writePosition;
+        buffer.putInt(pos, event.getIdUser());
+        buffer.putInt(pos + 4, event.getIdMaterial());
+        buffer.putInt(pos + 8, event.getIdElement());
+        buffer.putLong(pos + 12, event.getTimestamp());
+        buffer.putInt(pos + 20, checksum(pos));
+
+        // La cabecera se actualiza después del registro: un corte a mitad no lo expone
+        writePosition += RECORD_SIZE;
+        buffer.putLong(OFFSET_WRITE, writePosition);
+        return discarded + writePosition;
+    }
+
+    /**
+     * Confirma que todos los eventos hasta la posición indicada ya están en la base de datos.
+     * Si se confirmó todo lo anexado, la bitácora se trunca; si la parte confirmada ya
+     * ocupa la mitad del mapeo y supera a la pendiente, se compacta.
+     * @param position La posición devuelta por {@link #append(ViewedEvent)} para el último evento escrito.
+     */
+    public synchronized void acknowledge(long position) {
+        long physical = position - discarded;
+        if (physical <= ackPosition || physical > writePosition) {
+            return;
+        }
+        ackPosition = physical;
+        if (ackPosition == writePosition) {
+            discarded += writePosition - HEADER_SIZE;
+            reset();
+            return;
+        }
+        buffer.putLong(OFFSET_ACK, ackPosition);
+
+        long reclaimable = ackPosition - HEADER_SIZE;
+        if (reclaimable >= buffer.capacity() / 2 && reclaimable >= writePosition - ackPosition) {
+            compact();
+        }
+    }
+
+    /**
+     * Lee los eventos anexados que aún no fueron confirmados, con su posición en la bitácora.
+     * @return Los eventos pendientes, en orden de anexado.
+     */
+    public synchronized List<ViewedEvent> readPending() {
+        List<ViewedEvent> pending = new ArrayList<>();
+        for (long p = ackPosition; p + RECORD_SIZE <= writePosition; p += RECORD_SIZE) {
+            int pos = (int) p;
+            if (buffer.getInt(pos + 20) != checksum(pos)) {
+                System.err.println("Registro corrupto en la bitácora en la posición " + pos + "; se descarta el resto");
+                writePosition = p;
+                buffer.putLong(OFFSET_WRITE, writePosition);
+                break;
+            }
+            pending.add(new ViewedEvent(
+                    buffer.getInt(pos),
+                    buffer.getInt(pos + 4),
+                    buffer.getInt(pos + 8),
+                    buffer.getLong(pos + 12),
+                    discarded + p + RECORD_SIZE));
+        }
+        return pending;
+    }
+
+    /**
+     * Obtiene la cantidad de eventos anexados y aún no confirmados.
+     * @return El número de registros pendientes.
+     */
+    public synchronized int getPendingCount() {
+        return (int) ((writePosition - ackPosition) / RECORD_SIZE);
+    }
+
+    /**
+     * Fuerza la escritura a disco de las páginas modificadas del mapeo.
+     */
+    public synchronized void force() {
+        buffer.force();
+    }
+
+    /**
+     * Fuerza la bitácora a disco y cierra el archivo.
+     */
+    public synchronized void close() {
+        try {
+            buffer.force();
+            channel.close();
+        } catch (IOException e) {
+            System.err.println("Error al cerrar la bitácora de visualizaciones: " + e.getMessage());
+        }
+    }
+
+    private void reset() {
+        writePosition = HEADER_SIZE;
+        ackPosition = HEADER_SIZE;
+        buffer.putLong(OFFSET_WRITE, writePosition);
+        buffer.putLong(OFFSET_ACK, ackPosition);
+    }
+
+    /**
+     * Mueve los registros pendientes al inicio del mapeo y descarta los confirmados.
+     * <p>
+     * Sólo se invoca si la parte confirmada es al menos tan grande como la pendiente, de
+     * modo que la copia no pisa los registros de origen. La cabecera se actualiza después
+     * de copiar, primero la posición confirmada y luego la de escritura: un corte entre
+     * ambas sólo hace que se reproduzcan eventos ya escritos, nunca que se pierdan.
+     * </p>
+     */
+    private void compact() {
+        int from = (int) ackPosition;
+        int length = (int) (writePosition - ackPosition);
+
+        ByteBuffer source = buffer.duplicate();
+        source.position(from).limit(from + length);
+        ByteBuffer target = buffer.duplicate();
+        target.position(HEADER_SIZE);
+        target.put(source);
+
+        discarded += ackPosition - HEADER_SIZE;
+        ackPosition = HEADER_SIZE;
+        writePosition = HEADER_SIZE + length;
+        buffer.putLong(OFFSET_ACK, ackPosition);
+        buffer.putLong(OFFSET_WRITE, writePosition);
+    }
+
+    private void grow() throws IOException {
+        long size = (long) buffer.capacity() * 2;
+        if (size > MAX_SIZE) {
+            throw new IOException("Bitácora de visualizaciones llena (" + getPendingCount() + " eventos pendientes)");
+        }
+        buffer.force();
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+    }
+
+    private int checksum(int pos) {
+        crc.reset();
+        for (int i = 0; i < 20; i++) {
+            crc.update(buffer.get(pos + i));
+        }
+        return (int) crc.getValue();
+    }
+}
@@ -0,0 +1,532 @@
+package com.anncode.amazonviewer.dao;
+
+import com.anncode.amazonviewer.db.ConnectionPool;
+import com.anncode.amazonviewer.db.IDBConnection;
+import com.anncode.amazonviewer.db.NamedQuery;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLTransientException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cola de escritura diferida (<i>write-behind</i>) para la tabla {@code viewed}.
+ * <p>
+ * Las acciones de ver o leer ya no esperan a la base de datos: encolan un
+ * {@link ViewedEvent} y regresan de inmediato. Un hilo de fondo agrupa los eventos
+ * y los inserta con {@link PreparedStatement#addBatch()} cuando se juntan
+ * {@link #BATCH_SIZE} eventos o pasan {@link #FLUSH_INTERVAL_MS} milisegundos
+ * desde el primero, lo que ocurra antes. Con {@code rewriteBatchedStatements=true}
+ * (ver {@link ConnectionPool}) el driver envía cada lote como un único
+ * {@code INSERT} de varias filas.
+ * </p>
+ * <p>
+ * La tabla tiene una llave única por (id_user, id_material, id_element) (ver
+ * {@link com.anncode.amazonviewer.db.ViewedMigration}): volver a ver un elemento no agrega
+ * filas, sino que incrementa {@code view_count} y actualiza la fecha de la última vista.
+ * </p>
+ * <p>
+ * Si la inserción falla, el lote se conserva y se reintenta en el siguiente ciclo. Los
+ * errores de conexión se reintentan sin límite (la bitácora conserva los eventos); otro
+ * error que se repite {@link #MAX_ATTEMPTS} veces hace que el lote se escriba evento por
+ * evento y los que la base de datos vuelva a rechazar se aparten en
+ * {@link #DEAD_LETTER_PATH}, para que un solo evento inválido no detenga la cola.
+ * Al cerrar la aplicación la cola se vacía antes de cerrar el pool de conexiones.
+ * </p>
+ * <p>
+ * Cada evento se anexa a la {@link ViewedJournal} antes de encolarse y se confirma en
+ * ella cuando su lote queda escrito. Al arrancar, los eventos no confirmados de una
+ * ejecución anterior (MySQL caído, cierre abrupto) se reproducen antes que los nuevos.
+ * Si el proceso muere entre el {@code commit} y la confirmación, esos eventos se
+ * reaplican en el siguiente arranque (sólo incrementan {@code view_count} de nuevo).
+ * Un evento que no se puede anexar nunca se encola: se escribe en el momento o se rechaza.
+ * </p>
+ * @author Luigi
+ * @version 1.4
+ * @since 2026-10-17
+ */
+public final class ViewedWriteQueue implements IDBConnection {
+
+    /** Cantidad de eventos que dispara una escritura inmediata. */
+    public static final int BATCH_SIZE = Integer.getInteger("amazonviewer.viewed.batchSize", 200);
+    /** Tiempo máximo (ms) que un evento espera en la cola antes de escribirse. */
+    public static final long FLUSH_INTERVAL_MS = Long.getLong("amazonviewer.viewed.flushIntervalMs", 500L);
+    /** Capacidad de la cola; al llenarse, quien encola espera (contrapresión). */
+    public static final int CAPACITY = Integer.getInteger("amazonviewer.viewed.capacity", 100_000);
+    /** Intentos fallidos por errores de la sentencia antes de apartar los eventos inválidos. */
+    public static final int MAX_ATTEMPTS = Integer.getInteger("amazonviewer.viewed.maxAttempts", 5);
+    /** Archivo donde se apartan, uno por línea, los eventos que no se pudieron escribir. */
+    public static final String DEAD_LETTER_PATH = System.getProperty("amazonviewer.viewed.deadLetterPath", "viewed.deadletter");
+    /** Espera (ms) antes de reintentar un lote fallido. */
+    private static final long RETRY_DELAY_MS = 1_000L;
+
+    private static final ViewedWriteQueue INSTANCE = new ViewedWriteQueue();
+
+    private final BlockingQueue<ViewedEvent> queue = new LinkedBlockingQueue<>(CAPACITY);
+    /** Lote en curso; sólo se modifica bajo {@link #flushLock}. */
+    private final List<ViewedEvent> batch = new ArrayList<>(BATCH_SIZE);
+    private final Object flushLock = new Object();
+    /** Mantiene el mismo orden de eventos en la bitácora y en la cola. */
+    private final Object appendLock = new Object();
+    private final ViewedJournal journal;
+    private final Thread flusher;
+    private volatile boolean running = true;
+
+    private final AtomicLong enqueued = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong flushes = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+    private final AtomicLong deadLettered = new AtomicLong();
+    /** Fallos consecutivos del lote en curso por errores de la sentencia; bajo {@link #flushLock}. */
+    private int attempts;
+    private final AtomicLong flushNanos = new AtomicLong();
+    private volatile long lastFlushNanos;
+
+    private ViewedWriteQueue() {
+        journal = openJournal();
+        if (journal != null) {
+            List<ViewedEvent> pending = journal.readPending();
+            if (!pending.isEmpty()) {
+                System.out.println(">>> Reproduciendo " + pending.size() + " visualizaciones pendientes de la bitácora.");
+                batch.addAll(pending);
+            }
+        }
+
+        flusher = new Thread(this::run, "amazonviewer-viewed-writer");
+        flusher.setDaemon(true);
+        flusher.start();
+        ConnectionPool.getInstance().addShutdownTask(this::shutdown);
+    }
+
+    /**
+     * Obtiene la instancia única de la cola.
+     * @return La cola de escritura de la aplicación.
+     */
+    public static ViewedWriteQueue getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Encola un evento de visualización para su escritura diferida.
+     * <p>
+     * Sólo se encolan eventos anexados a la bitácora. Si la bitácora está llena, primero
+     * se vacía la cola en el hilo que llama para liberar espacio; si aun así no se puede
+     * anexar (o no hay bitácora), el evento se escribe directamente en la base de datos.
+     * </p>
+     * @param event El evento a registrar.
+     * @throws RuntimeException Si el evento no se pudo anexar a la bitácora ni escribir.
+     */
+    public void enqueue(ViewedEvent event) {
+        try {
+            synchronized (appendLock) {
+                ViewedEvent journaled = journaled(event);
+                if (journaled == null) {
+                    writeThrough(event);
+                    return;
+                }
+                queue.put(journaled);
+            }
+            enqueued.incrementAndGet();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            System.err.println("Interrumpido al registrar visualización: " + event);
+        }
+    }
+
+    /**
+     * Anexa el evento a la bitácora. Debe llamarse con {@link #appendLock} tomado.
+     * @return El evento con su posición en la bitácora, o {@code null} si no se pudo anexar.
+     */
+    private ViewedEvent journaled(ViewedEvent event) {
+        if (journal == null) {
+            return null;
+        }
+        try {
+            return event.withJournalPosition(journal.append(event));
+        } catch (IOException full) {
+            // Escribir lo pendiente confirma y compacta la bitácora
+            if (flush()) {
+                try {
+                    return event.withJournalPosition(journal.append(event));
+                } catch (IOException e) {
+                    full = e;
+                }
+            }
+            System.err.println("No se pudo anexar a la bitácora: " + full.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Escribe un evento sin pasar por la cola, cuando la bitácora no puede protegerlo.
+     * @throws RuntimeException Si la escritura falla: el evento no quedó registrado.
+     */
+    private void writeThrough(ViewedEvent event) {
+        try {
+            insert(Collections.singletonList(event));
+            enqueued.incrementAndGet();
+            written.incrementAndGet();
+        } catch (SQLException e) {
+            throw new RuntimeException("Fallo crítico: no se pudo registrar la visualización " + event, e);
+        }
+    }
+
+    private static ViewedJournal openJournal() {
+        try {
+            return ViewedJournal.open();
+        } catch (IOException e) {
+            System.err.println("Bitácora de visualizaciones no disponible (" + ViewedJournal.PATH + "): " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Escribe de inmediato, en el hilo que llama, todos los eventos encolados hasta ahora.
+     * Útil antes de consultar la tabla {@code viewed} directamente.
+     * @return {@code true} si no quedaron eventos pendientes por un error de escritura.
+     */
+    public boolean flush() {
+        synchronized (flushLock) {
+            queue.drainTo(batch);
+            return writeBatch();
+        }
+    }
+
+    /**
+     * Detiene el hilo de escritura y vacía la cola.
+     */
+    public void shutdown() {
+        running = false;
+        flusher.interrupt();
+        try {
+            flusher.join(FLUSH_INTERVAL_MS * 4);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (!flush()) {
+            System.err.println("Quedaron " + getQueueDepth() + " visualizaciones sin registrar" +
+                    (journal != null ? "; se reproducirán desde la bitácora en el próximo arranque" : ""));
+        }
+        if (journal != null) {
+            journal.close();
+        }
+    }
+
+    private void run() {
+        while (running) {
+            try {
+                ViewedEvent first = queue.poll(FLUSH_INTERVAL_MS, TimeUnit.MILLISECONDS);
+                synchronized (flushLock) {
+                    if (first != null) {
+                        batch.add(first);
+                    }
+                    if (batch.isEmpty()) {
+                        continue;
+                    }
+                }
+
+                // Esperamos a completar el lote o a que venza el intervalo
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(FLUSH_INTERVAL_MS);
+                while (true) {
+                    synchronized (flushLock) {
+                        queue.drainTo(batch, BATCH_SIZE - Math.min(BATCH_SIZE, batch.size()));
+                        if (batch.size() >= BATCH_SIZE) {
+                            break;
+                        }
+                    }
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        break;
+                    }
+                    ViewedEvent next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next != null) {
+                        synchronized (flushLock) {
+                            batch.add(next);
+                        }
+                    }
+                }
+
+                boolean ok;
+                synchronized (flushLock) {
+                    ok = writeBatch();
+                }
+                if (!ok) {
+                    Thread.sleep(RETRY_DELAY_MS);
+                }
+            } catch (InterruptedException e) {
+                // shutdown() interrumpe el hilo; el vaciado final lo hace quien cierra
+                if (!running) {
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Inserta el lote actual en una transacción y lo confirma en la bitácora.
+     * Debe llamarse con {@link #flushLock} tomado.
+     * @return {@code true} si el lote se escribió (o estaba vacío).
+     */
+    private boolean writeBatch() {
+        if (batch.isEmpty()) {
+            return true;
+        }
+        if (journal != null) {
+            journal.force();
+        }
+        long start = System.nanoTime();
+        try {
+            insert(batch);
+            written.addAndGet(batch.size());
+        } catch (SQLException | RuntimeException e) {
+            failures.incrementAndGet();
+            if (!isPermanent(e) || ++attempts < MAX_ATTEMPTS) {
+                System.err.println("Error al registrar " + batch.size() + " visualizaciones (se reintentará): " + e.getMessage());
+                return false;
+            }
+            System.err.println("El lote de " + batch.size() + " visualizaciones falló " + attempts +
+                    " veces; se escribirá evento por evento: " + e.getMessage());
+            if (!isolate()) {
+                return false;
+            }
+        }
+        attempts = 0;
+
+        long elapsed = System.nanoTime() - start;
+        lastFlushNanos = elapsed;
+        flushNanos.addAndGet(elapsed);
+        flushes.incrementAndGet();
+        acknowledge(batch);
+        batch.clear();
+        return true;
+    }
+
+    /**
+     * Confirma en la bitácora eventos ya escritos o apartados.
+     * La cola es FIFO: confirmar el último evento confirma todos los anteriores.
+     */
+    private void acknowledge(List<ViewedEvent> events) {
+        if (journal == null) {
+            return;
+        }
+        long position = -1L;
+        for (ViewedEvent event : events) {
+            position = Math.max(position, event.getJournalPosition());
+        }
+        journal.acknowledge(position);
+    }
+
+    /**
+     * Marca en el índice de un usuario los eventos suyos que aún no llegaron a la tabla
+     * {@code viewed}: los reproducidos de la bitácora al arrancar y los encolados.
+     * <p>
+     * Se invoca al cargar el historial de una sesión, de modo que lo visto en una
+     * ejecución anterior aparece como visto aunque todavía no se haya escrito.
+     * </p>
+     * @param index El índice recién cargado de la base de datos.
+     */
+    void applyPending(ViewedIndex index) {
+        synchronized (flushLock) {
+            for (ViewedEvent event : batch) {
+                apply(index, event);
+            }
+            for (ViewedEvent event : queue) {
+                apply(index, event);
+            }
+        }
+    }
+
+    private static void apply(ViewedIndex index, ViewedEvent event) {
+        if (event.getIdUser() == index.getIdUser()) {
+            index.markViewed(event.getIdMaterial(), event.getIdElement());
+        }
+    }
+
+    /**
+     * Inserta eventos en una transacción.
+     * @param events Los eventos a escribir.
+     * @throws SQLException Si la inserción falla; en ese caso se revierte completa.
+     */
+    private void insert(List<ViewedEvent> events) throws SQLException {
+        try (Connection connection = connectToDB()) {
+            connection.setAutoCommit(false);
+            PreparedStatement pstmt = prepare(connection, NamedQuery.VIEWED_UPSERT);
+            try {
+                // Tras una reproducción el lote puede superar BATCH_SIZE: se envía por tramos
+                int pending = 0;
+                for (ViewedEvent event : events) {
+                    pstmt.setInt(1, event.getIdMaterial());
+                    pstmt.setInt(2, event.getIdElement());
+                    pstmt.setInt(3, event.getIdUser());
+                    pstmt.setTimestamp(4, new Timestamp(event.getTimestamp()));
+                    pstmt.addBatch();
+                    if (++pending == BATCH_SIZE) {
+                        pstmt.executeBatch();
+                        pending = 0;
+                    }
+                }
+                if (pending > 0) {
+                    pstmt.executeBatch();
+                }
+                connection.commit();
+            } catch (SQLException e) {
+                // La sentencia sigue en caché: no debe arrastrar el lote fallido
+                pstmt.clearBatch();
+                connection.rollback();
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Escribe el lote evento por evento y aparta en {@link #DEAD_LETTER_PATH} los que fallan
+     * por un error de la sentencia.
+     * <p>
+     * Si la base de datos deja de responder a mitad de camino, la escritura se detiene: los
+     * eventos ya resueltos se confirman en la bitácora y los restantes siguen en el lote,
+     * para reintentarse como cualquier lote fallido. Sólo se aparta un evento que la base
+     * de datos rechazó por sí mismo y cuya línea quedó escrita en el archivo.
+     * </p>
+     * @return {@code true} si todos los eventos del lote quedaron escritos o apartados.
+     */
+    private boolean isolate() {
+        int settled = 0;
+        for (ViewedEvent event : batch) {
+            try {
+                insert(Collections.singletonList(event));
+                written.incrementAndGet();
+            } catch (SQLException | RuntimeException e) {
+                if (!isPermanent(e)) {
+                    System.err.println("Se interrumpe la escritura evento por evento (se reintentará): " + e.getMessage());
+                    break;
+                }
+                if (!deadLetter(event, e)) {
+                    break;
+                }
+            }
+            settled++;
+        }
+        List<ViewedEvent> done = batch.subList(0, settled);
+        acknowledge(done);
+        done.clear();
+        return batch.isEmpty();
+    }
+
+    /**
+     * Anexa un evento rechazado a {@link #DEAD_LETTER_PATH}.
+     * @return {@code true} si la línea quedó escrita; si no, el evento debe conservarse.
+     */
+    private boolean deadLetter(ViewedEvent event, Exception cause) {
+        String line = event.getIdUser() + "," + event.getIdMaterial() + "," + event.getIdElement() + "," +
+                event.getTimestamp() + "," + String.valueOf(cause.getMessage()).replace('\n', ' ') + "\n";
+        try {
+            Files.write(Paths.get(DEAD_LETTER_PATH), line.getBytes(StandardCharsets.UTF_8),
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND, StandardOpenOption.SYNC);
+            deadLettered.incrementAndGet();
+            System.err.println("Visualización apartada en " + DEAD_LETTER_PATH + ": " + event);
+            return true;
+        } catch (IOException e) {
+            System.err.println("No se pudo apartar la visualización " + event + ": " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Indica si un error se repetirá con los mismos datos.
+     * <p>
+     * Sólo los errores de conexión se reintentan sin límite, hasta que la base de datos
+     * vuelva: estado SQL {@code 08xxx}, errores transitorios (incluido el tiempo de espera
+     * del pool) y los errores del pool sin estado SQL, también cuando llegan envueltos por
+     * {@link #connectToDB()}. Cualquier otra excepción, incluidas las {@link RuntimeException}
+     * de un evento inválido, cuenta contra {@link #MAX_ATTEMPTS}.
+     * </p>
+     */
+    private static boolean isPermanent(Exception e) {
+        Throwable cause = e instanceof SQLException ? e : e.getCause();
+        if (!(cause instanceof SQLException)) {
+            return true;
+        }
+        if (cause instanceof SQLTransientException) {
+            return false;
+        }
+        String state = ((SQLException) cause).getSQLState();
+        return state != null && !state.startsWith("08");
+    }
+
+    /** @return Cantidad de eventos esperando ser escritos (cola + lote en curso). */
+    public int getQueueDepth() {
+        synchronized (flushLock) {
+            return queue.size() + batch.size();
+        }
+    }
+
+    /** @return Cantidad de eventos anexados a la bitácora y aún no confirmados. */
+    public int getJournalPending() {
+        return journal == null ? 0 : journal.getPendingCount();
+    }
+
+    /** @return Cantidad total de eventos encolados. */
+    public long getEnqueuedCount() {
+        return enqueued.get();
+    }
+
+    /** @return Cantidad total de eventos escritos en la base de datos. */
+    public long getWrittenCount() {
+        return written.get();
+    }
+
+    /** @return Cantidad de lotes escritos. */
+    public long getFlushCount() {
+        return flushes.get();
+    }
+
+    /** @return Cantidad de intentos de escritura fallidos. */
+    public long getFailureCount() {
+        return failures.get();
+    }
+
+    /** @return Cantidad de eventos apartados en {@link #DEAD_LETTER_PATH}. */
+    public long getDeadLetterCount() {
+        return deadLettered.get();
+    }
+
+    /** @return Duración (ms) de la última escritura de un lote. */
+    public double getLastFlushMillis() {
+        return lastFlushNanos / 1_000_000.0;
+    }
+
+    /** @return Duración media (ms) de la escritura de un lote. */
+    public double getAverageFlushMillis() {
+        long count = flushes.get();
+        return count == 0 ? 0 : flushNanos.get() / 1_000_000.0 / count;
+    }
+
+    /**
+     * Resume las estadísticas de la cola en una línea legible.
+     * @return Cadena con profundidad de la cola y latencia de escritura.
+     */
+    public String getStats() {
+        return String.format("ViewedWriteQueue[pendientes=%d, bitacora=%d, encolados=%d, escritos=%d, lotes=%d, fallos=%d, apartados=%d, " +
+                        "ultimo_lote_ms=%.2f, promedio_lote_ms=%.2f]",
+                getQueueDepth(), getJournalPending(), getEnqueuedCount(), getWrittenCount(), getFlushCount(), getFailureCount(),
+                getDeadLetterCount(), getLastFlushMillis(), getAverageFlushMillis());
+    }
+
+    @Override
+    public String toString() {
+        return getStats();
+    }
+}
@@ -0,0 +1,560 @@
+package com.anncode.amazonviewer.db;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pool acotado de conexiones JDBC utilizado por {@link IDBConnection#connectToDB()}.
+ * <p>
+ * Evita pagar el <i>handshake</i> completo de MySQL en cada llamada a los DAOs:
+ * las conexiones físicas se reutilizan y el {@code close()} que ejecutan los
+ * bloques <i>try-with-resources</i> las devuelve al pool en lugar de cerrarlas.
+ * </p>
+ * <p>
+ * El pool valida las conexiones que llevan tiempo ociosas antes de entregarlas,
+ * expulsa periódicamente las que superan el tiempo máximo de inactividad, limita
+ * el tiempo de espera para obtener una conexión y expone estadísticas de uso
+ * (activas, ociosas y esperas).
+ * </p>
+ * <p>
+ * Los parámetros se pueden ajustar con propiedades del sistema
+ * ({@code -Damazonviewer.pool.maxSize=20}, etc.).
+ * </p>
+ * @author Luigi
+ * @version 1.4
+ * @since 2026-10-17
+ */
+public final class ConnectionPool {
+
+    /** Número máximo de conexiones físicas abiertas simultáneamente. */
+    public static final int MAX_SIZE = Integer.getInteger("amazonviewer.pool.maxSize", 10);
+    /** Número mínimo de conexiones ociosas que la expulsión respeta. */
+    public static final int MIN_IDLE = Integer.getInteger("amazonviewer.pool.minIdle", 1);
+    /** Tiempo máximo (ms) que un hilo espera por una conexión libre. */
+    public static final long ACQUIRE_TIMEOUT_MS = Long.getLong("amazonviewer.pool.acquireTimeoutMs", 5_000L);
+    /** Tiempo (ms) de inactividad tras el cual una conexión ociosa se cierra. */
+    public static final long IDLE_TIMEOUT_MS = Long.getLong("amazonviewer.pool.idleTimeoutMs", 300_000L);
+    /** Tiempo (ms) de inactividad a partir del cual se valida la conexión antes de entregarla. */
+    public static final long VALIDATION_INTERVAL_MS = Long.getLong("amazonviewer.pool.validationIntervalMs", 30_000L);
+    /** Tiempo (s) máximo que se concede a {@link Connection#isValid(int)}. */
+    public static final int VALIDATION_TIMEOUT_S = 2;
+
+    /**
+     * Opciones del driver que el pool agrega a {@link DBConfig#FULL_URL}:
+     * {@code rewriteBatchedStatements} convierte los lotes de {@code INSERT} en una sola
+     * sentencia de varias filas, {@code useServerPrepStmts} compila las sentencias en
+     * el servidor, para que el {@link StatementCache} evite volver a analizarlas, y
+     * {@code useCursorFetch} permite recorrer resultados por bloques con un {@code fetchSize} positivo.
+     */
+    static final String[] DRIVER_OPTIONS = {
+            "rewriteBatchedStatements=true", "useServerPrepStmts=true", "useCursorFetch=true"};
+
+    private static final ConnectionPool INSTANCE = create(DatabaseBackend.get());
+
+    private final String url;
+    private final String user;
+    private final String password;
+    /** {@code true} si el motor es embebido: sus tablas se crean con la primera conexión física. */
+    private final boolean embedded;
+    /** El esquema se prepara (embebido) o se verifica (MySQL) con la primera conexión física. */
+    private volatile boolean schemaPending = true;
+
+    /** Conexiones ociosas; se usa como pila (LIFO) para mantener calientes las más recientes. */
+    private final ArrayDeque<PooledConnection> idle = new ArrayDeque<>();
+    private final Semaphore permits = new Semaphore(MAX_SIZE, true);
+    private final ScheduledExecutorService evictor;
+    /** Tareas que deben ejecutarse antes de cerrar las conexiones (p. ej. vaciar colas). */
+    private final List<Runnable> shutdownTasks = new CopyOnWriteArrayList<>();
+
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicInteger total = new AtomicInteger();
+    private final AtomicLong acquired = new AtomicLong();
+    private final AtomicLong waits = new AtomicLong();
+    private final AtomicLong waitNanos = new AtomicLong();
+    private final AtomicLong timeouts = new AtomicLong();
+    private final AtomicLong created = new AtomicLong();
+    private final AtomicLong evicted = new AtomicLong();
+    private volatile boolean shutdown;
+
+    private ConnectionPool(String url, String user, String password, boolean embedded) {
+        this.url = url;
+        this.user = user;
+        this.password = password;
+        this.embedded = embedded;
+
+        this.evictor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "amazonviewer-pool-evictor");
+            t.setDaemon(true);
+            return t;
+        });
+        long period = Math.max(1_000L, IDLE_TIMEOUT_MS / 2);
+        evictor.scheduleWithFixedDelay(this::evictIdle, period, period, TimeUnit.MILLISECONDS);
+        Runtime.getRuntime().addShutdownHook(new Thread(this::shutdown, "amazonviewer-pool-shutdown"));
+    }
+
+    /**
+     * Obtiene la instancia única del pool de la aplicación.
+     * @return El pool configurado con las credenciales de {@link DBConfig}.
+     */
+    public static ConnectionPool getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Crea el pool del motor de base de datos configurado.
+     * Las opciones de {@link #DRIVER_OPTIONS} son propias del driver de MySQL y no se
+     * agregan a la URL del motor embebido.
+     */
+    private static ConnectionPool create(DatabaseBackend backend) {
+        String url = backend.isEmbedded() ? backend.url() : withDriverOptions(backend.url());
+        return new ConnectionPool(url, backend.user(), backend.password(), backend.isEmbedded());
+    }
+
+    /**
+     * Agrega a la URL de conexión las opciones del driver que necesita la aplicación,
+     * respetando las que ya estén definidas en {@link DBConfig}.
+     */
+    private static String withDriverOptions(String url) {
+        StringBuilder sb = new StringBuilder(url);
+        for (String option : DRIVER_OPTIONS) {
+            String key = option.substring(0, option.indexOf('='));
+            if (!url.contains(key)) {
+                sb.append(sb.indexOf("?") < 0 ? '?' : '&').append(option);
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Registra una tarea que se ejecutará al cerrar el pool, antes de cerrar las conexiones.
+     * <p>
+     * Permite que los componentes con escrituras pendientes las completen mientras
+     * el pool todavía entrega conexiones. Las tareas se ejecutan en orden de registro.
+     * </p>
+     * @param task La tarea a ejecutar.
+     */
+    public void addShutdownTask(Runnable task) {
+        shutdownTasks.add(task);
+    }
+
+    /**
+     * Entrega una conexión del pool, creando una nueva si no hay ociosas y no se
+     * ha alcanzado {@link #MAX_SIZE}.
+     * <p>
+     * La conexión devuelta debe cerrarse (idealmente con <i>try-with-resources</i>);
+     * al hacerlo vuelve al pool en lugar de cerrarse físicamente.
+     * </p>
+     * @return Una {@link Connection} válida.
+     * @throws SQLTimeoutException Si no se libera ninguna conexión en {@link #ACQUIRE_TIMEOUT_MS}.
+     * @throws SQLException Si el pool está cerrado o no se puede abrir la conexión física.
+     */
+    public Connection getConnection() throws SQLException {
+        if (shutdown) {
+            throw new SQLException("El pool de conexiones está cerrado");
+        }
+
+        if (!permits.tryAcquire()) {
+            waits.incrementAndGet();
+            long start = System.nanoTime();
+            boolean ok;
+            try {
+                ok = permits.tryAcquire(ACQUIRE_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SQLException("Interrumpido mientras se esperaba una conexión", e);
+            } finally {
+                waitNanos.addAndGet(System.nanoTime() - start);
+            }
+            if (!ok) {
+                timeouts.incrementAndGet();
+                throw new SQLTimeoutException("Tiempo de espera agotado (" + ACQUIRE_TIMEOUT_MS
+                        + " ms) para obtener una conexión. " + getStats());
+            }
+        }
+
+        try {
+            PooledConnection pooled = takeIdle();
+            if (pooled == null) {
+                pooled = open();
+            }
+            active.incrementAndGet();
+            acquired.incrementAndGet();
+            return pooled.checkout();
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Extrae una conexión ociosa válida, descartando las que no superan la validación.
+     */
+    private PooledConnection takeIdle() {
+        while (true) {
+            PooledConnection candidate;
+            synchronized (idle) {
+                candidate = idle.pollFirst();
+            }
+            if (candidate == null) {
+                return null;
+            }
+            if (candidate.isUsable()) {
+                return candidate;
+            }
+            discard(candidate);
+        }
+    }
+
+    private PooledConnection open() throws SQLException {
+        Connection physical = DriverManager.getConnection(url, user, password);
+        if (schemaPending) {
+            createSchema(physical);
+        }
+        PooledConnection pooled;
+        try {
+            pooled = new PooledConnection(physical);
+        } catch (SQLException e) {
+            physical.close();
+            throw e;
+        }
+        total.incrementAndGet();
+        created.incrementAndGet();
+        return pooled;
+    }
+
+    /**
+     * Prepara el esquema antes de entregar la primera conexión.
+     * <p>
+     * En la base de datos embebida crea las tablas y migra {@code viewed}. En MySQL no
+     * ejecuta DDL: sólo verifica con {@link ViewedMigration#check(Connection)} que
+     * {@code viewed} esté migrada, porque la migración (que elimina duplicados) es un paso
+     * explícito de despliegue. Si la verificación falla, ninguna conexión se entrega y el
+     * error indica el comando a ejecutar.
+     * </p>
+     */
+    private synchronized void createSchema(Connection physical) throws SQLException {
+        if (!schemaPending) {
+            return;
+        }
+        try {
+            if (embedded) {
+                EmbeddedSchema.create(physical);
+                ViewedMigration.apply(physical);
+            } else {
+                ViewedMigration.check(physical);
+            }
+        } catch (SQLException e) {
+            physical.close();
+            // Sin estado SQL: quien reintenta lo trata como un fallo de la base de datos, no del dato
+            throw new SQLException("No se pudo preparar el esquema: " + e.getMessage(), e);
+        }
+        schemaPending = false;
+        System.out.println(embedded ? ">>> Esquema embebido listo en " + url : ">>> Esquema verificado en " + url);
+    }
+
+    /**
+     * Devuelve una conexión al pool. Si quedó en un estado no reutilizable se descarta.
+     */
+    private void release(PooledConnection pooled) {
+        active.decrementAndGet();
+        try {
+            if (shutdown || !pooled.reset()) {
+                discard(pooled);
+            } else {
+                pooled.lastUsed = System.currentTimeMillis();
+                synchronized (idle) {
+                    idle.offerFirst(pooled);
+                }
+            }
+        } finally {
+            permits.release();
+        }
+    }
+
+    private void discard(PooledConnection pooled) {
+        total.decrementAndGet();
+        pooled.closePhysical();
+    }
+
+    /**
+     * Cierra las conexiones ociosas que superan {@link #IDLE_TIMEOUT_MS},
+     * conservando al menos {@link #MIN_IDLE}.
+     */
+    private void evictIdle() {
+        long limit = System.currentTimeMillis() - IDLE_TIMEOUT_MS;
+        ArrayDeque<PooledConnection> expired = new ArrayDeque<>();
+        synchronized (idle) {
+            // Las más antiguas están al final de la pila
+            Iterator<PooledConnection> it = idle.descendingIterator();
+            while (it.hasNext() && idle.size() > MIN_IDLE) {
+                PooledConnection pooled = it.next();
+                if (pooled.lastUsed < limit) {
+                    it.remove();
+                    expired.add(pooled);
+                }
+            }
+        }
+        for (PooledConnection pooled : expired) {
+            evicted.incrementAndGet();
+            discard(pooled);
+        }
+    }
+
+    /**
+     * Ejecuta las tareas de cierre registradas, cierra todas las conexiones ociosas
+     * y rechaza nuevas peticiones. Las conexiones
+     * en uso se cierran físicamente cuando sus dueños las devuelven.
+     */
+    public void shutdown() {
+        if (shutdown) {
+            return;
+        }
+        for (Runnable task : shutdownTasks) {
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                System.err.println("Error en tarea de cierre: " + e.getMessage());
+            }
+        }
+        shutdown = true;
+        evictor.shutdownNow();
+        ArrayDeque<PooledConnection> all;
+        synchronized (idle) {
+            all = new ArrayDeque<>(idle);
+            idle.clear();
+        }
+        all.forEach(this::discard);
+    }
+
+    /** @return Número de conexiones prestadas en este momento. */
+    public int getActiveCount() {
+        return active.get();
+    }
+
+    /** @return Número de conexiones ociosas disponibles en el pool. */
+    public int getIdleCount() {
+        synchronized (idle) {
+            return idle.size();
+        }
+    }
+
+    /** @return Número de conexiones físicas abiertas (activas + ociosas). */
+    public int getTotalCount() {
+        return total.get();
+    }
+
+    /** @return Número de hilos esperando una conexión en este momento. */
+    public int getWaitingThreads() {
+        return permits.getQueueLength();
+    }
+
+    /** @return Número total de préstamos atendidos. */
+    public long getAcquiredCount() {
+        return acquired.get();
+    }
+
+    /** @return Número de préstamos que tuvieron que esperar por una conexión libre. */
+    public long getWaitCount() {
+        return waits.get();
+    }
+
+    /** @return Tiempo total (ms) que los hilos han pasado esperando conexiones. */
+    public long getTotalWaitMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(waitNanos.get());
+    }
+
+    /** @return Número de préstamos que agotaron el tiempo de espera. */
+    public long getTimeoutCount() {
+        return timeouts.get();
+    }
+
+    /** @return Número de conexiones físicas abiertas desde el arranque. */
+    public long getCreatedCount() {
+        return created.get();
+    }
+
+    /** @return Número de conexiones cerradas por inactividad. */
+    public long getEvictedCount() {
+        return evicted.get();
+    }
+
+    /**
+     * Resume las estadísticas del pool en una línea legible.
+     * @return Cadena con conexiones activas, ociosas y estadísticas de espera.
+     */
+    public String getStats() {
+        return "Pool[activas=" + getActiveCount() +
+                ", ociosas=" + getIdleCount() +
+                ", total=" + getTotalCount() + "/" + MAX_SIZE +
+                ", esperando=" + getWaitingThreads() +
+                ", préstamos=" + getAcquiredCount() +
+                ", esperas=" + getWaitCount() +
+                ", espera_total_ms=" + getTotalWaitMillis() +
+                ", timeouts=" + getTimeoutCount() +
+                ", creadas=" + getCreatedCount() +
+                ", expulsadas=" + getEvictedCount() + "]";
+    }
+
+    @Override
+    public String toString() {
+        return getStats();
+    }
+
+    /**
+     * Conexión física administrada por el pool.
+     * <p>
+     * Cada préstamo entrega un <i>proxy</i> distinto para que un {@code close()}
+     * repetido o el uso de un préstamo ya devuelto no afecten al siguiente dueño.
+     * </p>
+     */
+    final class PooledConnection {
+        final Connection physical;
+        final StatementCache statements;
+        /** Estado con el que el driver abrió la conexión, restablecido en cada devolución. */
+        final boolean defaultReadOnly;
+        final int defaultIsolation;
+        volatile long lastUsed = System.currentTimeMillis();
+
+        PooledConnection(Connection physical) throws SQLException {
+            this.physical = physical;
+            this.statements = new StatementCache(physical);
+            this.defaultReadOnly = physical.isReadOnly();
+            this.defaultIsolation = physical.getTransactionIsolation();
+        }
+
+        Connection checkout() {
+            return (Connection) Proxy.newProxyInstance(
+                    Connection.class.getClassLoader(),
+                    new Class<?>[]{Connection.class},
+                    new Handle(this));
+        }
+
+        /** Valida la conexión sólo si lleva ociosa más de {@link #VALIDATION_INTERVAL_MS}. */
+        boolean isUsable() {
+            try {
+                if (physical.isClosed()) {
+                    return false;
+                }
+                if (System.currentTimeMillis() - lastUsed < VALIDATION_INTERVAL_MS) {
+                    return true;
+                }
+                return physical.isValid(VALIDATION_TIMEOUT_S);
+            } catch (SQLException e) {
+                return false;
+            }
+        }
+
+        /**
+         * Deja la conexión como recién abierta: confirma el modo {@code autoCommit} y
+         * restablece {@code readOnly}, el aislamiento y el {@code fetchSize} de las
+         * sentencias en caché, para que la configuración de un préstamo no pase al
+         * siguiente. Devuelve {@code false} si la conexión no es reutilizable.
+         */
+        boolean reset() {
+            try {
+                if (physical.isClosed()) {
+                    return false;
+                }
+                if (!physical.getAutoCommit()) {
+                    physical.rollback();
+                    physical.setAutoCommit(true);
+                }
+                if (physical.isReadOnly() != defaultReadOnly) {
+                    physical.setReadOnly(defaultReadOnly);
+                }
+                if (physical.getTransactionIsolation() != defaultIsolation) {
+                    physical.setTransactionIsolation(defaultIsolation);
+                }
+                statements.resetFetchSize();
+                physical.clearWarnings();
+                return true;
+            } catch (SQLException e) {
+                return false;
+            }
+        }
+
+        void closePhysical() {
+            statements.close();
+            try {
+                physical.close();
+            } catch (SQLException e) {
+                System.err.println("Error al cerrar conexión del pool: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Manejador del <i>proxy</i> entregado en cada préstamo.
+     * <p>
+     * {@code unwrap(StatementCache.class)} entrega la caché de sentencias de la conexión física.
+     * </p>
+     */
+    private final class Handle implements InvocationHandler {
+        private PooledConnection pooled;
+
+        Handle(PooledConnection pooled) {
+            this.pooled = pooled;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            Connection target;
+            synchronized (this) {
+                if ("close".equals(name)) {
+                    if (pooled != null) {
+                        PooledConnection returned = pooled;
+                        pooled = null;
+                        release(returned);
+                    }
+                    return null;
+                }
+                if ("isClosed".equals(name)) {
+                    return pooled == null || pooled.physical.isClosed();
+                }
+                if ("equals".equals(name)) {
+                    return proxy == args[0];
+                }
+                if ("hashCode".equals(name)) {
+                    return System.identityHashCode(proxy);
+                }
+                if ("toString".equals(name)) {
+                    return "PooledConnection[" + (pooled == null ? "devuelta" : pooled.physical) + "]";
+                }
+                if (pooled == null) {
+                    throw new SQLException("La conexión ya fue devuelta al pool");
+                }
+                if (args != null && args.length == 1 && args[0] == StatementCache.class) {
+                    if ("unwrap".equals(name)) {
+                        return pooled.statements;
+                    }
+                    if ("isWrapperFor".equals(name)) {
+                        return true;
+                    }
+                }
+                target = pooled.physical;
+            }
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
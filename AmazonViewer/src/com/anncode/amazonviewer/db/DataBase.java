@@ -84,8 +84,14 @@ public class DataBase {
         public static final String ID_ELEMENT     = "id_element";  // ID de la película/capítulo/libro
         /** Llave foránea que apunta a TUser.ID */
         public static final String ID_USER        = "id_user";
-        /** Constante para la fecha de visualización o lectura. */
+        /** Constante para la fecha de la última visualización o lectura. */
         public static final String DATE           = "date";
+        /** Cantidad de veces que el usuario vio o leyó el elemento. */
+        public static final String VIEW_COUNT     = "view_count";
+        /** Llave única (id_user, id_material, id_element): una fila por usuario y elemento. */
+        public static final String UNIQUE_KEY     = "uq_viewed_user_material_element";
+        /** Índice (id_user, date) de los reportes por fecha: recorre sólo la actividad del rango. */
+        public static final String USER_DATE_INDEX = "idx_viewed_user_date";
     }
 
     /** Tabla de Catálogo de Materiales (1. Película, 2. Serie, 3. Libro, etc.) */
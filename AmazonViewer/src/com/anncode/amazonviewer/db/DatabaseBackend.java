@@ -0,0 +1,99 @@
+package com.anncode.amazonviewer.db;
+
+import java.util.Locale;
+
+import static com.anncode.amazonviewer.db.DBConfig.*;
+
+/**
+ * Motores de base de datos que admite la aplicación.
+ * <p>
+ * El motor activo se elige con {@link DBConfig#BACKEND} y puede sobrescribirse sin
+ * recompilar con {@code -Damazonviewer.db.backend=h2}. Con {@link #H2} la base de datos
+ * corre en el mismo proceso: no hace falta un servidor MySQL y el {@link ConnectionPool}
+ * crea el esquema la primera vez que se conecta (ver {@link EmbeddedSchema}). El driver
+ * de H2 ({@code libs/h2-*.jar}) debe estar en el classpath. Las pruebas apuntan H2 a una
+ * base de datos en memoria con {@code -Damazonviewer.db.h2Url}.
+ * </p>
+ * @author Luigi
+ * @version 1.4
+ * @since 2026-10-17
+ */
+public enum DatabaseBackend {
+
+    /** Servidor MySQL en {@link DBConfig#FULL_URL}. */
+    MYSQL(false, Integer.MIN_VALUE, "CRC32"),
+    /** H2 embebido en modo de compatibilidad MySQL, en {@link DBConfig#H2_URL}. */
+    H2(true, 0, "ORA_HASH");
+
+    private static final DatabaseBackend ACTIVE = resolve();
+
+    private final boolean embedded;
+    private final int streamingFetchSize;
+    private final String hashFunction;
+
+    DatabaseBackend(boolean embedded, int streamingFetchSize, String hashFunction) {
+        this.embedded = embedded;
+        this.streamingFetchSize = streamingFetchSize;
+        this.hashFunction = hashFunction;
+    }
+
+    /**
+     * Obtiene el motor configurado.
+     * @return El motor activo de la aplicación.
+     */
+    public static DatabaseBackend get() {
+        return ACTIVE;
+    }
+
+    /** @return {@code true} si la base de datos corre dentro del proceso. */
+    public boolean isEmbedded() {
+        return embedded;
+    }
+
+    /**
+     * Obtiene el {@code fetchSize} que recorre un resultado grande sin materializarlo.
+     * <p>
+     * {@code Integer.MIN_VALUE} es la convención del driver de MySQL para entregar las
+     * filas una a una; H2 rechaza valores negativos y ya lee los resultados por bloques.
+     * </p>
+     * @return El tamaño a usar con {@link java.sql.Statement#setFetchSize(int)}.
+     */
+    public int getStreamingFetchSize() {
+        return streamingFetchSize;
+    }
+
+    /**
+     * Expresión SQL con un hash entero de una cadena: {@code CRC32} en MySQL y
+     * {@code ORA_HASH} en H2, que no tiene {@code CRC32}.
+     * @param expression La expresión de tipo cadena a resumir.
+     * @return La expresión del hash.
+     */
+    String hash(String expression) {
+        return hashFunction + "(" + expression + ")";
+    }
+
+    /** @return La URL JDBC del motor, sin las opciones que agrega el pool. */
+    String url() {
+        return embedded ? System.getProperty("amazonviewer.db.h2Url", H2_URL) : FULL_URL;
+    }
+
+    /** @return El usuario de la conexión. */
+    String user() {
+        return embedded ? H2_USER : USER;
+    }
+
+    /** @return La contraseña de la conexión. */
+    String password() {
+        return embedded ? H2_PASSWORD : PASSWORD;
+    }
+
+    private static DatabaseBackend resolve() {
+        String name = System.getProperty("amazonviewer.db.backend", BACKEND);
+        try {
+            return valueOf(name.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Motor de base de datos desconocido: " + name +
+                    " (valores admitidos: mysql, h2)", e);
+        }
+    }
+}
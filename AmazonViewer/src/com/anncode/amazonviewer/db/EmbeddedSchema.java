@@ -0,0 +1,133 @@
+package com.anncode.amazonviewer.db;
+
+import com.anncode.amazonviewer.db.DataBase.*;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Creación del esquema de AmazonViewer en la base de datos embebida.
+ * <p>
+ * Las sentencias se construyen con las constantes de {@link DataBase} y son
+ * idempotentes ({@code IF NOT EXISTS}), así que se ejecutan en cada arranque sin
+ * tocar los datos existentes. La tabla {@code viewed} nace ya migrada (con
+ * {@link TViewed#VIEW_COUNT}, la llave {@link TViewed#UNIQUE_KEY} y el índice
+ * {@link TViewed#USER_DATE_INDEX}), de modo que
+ * {@link ViewedMigration} no tiene nada que hacer sobre ella.
+ * </p>
+ * @author Luigi
+ * @version 1.4
+ * @since 2026-10-17
+ */
+final class EmbeddedSchema {
+
+    private static final String ID = " INT AUTO_INCREMENT PRIMARY KEY";
+    private static final String TEXT = " VARCHAR(255)";
+
+    private EmbeddedSchema() {
+    }
+
+    /**
+     * Crea las tablas, los índices y los materiales que falten.
+     * @param connection Una conexión física a la base de datos embebida.
+     * @throws SQLException Si alguna sentencia falla.
+     */
+    static void create(Connection connection) throws SQLException {
+        try (Statement stmt = connection.createStatement()) {
+            stmt.executeUpdate(table(TMaterial.NAME,
+                    TMaterial.ID + ID,
+                    TMaterial.NAME_COL + " VARCHAR(50) NOT NULL UNIQUE"));
+            stmt.executeUpdate(table(TUser.NAME,
+                    TUser.ID + ID,
+                    TUser.USERNAME + " VARCHAR(100) NOT NULL UNIQUE"));
+            stmt.executeUpdate(table(TMovie.NAME,
+                    TMovie.ID + ID,
+                    TMovie.TITLE + TEXT,
+                    TMovie.GENRE + TEXT,
+                    TMovie.CREATOR + TEXT,
+                    TMovie.DURATION + " INT",
+                    TMovie.YEAR + " SMALLINT"));
+            stmt.executeUpdate(table(TSerie.NAME,
+                    TSerie.ID + ID,
+                    TSerie.TITLE + TEXT,
+                    TSerie.GENRE + TEXT,
+                    TSerie.CREATOR + TEXT,
+                    TSerie.DURATION + " INT",
+                    TSerie.YEAR + " SMALLINT",
+                    TSerie.SESSION_QUANTITY + " INT"));
+            stmt.executeUpdate(table(TChapter.NAME,
+                    TChapter.ID + ID,
+                    TChapter.TITLE + TEXT,
+                    TChapter.DURATION + " INT",
+                    TChapter.YEAR + " SMALLINT",
+                    TChapter.SESSION_NUMBER + " INT",
+                    TChapter.ID_SERIE + " INT NOT NULL"));
+            stmt.executeUpdate(index("idx_chapter_serie", TChapter.NAME,
+                    TChapter.ID_SERIE + ", " + TChapter.SESSION_NUMBER));
+            stmt.executeUpdate(table(TBook.NAME,
+                    TBook.ID + ID,
+                    TBook.TITLE + TEXT,
+                    TBook.EDITORIAL + TEXT,
+                    TBook.EDITION_DATE + " DATE",
+                    TBook.ISBN + " VARCHAR(20)",
+                    TBook.AUTHORS + TEXT));
+            stmt.executeUpdate(table(TPage.NAME,
+                    TPage.ID + ID,
+                    TPage.NUMBER + " INT NOT NULL",
+                    TPage.CONTENT + " TEXT",
+                    TPage.ID_BOOK + " INT NOT NULL"));
+            stmt.executeUpdate(index("idx_page_book", TPage.NAME, TPage.ID_BOOK + ", " + TPage.NUMBER));
+            stmt.executeUpdate(table(TMagazine.NAME,
+                    TMagazine.ID + ID,
+                    TMagazine.TITLE + TEXT,
+                    TMagazine.EDITORIAL + TEXT,
+                    TMagazine.EDITION_DATE + " DATE",
+                    TMagazine.AUTHORS + TEXT));
+            stmt.executeUpdate(table(TViewed.NAME,
+                    TViewed.ID + ID,
+                    TViewed.ID_MATERIAL + " INT NOT NULL",
+                    TViewed.ID_ELEMENT + " INT NOT NULL",
+                    TViewed.ID_USER + " INT NOT NULL",
+                    TViewed.DATE + " DATETIME",
+                    TViewed.VIEW_COUNT + " INT NOT NULL DEFAULT 1"));
+            // Índice con nombre propio (no una restricción) para que ViewedMigration lo reconozca
+            stmt.executeUpdate("CREATE UNIQUE INDEX IF NOT EXISTS " + TViewed.UNIQUE_KEY + " ON " + TViewed.NAME +
+                    " (" + TViewed.ID_USER + ", " + TViewed.ID_MATERIAL + ", " + TViewed.ID_ELEMENT + ")");
+            stmt.executeUpdate(index(TViewed.USER_DATE_INDEX, TViewed.NAME, TViewed.ID_USER + ", " + TViewed.DATE));
+        }
+
+        insertMaterials(connection);
+    }
+
+    private static void insertMaterials(Connection connection) throws SQLException {
+        String[] names = {MaterialNames.MOVIE, MaterialNames.SERIE, MaterialNames.CHAPTER,
+                MaterialNames.BOOK, MaterialNames.MAGAZINE};
+        String exists = "SELECT 1 FROM " + TMaterial.NAME + " WHERE " + TMaterial.NAME_COL + " = ?";
+        String insert = "INSERT INTO " + TMaterial.NAME + " (" + TMaterial.NAME_COL + ") VALUES (?)";
+
+        try (PreparedStatement query = connection.prepareStatement(exists);
+             PreparedStatement add = connection.prepareStatement(insert)) {
+            for (String name : names) {
+                query.setString(1, name);
+                try (ResultSet rs = query.executeQuery()) {
+                    if (rs.next()) {
+                        continue;
+                    }
+                }
+                add.setString(1, name);
+                add.executeUpdate();
+            }
+        }
+    }
+
+    private static String table(String name, String... columns) {
+        return "CREATE TABLE IF NOT EXISTS " + name + " (" + String.join(", ", columns) + ")";
+    }
+
+    private static String index(String name, String table, String columns) {
+        return "CREATE INDEX IF NOT EXISTS " + name + " ON " + table + " (" + columns + ")";
+    }
+}
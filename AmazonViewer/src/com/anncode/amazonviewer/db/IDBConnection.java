@@ -10,31 +10,48 @@ import static com.anncode.amazonviewer.db.DBConfig.*;
 public interface IDBConnection {
 
     /**
-     * Establece una conexión con MySQL.
-     * Utiliza las constantes de {@link DBConfig}.
+     * Obtiene una conexión con MySQL desde el {@link ConnectionPool} de la aplicación.
+     * <p>
+     * La conexión se reutiliza entre llamadas: al cerrarla (por ejemplo con
+     * <i>try-with-resources</i>) vuelve al pool en lugar de cerrarse físicamente,
+     * evitando repetir el <i>handshake</i> con el servidor en cada operación.
+     * </p>
      * @return Una {@link Connection} activa.
      * @throws RuntimeException si la conexión no se puede establecer.
      */
     default Connection connectToDB() {
         try {
-            // Ya no es necesario Class.forName(DRIVER) en JDBC 4.0+
-//            Class.forName(DRIVER);
-            Connection connection = DriverManager.getConnection(FULL_URL, USER, PASSWORD);
-
-            if (connection != null && !connection.isClosed()) {
-                // Usamos un mensaje más discreto o logs
-//                System.out.println(">>> Conexión exitosa a: " + DB_NAME);
-            }
-            return connection;
-
+            return ConnectionPool.getInstance().getConnection();
         } catch (SQLException e) {
             // Lanzamos una excepción en lugar de retornar null para fallar rápido
             throw new RuntimeException("Fallo crítico: No se pudo conectar a la base de datos " + DB_NAME, e);
         }
     }
 
+    /**
+     * Obtiene la sentencia preparada de una consulta del catálogo {@link NamedQuery}.
+     * <p>
+     * Si la conexión proviene del {@link ConnectionPool}, la sentencia sale del
+     * {@link StatementCache} de la conexión física: se compila una sola vez y se
+     * reutiliza en los siguientes préstamos. El llamador cierra el {@link ResultSet},
+     * pero <b>no</b> la sentencia.
+     * </p>
+     * @param connection La conexión obtenida con {@link #connectToDB()}.
+     * @param query      La consulta a ejecutar.
+     * @return La sentencia lista para asignar parámetros.
+     * @throws SQLException Si el servidor rechaza la sentencia.
+     */
+    default PreparedStatement prepare(Connection connection, NamedQuery query) throws SQLException {
+        if (connection.isWrapperFor(StatementCache.class)) {
+            return connection.unwrap(StatementCache.class).get(query);
+        }
+        // Conexión ajena al pool: la sentencia se cierra junto con ella
+        return query.prepare(connection);
+    }
+
     /**
      * Método de utilidad para cerrar la conexión de forma segura.
+     * Si la conexión proviene del pool, se devuelve a éste para su reutilización.
      * @param connection La conexión a cerrar.
      */
     default void closeConnection(Connection connection) {
@@ -42,7 +59,6 @@ public interface IDBConnection {
             try {
                 if (!connection.isClosed()) {
                     connection.close();
-                    System.out.println(">>> Conexión cerrada.");
                 }
             } catch (SQLException e) {
                 System.err.println("Error al intentar cerrar la conexión: " + e.getMessage());
@@ -53,24 +69,15 @@ public interface IDBConnection {
     /**
      * Obtiene el identificador numérico de un tipo de material a partir de su nombre descriptivo.
      * <p>
-     * Este método consulta la tabla {@code material} para encontrar el {@code id} asociado
-     * a una categoría específica (ej. "Movie", "Chapter", "Book"). Es una pieza auxiliar
-     * crítica para realizar inserciones y consultas precisas en la tabla de transacciones
-     * {@code viewed}, asegurando la integridad referencial.
+     * El identificador se resuelve desde el {@link MaterialRegistry}, que carga la tabla
+     * {@code material} una sola vez; por ello no se ejecuta ninguna consulta por fila al
+     * leer o registrar elementos en la tabla de transacciones {@code viewed}.
      * </p>
      *
      * @param name El nombre del material tal como está definido en {@link DataBase.MaterialNames}.
-     * @param conn La conexión activa a la base de datos para realizar la búsqueda.
-     * @return El {@code id} numérico correspondiente al material encontrado en la base de datos.
-     * @throws SQLException Si ocurre un error al ejecutar la consulta SQL.
+     * @return El {@code id} numérico correspondiente al material, o {@code 0} si no existe.
      */
-    default int getMaterialIdByName(String name, Connection conn) throws SQLException {
-        String query = "SELECT id FROM material WHERE name = ?";
-        try (PreparedStatement pstmt = conn.prepareStatement(query)) {
-            pstmt.setString(1, name);
-            try (ResultSet rs = pstmt.executeQuery()) {
-                return rs.next() ? rs.getInt("id") : 0;
-            }
-        }
+    default int getMaterialId(String name) {
+        return MaterialRegistry.getInstance().getId(name);
     }
-}
\ No newline at end of file
+}
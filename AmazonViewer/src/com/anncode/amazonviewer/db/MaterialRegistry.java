@@ -0,0 +1,163 @@
+package com.anncode.amazonviewer.db;
+
+import com.anncode.amazonviewer.db.DataBase.MaterialNames;
+import com.anncode.amazonviewer.db.DataBase.TMaterial;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Registro en memoria de los identificadores de la tabla {@code material}.
+ * <p>
+ * La tabla {@code material} es un catálogo fijo (Movie, Serie, Chapter, Book, Magazine)
+ * que antes se consultaba en cada lectura o escritura de la tabla {@code viewed}.
+ * Este registro la carga completa una única vez y resuelve los identificadores
+ * desde un arreglo de enteros indexado por {@link DataBase.MaterialNames}, sin
+ * volver a tocar la base de datos hasta que se invoque {@link #refresh()}.
+ * </p>
+ * @author Luigi
+ * @version 1.4
+ * @since 2026-10-17
+ */
+public final class MaterialRegistry implements IDBConnection {
+
+    /** Nombres conocidos; su posición es el índice dentro de {@link #ids}. */
+    private static final String[] NAMES = {
+            MaterialNames.MOVIE,
+            MaterialNames.SERIE,
+            MaterialNames.CHAPTER,
+            MaterialNames.BOOK,
+            MaterialNames.MAGAZINE
+    };
+
+    private static final MaterialRegistry INSTANCE = new MaterialRegistry();
+
+    /** Identificadores de material por índice; {@code null} hasta la primera carga. */
+    private volatile int[] ids;
+
+    private MaterialRegistry() {
+    }
+
+    /**
+     * Obtiene la instancia única del registro.
+     * @return El registro de materiales de la aplicación.
+     */
+    public static MaterialRegistry getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Carga la tabla {@code material} si todavía no se ha cargado.
+     * Se invoca durante el arranque para que ninguna lectura posterior pague la consulta.
+     */
+    public void load() {
+        if (ids == null) {
+            synchronized (this) {
+                if (ids == null) {
+                    ids = readMaterials();
+                }
+            }
+        }
+    }
+
+    /**
+     * Vuelve a leer la tabla {@code material}, reemplazando los identificadores en memoria.
+     */
+    public synchronized void refresh() {
+        ids = readMaterials();
+    }
+
+    /**
+     * Resuelve el identificador de un material sin consultar la base de datos.
+     * @param name El nombre del material tal como está definido en {@link DataBase.MaterialNames}.
+     * @return El {@code id} del material, o {@code 0} si no existe en la tabla.
+     * @throws IllegalArgumentException Si el nombre no es uno de {@link DataBase.MaterialNames}.
+     */
+    public int getId(String name) {
+        int[] snapshot = ids;
+        if (snapshot == null) {
+            load();
+            snapshot = ids;
+        }
+        return snapshot[indexOf(name)];
+    }
+
+    /**
+     * Resuelve el nombre de un material a partir de su identificador.
+     * @param id El {@code id} del material en la tabla {@code material}.
+     * @return El nombre definido en {@link DataBase.MaterialNames}, o {@code null} si no se conoce.
+     */
+    public String getName(int id) {
+        int[] snapshot = ids;
+        if (snapshot == null) {
+            load();
+            snapshot = ids;
+        }
+        for (int i = 0; i < snapshot.length; i++) {
+            if (snapshot[i] == id && id != 0) {
+                return NAMES[i];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Obtiene la posición fija de un material dentro de {@link DataBase.MaterialNames}.
+     * <p>
+     * Permite a otras estructuras (por ejemplo índices por material) usar arreglos
+     * en lugar de mapas con claves de texto.
+     * </p>
+     * @param name El nombre del material.
+     * @return Un índice entre {@code 0} y {@link #size()} - 1.
+     * @throws IllegalArgumentException Si el nombre no es uno de {@link DataBase.MaterialNames}.
+     */
+    public static int indexOf(String name) {
+        switch (name) {
+            case MaterialNames.MOVIE:    return 0;
+            case MaterialNames.SERIE:    return 1;
+            case MaterialNames.CHAPTER:  return 2;
+            case MaterialNames.BOOK:     return 3;
+            case MaterialNames.MAGAZINE: return 4;
+            default:
+                throw new IllegalArgumentException("Material desconocido: " + name);
+        }
+    }
+
+    /**
+     * Obtiene la posición fija del material con el identificador indicado.
+     * @param id El {@code id} del material en la tabla {@code material}.
+     * @return Un índice entre {@code 0} y {@link #size()} - 1, o {@code -1} si no se conoce.
+     */
+    public int indexOfId(int id) {
+        String name = getName(id);
+        return name == null ? -1 : indexOf(name);
+    }
+
+    /**
+     * Obtiene la cantidad de materiales conocidos.
+     * @return El número de nombres definidos en {@link DataBase.MaterialNames}.
+     */
+    public static int size() {
+        return NAMES.length;
+    }
+
+    private int[] readMaterials() {
+        int[] loaded = new int[NAMES.length];
+        try (Connection connection = connectToDB();
+             ResultSet rs = prepare(connection, NamedQuery.MATERIAL_ALL).executeQuery()) {
+
+            while (rs.next()) {
+                String name = rs.getString(TMaterial.NAME_COL);
+                for (int i = 0; i < NAMES.length; i++) {
+                    if (NAMES[i].equals(name)) {
+                        loaded[i] = rs.getInt(TMaterial.ID);
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Fallo crítico: No se pudo cargar la tabla " + TMaterial.NAME, e);
+        }
+        return loaded;
+    }
+}
@@ -0,0 +1,243 @@
+package com.anncode.amazonviewer.db;
+
+import com.anncode.amazonviewer.db.DataBase.*;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Catálogo cerrado de las consultas que ejecutan los DAOs.
+ * <p>
+ * Cada sentencia se construye una sola vez, al cargar la clase, a partir de las
+ * constantes de {@link DataBase}. Al ser un conjunto fijo, sirve de llave para el
+ * {@link StatementCache} de cada conexión: la sentencia se prepara en el servidor la
+ * primera vez que una conexión la usa y las siguientes llamadas sólo asignan parámetros.
+ * </p>
+ * @author Luigi
+ * @version 1.4
+ * @since 2026-10-17
+ */
+public enum NamedQuery {
+
+    /** Usuario por nombre. */
+    USER_BY_NAME("SELECT * FROM " + TUser.NAME + " WHERE " + TUser.USERNAME + " = ?"),
+    /** Alta de usuario; devuelve la llave generada. */
+    USER_INSERT("INSERT INTO " + TUser.NAME + " (" + TUser.USERNAME + ") VALUES (?)", true),
+
+    /** Catálogo de materiales. */
+    MATERIAL_ALL("SELECT " + TMaterial.ID + ", " + TMaterial.NAME_COL + " FROM " + TMaterial.NAME),
+
+    /** Historial de visualización de un usuario. */
+    VIEWED_BY_USER("SELECT " + TViewed.ID_MATERIAL + ", " + TViewed.ID_ELEMENT +
+            " FROM " + TViewed.NAME +
+            " WHERE " + TViewed.ID_USER + " = ?"),
+    /** Registro idempotente de una visualización (ver {@link ViewedMigration}). */
+    VIEWED_UPSERT("INSERT INTO " + TViewed.NAME +
+            " (" + TViewed.ID_MATERIAL + ", " + TViewed.ID_ELEMENT + ", " +
+            TViewed.ID_USER + ", " + TViewed.DATE + ") VALUES (?, ?, ?, ?)" +
+            " ON DUPLICATE KEY UPDATE " +
+            TViewed.VIEW_COUNT + " = " + TViewed.VIEW_COUNT + " + 1, " +
+            TViewed.DATE + " = GREATEST(" + TViewed.DATE + ", VALUES(" + TViewed.DATE + "))"),
+
+    /** Catálogo de películas. */
+    MOVIE_ALL("SELECT * FROM " + TMovie.NAME),
+    /** Película por id. */
+    MOVIE_BY_ID(byId(TMovie.NAME, TMovie.ID)),
+    /** Página de películas posteriores a un id (paginación por llave). */
+    MOVIE_PAGE_AFTER(pageAfter(TMovie.NAME, TMovie.ID)),
+    /** Página de películas anteriores a un id, en orden descendente. */
+    MOVIE_PAGE_BEFORE(pageBefore(TMovie.NAME, TMovie.ID)),
+    /** Películas vistas por un usuario en un rango de fechas, en orden cronológico. */
+    MOVIE_VIEWED_BETWEEN(viewedBetween("m.*",
+            TMovie.NAME + " AS m ON m." + TMovie.ID + " = v." + TViewed.ID_ELEMENT)),
+    /** Catálogo de series. */
+    SERIE_ALL("SELECT * FROM " + TSerie.NAME),
+    /** Serie por id. */
+    SERIE_BY_ID(byId(TSerie.NAME, TSerie.ID)),
+    /** Página de series posteriores a un id. */
+    SERIE_PAGE_AFTER(pageAfter(TSerie.NAME, TSerie.ID)),
+    /** Página de series anteriores a un id, en orden descendente. */
+    SERIE_PAGE_BEFORE(pageBefore(TSerie.NAME, TSerie.ID)),
+    /** Capítulos de una serie junto con los datos de la serie. */
+    CHAPTER_BY_SERIE("SELECT " + chapterColumns() +
+            " FROM " + TChapter.NAME + " AS c " +
+            " INNER JOIN " + TSerie.NAME + " AS s " +
+            " ON c." + TChapter.ID_SERIE + " = s." + TSerie.ID +
+            " WHERE c." + TChapter.ID_SERIE + " = ?"),
+    /** Todos los capítulos, agrupados por serie y en orden de sesión. */
+    CHAPTER_ALL("SELECT " + TChapter.ID + ", " + TChapter.TITLE + ", " + TChapter.DURATION + ", " +
+            TChapter.YEAR + ", " + TChapter.SESSION_NUMBER + ", " + TChapter.ID_SERIE +
+            " FROM " + TChapter.NAME +
+            " ORDER BY " + TChapter.ID_SERIE + ", " + TChapter.SESSION_NUMBER),
+    /** Capítulos vistos por un usuario en un rango de fechas, con los datos de su serie. */
+    CHAPTER_VIEWED_BETWEEN(viewedBetween(chapterColumns(),
+            TChapter.NAME + " AS c ON c." + TChapter.ID + " = v." + TViewed.ID_ELEMENT +
+            " INNER JOIN " + TSerie.NAME + " AS s ON c." + TChapter.ID_SERIE + " = s." + TSerie.ID)),
+
+    /** Catálogo de libros. */
+    BOOK_ALL("SELECT * FROM " + TBook.NAME),
+    /** Libro por id. */
+    BOOK_BY_ID(byId(TBook.NAME, TBook.ID)),
+    /** Página de libros posteriores a un id. */
+    BOOK_PAGE_AFTER(pageAfter(TBook.NAME, TBook.ID)),
+    /** Página de libros anteriores a un id, en orden descendente. */
+    BOOK_PAGE_BEFORE(pageBefore(TBook.NAME, TBook.ID)),
+    /** Libros leídos por un usuario en un rango de fechas. */
+    BOOK_VIEWED_BETWEEN(viewedBetween("b.*",
+            TBook.NAME + " AS b ON b." + TBook.ID + " = v." + TViewed.ID_ELEMENT)),
+    /** Páginas de un libro. */
+    PAGE_BY_BOOK("SELECT * FROM " + TPage.NAME + " WHERE " + TPage.ID_BOOK + " = ?"),
+    /** Ventana de páginas consecutivas de un libro, posteriores a un {@code number}. */
+    PAGE_WINDOW("SELECT " + TPage.ID + ", " + TPage.NUMBER + ", " + TPage.CONTENT +
+            " FROM " + TPage.NAME +
+            " WHERE " + TPage.ID_BOOK + " = ? AND " + TPage.NUMBER + " > ?" +
+            " ORDER BY " + TPage.NUMBER +
+            " LIMIT ?"),
+    /** Cantidad de páginas por libro. */
+    PAGE_COUNTS("SELECT " + TPage.ID_BOOK + ", COUNT(*) FROM " + TPage.NAME +
+            " GROUP BY " + TPage.ID_BOOK),
+    /** Cantidad de páginas de un bloque de {@link #IN_LIST_SIZE} libros. */
+    PAGE_COUNTS_BY_BOOKS("SELECT " + TPage.ID_BOOK + ", COUNT(*) FROM " + TPage.NAME +
+            " WHERE " + TPage.ID_BOOK + " IN (" + placeholders(NamedQuery.IN_LIST_SIZE) + ")" +
+            " GROUP BY " + TPage.ID_BOOK),
+
+    /** Catálogo de revistas. */
+    MAGAZINE_ALL("SELECT * FROM " + TMagazine.NAME),
+    /** Revista por id. */
+    MAGAZINE_BY_ID(byId(TMagazine.NAME, TMagazine.ID)),
+    /** Página de revistas posteriores a un id. */
+    MAGAZINE_PAGE_AFTER(pageAfter(TMagazine.NAME, TMagazine.ID)),
+    /** Página de revistas anteriores a un id, en orden descendente. */
+    MAGAZINE_PAGE_BEFORE(pageBefore(TMagazine.NAME, TMagazine.ID)),
+
+    /**
+     * Huella del catálogo, en una sola fila. Decide si la {@code CatalogSnapshot} guardada
+     * en disco sigue vigente. Las tablas pequeñas aportan cantidad de filas, id máximo y
+     * suma de verificación; {@code page}, que tiene órdenes de magnitud más filas, sólo
+     * cantidad e id máximo, que se resuelven con su llave primaria sin leer las filas.
+     */
+    CATALOG_FINGERPRINT("SELECT " +
+            fingerprint(TMovie.NAME, TMovie.ID, TMovie.TITLE, TMovie.GENRE, TMovie.CREATOR,
+                    TMovie.DURATION, TMovie.YEAR) + ", " +
+            fingerprint(TSerie.NAME, TSerie.ID, TSerie.TITLE, TSerie.GENRE, TSerie.CREATOR,
+                    TSerie.DURATION, TSerie.YEAR, TSerie.SESSION_QUANTITY) + ", " +
+            fingerprint(TChapter.NAME, TChapter.ID, TChapter.TITLE, TChapter.DURATION, TChapter.YEAR,
+                    TChapter.SESSION_NUMBER, TChapter.ID_SERIE) + ", " +
+            fingerprint(TBook.NAME, TBook.ID, TBook.TITLE, TBook.EDITORIAL, TBook.EDITION_DATE,
+                    TBook.ISBN, TBook.AUTHORS) + ", " +
+            counts(TPage.NAME, TPage.ID) + ", " +
+            fingerprint(TMagazine.NAME, TMagazine.ID, TMagazine.TITLE, TMagazine.EDITORIAL,
+                    TMagazine.EDITION_DATE, TMagazine.AUTHORS));
+
+    /** Cantidad de parámetros de las consultas {@code IN (...)} de tamaño fijo. */
+    public static final int IN_LIST_SIZE = 500;
+    /**
+     * Prefijo de las columnas de la serie en {@link #CHAPTER_BY_SERIE}: se leen por su
+     * alias porque no todos los drivers resuelven etiquetas como {@code s.title}.
+     */
+    public static final String SERIE_COLUMN_PREFIX = "serie_";
+
+    private final String sql;
+    private final boolean generatedKeys;
+
+    NamedQuery(String sql) {
+        this(sql, false);
+    }
+
+    NamedQuery(String sql, boolean generatedKeys) {
+        this.sql = sql;
+        this.generatedKeys = generatedKeys;
+    }
+
+    /** @return El texto SQL de la consulta. */
+    public String getSql() {
+        return sql;
+    }
+
+    /**
+     * Prepara la consulta sobre una conexión, sin pasar por el {@link StatementCache}.
+     * @param connection La conexión a utilizar.
+     * @return Una sentencia nueva que el llamador debe cerrar.
+     * @throws SQLException Si el servidor rechaza la sentencia.
+     */
+    public PreparedStatement prepare(Connection connection) throws SQLException {
+        return generatedKeys
+                ? connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)
+                : connection.prepareStatement(sql);
+    }
+
+    /** Lectura de una fila por su llave primaria: parámetro (id). */
+    private static String byId(String table, String id) {
+        return "SELECT * FROM " + table + " WHERE " + id + " = ?";
+    }
+
+    /** Paginación por llave hacia adelante: parámetros (id, límite). */
+    private static String pageAfter(String table, String id) {
+        return "SELECT * FROM " + table + " WHERE " + id + " > ? ORDER BY " + id + " LIMIT ?";
+    }
+
+    /** Paginación por llave hacia atrás: parámetros (id, límite); el resultado llega invertido. */
+    private static String pageBefore(String table, String id) {
+        return "SELECT * FROM " + table + " WHERE " + id + " < ? ORDER BY " + id + " DESC LIMIT ?";
+    }
+
+    /**
+     * Subconsultas de cantidad de filas, id máximo y suma de verificación de una tabla.
+     * La suma de los hashes de cada fila (ver {@link DatabaseBackend#hash(String)}) cambia
+     * con cualquier edición de las columnas indicadas, sin depender del orden de las filas.
+     * {@code CONCAT_WS} omite los nulos, así que la cadena empieza con una máscara de las
+     * columnas nulas: un valor no puede pasar de una columna a otra sin cambiar el resultado.
+     */
+    private static String fingerprint(String table, String id, String... columns) {
+        StringBuilder nulls = new StringBuilder("(0");
+        for (int i = 0; i < columns.length; i++) {
+            nulls.append(" + CASE WHEN ").append(columns[i]).append(" IS NULL THEN ").append(1 << i).append(" ELSE 0 END");
+        }
+        String row = "CONCAT_WS('|', " + nulls + "), " + id + ", " + String.join(", ", columns) + ")";
+        return counts(table, id) + ", " +
+                "(SELECT COALESCE(SUM(" + DatabaseBackend.get().hash(row) + "), 0) FROM " + table + ")";
+    }
+
+    /** Subconsultas de cantidad de filas e id máximo de una tabla. */
+    private static String counts(String table, String id) {
+        return "(SELECT COUNT(*) FROM " + table + "), (SELECT COALESCE(MAX(" + id + "), 0) FROM " + table + ")";
+    }
+
+    /**
+     * Elementos de un material que un usuario vio en un rango de fechas, unidos a su
+     * fila del catálogo: parámetros (id_user, desde inclusive, hasta exclusivo, id_material).
+     * El filtro por usuario y fecha se resuelve con el índice {@link TViewed#USER_DATE_INDEX},
+     * de modo que el costo depende de la actividad del rango y no del historial completo.
+     */
+    private static String viewedBetween(String columns, String join) {
+        return "SELECT " + columns +
+                " FROM " + TViewed.NAME + " AS v" +
+                " INNER JOIN " + join +
+                " WHERE v." + TViewed.ID_USER + " = ?" +
+                " AND v." + TViewed.DATE + " >= ? AND v." + TViewed.DATE + " < ?" +
+                " AND v." + TViewed.ID_MATERIAL + " = ?" +
+                " ORDER BY v." + TViewed.DATE + ", v." + TViewed.ID;
+    }
+
+    /** Columnas del capítulo ({@code c}) y de su serie ({@code s}) con sus alias. */
+    private static String chapterColumns() {
+        return "c.*, " + serieColumn(TSerie.TITLE) + ", " + serieColumn(TSerie.GENRE) + ", " +
+                serieColumn(TSerie.CREATOR) + ", " + serieColumn(TSerie.DURATION) + ", " +
+                serieColumn(TSerie.SESSION_QUANTITY);
+    }
+
+    /** Columna de la serie unida a sus capítulos, con su alias {@link #SERIE_COLUMN_PREFIX}. */
+    private static String serieColumn(String column) {
+        return "s." + column + " AS " + NamedQuery.SERIE_COLUMN_PREFIX + column;
+    }
+
+    private static String placeholders(int count) {
+        StringBuilder sb = new StringBuilder(count * 3);
+        for (int i = 0; i < count; i++) {
+            sb.append(i == 0 ? "?" : ", ?");
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,123 @@
+package com.anncode.amazonviewer.db;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Sentencias preparadas de una conexión física del {@link ConnectionPool}, indexadas por {@link NamedQuery}.
+ * <p>
+ * Con {@code useServerPrepStmts=true} cada {@code prepareStatement} obliga al servidor
+ * a analizar y planificar la sentencia. La caché conserva la sentencia compilada
+ * mientras viva la conexión, de modo que las siguientes ejecuciones sólo envían los
+ * parámetros. Se obtiene con {@link IDBConnection#prepare(Connection, NamedQuery)}.
+ * </p>
+ * <p>
+ * Las sentencias pertenecen a la caché: quien las usa cierra sus {@code ResultSet}
+ * pero nunca la sentencia. Se cierran junto con la conexión física. Como una conexión
+ * sólo la usa el hilo que la tomó del pool, la caché no necesita sincronización.
+ * </p>
+ * @author Luigi
+ * @version 1.4
+ * @since 2026-10-17
+ */
+public final class StatementCache {
+
+    private static final AtomicLong HITS = new AtomicLong();
+    private static final AtomicLong MISSES = new AtomicLong();
+
+    private final Connection physical;
+    private final Map<NamedQuery, PreparedStatement> statements = new EnumMap<>(NamedQuery.class);
+    /** {@code fetchSize} con el que el driver crea las sentencias; {@code -1} hasta preparar la primera. */
+    private int defaultFetchSize = -1;
+
+    StatementCache(Connection physical) {
+        this.physical = physical;
+    }
+
+    /**
+     * Obtiene la sentencia preparada de una consulta, preparándola si es la primera vez.
+     * @param query La consulta requerida.
+     * @return La sentencia en caché; no debe cerrarse.
+     * @throws SQLException Si el servidor rechaza la sentencia.
+     */
+    public PreparedStatement get(NamedQuery query) throws SQLException {
+        PreparedStatement statement = statements.get(query);
+        if (statement != null && !statement.isClosed()) {
+            HITS.incrementAndGet();
+            return statement;
+        }
+        MISSES.incrementAndGet();
+        statement = query.prepare(physical);
+        if (defaultFetchSize < 0) {
+            defaultFetchSize = statement.getFetchSize();
+        }
+        statements.put(query, statement);
+        return statement;
+    }
+
+    /**
+     * Devuelve las sentencias al {@code fetchSize} con el que se crearon.
+     * <p>
+     * Los flujos de los DAOs cambian el {@code fetchSize} de la sentencia en caché para
+     * recorrerla como cursor; sin restablecerlo, el siguiente dueño de la conexión
+     * heredaría ese modo aunque materialice el resultado completo.
+     * </p>
+     * @throws SQLException Si el driver rechaza el valor.
+     */
+    void resetFetchSize() throws SQLException {
+        for (PreparedStatement statement : statements.values()) {
+            if (!statement.isClosed() && statement.getFetchSize() != defaultFetchSize) {
+                statement.setFetchSize(defaultFetchSize);
+            }
+        }
+    }
+
+    /** @return Cantidad de sentencias preparadas en esta conexión. */
+    public int size() {
+        return statements.size();
+    }
+
+    /**
+     * Cierra todas las sentencias de la conexión.
+     */
+    void close() {
+        for (PreparedStatement statement : statements.values()) {
+            try {
+                statement.close();
+            } catch (SQLException e) {
+                System.err.println("Error al cerrar sentencia en caché: " + e.getMessage());
+            }
+        }
+        statements.clear();
+    }
+
+    /** @return Cantidad de veces que se reutilizó una sentencia ya preparada (todas las conexiones). */
+    public static long getHitCount() {
+        return HITS.get();
+    }
+
+    /** @return Cantidad de veces que hubo que preparar una sentencia (todas las conexiones). */
+    public static long getMissCount() {
+        return MISSES.get();
+    }
+
+    /** @return Proporción de aciertos entre 0 y 1. */
+    public static double getHitRatio() {
+        long hits = HITS.get();
+        long total = hits + MISSES.get();
+        return total == 0 ? 0 : (double) hits / total;
+    }
+
+    /**
+     * Resume los aciertos y fallos de la caché en una línea legible.
+     * @return Cadena con aciertos, fallos y proporción de aciertos.
+     */
+    public static String getStats() {
+        return String.format("StatementCache[aciertos=%d, fallos=%d, proporcion=%.2f]",
+                getHitCount(), getMissCount(), getHitRatio());
+    }
+}
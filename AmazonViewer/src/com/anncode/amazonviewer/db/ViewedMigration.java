@@ -0,0 +1,198 @@
+package com.anncode.amazonviewer.db;
+
+import com.anncode.amazonviewer.db.DataBase.TViewed;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Migración de la tabla {@code viewed} a una fila por usuario y elemento.
+ * <p>
+ * Hasta ahora cada visualización insertaba una fila nueva, de modo que la tabla crecía
+ * sin límite con las repeticiones. La migración:
+ * </p>
+ * <ol>
+ *     <li>Agrega la columna {@link TViewed#VIEW_COUNT} si no existe.</li>
+ *     <li>Colapsa los duplicados de (id_user, id_material, id_element) en la fila de menor
+ *     {@code id}, sumando sus conteos y conservando la fecha más reciente.</li>
+ *     <li>Crea la llave única {@link TViewed#UNIQUE_KEY}, que permite a
+ *     {@code ViewedWriteQueue} registrar con {@code INSERT ... ON DUPLICATE KEY UPDATE}.</li>
+ *     <li>Crea el índice {@link TViewed#USER_DATE_INDEX}, que usan los reportes por fecha.</li>
+ * </ol>
+ * <p>
+ * Cada paso comprueba el estado actual, por lo que la migración puede ejecutarse más de una vez.
+ * En MySQL es un paso explícito de despliegue ({@code java com.anncode.amazonviewer.db.ViewedMigration}):
+ * el {@link ConnectionPool} sólo comprueba con {@link #check(Connection)} que la columna y la
+ * llave única existan, y no entrega conexiones si faltan. La base de datos embebida la aplica
+ * al crear su esquema.
+ * </p>
+ * @author Luigi
+ * @version 1.4
+ * @since 2026-10-17
+ */
+public final class ViewedMigration implements IDBConnection {
+
+    private static final String DEDUP_TABLE = "viewed_dedup";
+
+    /**
+     * Aplica la migración completa sobre la base de datos configurada.
+     * <p>
+     * Usa una conexión directa y no la del {@link ConnectionPool}, que se niega a entregar
+     * conexiones mientras la tabla no esté migrada.
+     * </p>
+     * @throws RuntimeException Si alguno de los pasos falla; los pasos ya aplicados se conservan.
+     */
+    public void migrate() {
+        DatabaseBackend backend = DatabaseBackend.get();
+        try (Connection connection = DriverManager.getConnection(backend.url(), backend.user(), backend.password())) {
+            if (!apply(connection)) {
+                System.out.println(">>> La tabla " + TViewed.NAME + " ya está migrada.");
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Fallo crítico: No se pudo migrar la tabla " + TViewed.NAME, e);
+        }
+    }
+
+    /**
+     * Comprueba, sin modificar nada, que la tabla tenga la columna {@link TViewed#VIEW_COUNT}
+     * y la llave única {@link TViewed#UNIQUE_KEY}, de las que depende el {@code upsert} de
+     * {@code ViewedWriteQueue}. El {@link ConnectionPool} lo invoca con su primera conexión.
+     * La falta del índice {@link TViewed#USER_DATE_INDEX} sólo se advierte: hace lentos los
+     * reportes por fecha, pero no los invalida.
+     * @param connection La conexión a utilizar.
+     * @throws SQLException Si falta la columna o la llave; el mensaje indica cómo migrar.
+     */
+    static void check(Connection connection) throws SQLException {
+        StringBuilder missing = new StringBuilder();
+        if (!hasColumn(connection, TViewed.VIEW_COUNT)) {
+            missing.append("columna ").append(TViewed.VIEW_COUNT);
+        }
+        if (!hasIndex(connection, TViewed.UNIQUE_KEY, true)) {
+            missing.append(missing.length() == 0 ? "" : " y ").append("llave única ").append(TViewed.UNIQUE_KEY);
+        }
+        if (missing.length() > 0) {
+            throw new SQLException("La tabla " + TViewed.NAME + " no está migrada (falta " + missing +
+                    "); ejecute java com.anncode.amazonviewer.db.ViewedMigration antes de iniciar la aplicación");
+        }
+        if (!hasIndex(connection, TViewed.USER_DATE_INDEX, false)) {
+            System.err.println("Falta el índice " + TViewed.USER_DATE_INDEX + "; los reportes por fecha recorrerán " +
+                    TViewed.NAME + " completa hasta ejecutar ViewedMigration.");
+        }
+    }
+
+    /**
+     * Aplica los pasos que falten sobre una conexión. La base de datos embebida lo invoca
+     * al crear su esquema (ver {@link ConnectionPool}).
+     * @param connection La conexión a utilizar.
+     * @return {@code true} si se aplicó algún paso; {@code false} si la tabla ya estaba migrada.
+     * @throws SQLException Si alguno de los pasos falla; los pasos ya aplicados se conservan.
+     */
+    static boolean apply(Connection connection) throws SQLException {
+        boolean changed = false;
+        if (!hasColumn(connection, TViewed.VIEW_COUNT)) {
+            changed = true;
+            execute(connection, "ALTER TABLE " + TViewed.NAME +
+                    " ADD COLUMN " + TViewed.VIEW_COUNT + " INT NOT NULL DEFAULT 1");
+            System.out.println(">>> Columna " + TViewed.VIEW_COUNT + " agregada.");
+        }
+
+        if (!hasIndex(connection, TViewed.UNIQUE_KEY, true)) {
+            changed = true;
+            int removed = collapseDuplicates(connection);
+            System.out.println(">>> Filas duplicadas eliminadas: " + removed);
+
+            execute(connection, "ALTER TABLE " + TViewed.NAME +
+                    " ADD UNIQUE KEY " + TViewed.UNIQUE_KEY + " (" +
+                    TViewed.ID_USER + ", " + TViewed.ID_MATERIAL + ", " + TViewed.ID_ELEMENT + ")");
+            System.out.println(">>> Llave única " + TViewed.UNIQUE_KEY + " creada.");
+        }
+
+        if (!hasIndex(connection, TViewed.USER_DATE_INDEX, false)) {
+            changed = true;
+            execute(connection, "CREATE INDEX " + TViewed.USER_DATE_INDEX + " ON " + TViewed.NAME +
+                    " (" + TViewed.ID_USER + ", " + TViewed.DATE + ")");
+            System.out.println(">>> Índice " + TViewed.USER_DATE_INDEX + " creado.");
+        }
+        return changed;
+    }
+
+    /**
+     * Reduce cada grupo (id_user, id_material, id_element) a una sola fila en una transacción.
+     * @param connection La conexión a utilizar.
+     * @return La cantidad de filas eliminadas.
+     * @throws SQLException Si alguna sentencia falla; en ese caso se revierte todo el paso.
+     */
+    private static int collapseDuplicates(Connection connection) throws SQLException {
+        String key = TViewed.ID_USER + ", " + TViewed.ID_MATERIAL + ", " + TViewed.ID_ELEMENT;
+        String join = "v." + TViewed.ID_USER + " = d." + TViewed.ID_USER +
+                " AND v." + TViewed.ID_MATERIAL + " = d." + TViewed.ID_MATERIAL +
+                " AND v." + TViewed.ID_ELEMENT + " = d." + TViewed.ID_ELEMENT;
+
+        connection.setAutoCommit(false);
+        try (Statement stmt = connection.createStatement()) {
+            stmt.executeUpdate("DROP TEMPORARY TABLE IF EXISTS " + DEDUP_TABLE);
+            stmt.executeUpdate("CREATE TEMPORARY TABLE " + DEDUP_TABLE + " AS" +
+                    " SELECT MIN(" + TViewed.ID + ") AS " + TViewed.ID + ", " + key + "," +
+                    " SUM(" + TViewed.VIEW_COUNT + ") AS " + TViewed.VIEW_COUNT + "," +
+                    " MAX(" + TViewed.DATE + ") AS " + TViewed.DATE +
+                    " FROM " + TViewed.NAME +
+                    " GROUP BY " + key +
+                    " HAVING COUNT(*) > 1");
+
+            int removed = stmt.executeUpdate("DELETE v FROM " + TViewed.NAME + " v" +
+                    " JOIN " + DEDUP_TABLE + " d ON " + join +
+                    " WHERE v." + TViewed.ID + " <> d." + TViewed.ID);
+
+            stmt.executeUpdate("UPDATE " + TViewed.NAME + " v" +
+                    " JOIN " + DEDUP_TABLE + " d ON v." + TViewed.ID + " = d." + TViewed.ID +
+                    " SET v." + TViewed.VIEW_COUNT + " = d." + TViewed.VIEW_COUNT +
+                    ", v." + TViewed.DATE + " = d." + TViewed.DATE);
+
+            stmt.executeUpdate("DROP TEMPORARY TABLE " + DEDUP_TABLE);
+            connection.commit();
+            return removed;
+        } catch (SQLException e) {
+            connection.rollback();
+            throw e;
+        } finally {
+            connection.setAutoCommit(true);
+        }
+    }
+
+    private static boolean hasColumn(Connection connection, String column) throws SQLException {
+        DatabaseMetaData meta = connection.getMetaData();
+        try (ResultSet rs = meta.getColumns(connection.getCatalog(), null, TViewed.NAME, column)) {
+            return rs.next();
+        }
+    }
+
+    private static boolean hasIndex(Connection connection, String index, boolean unique) throws SQLException {
+        DatabaseMetaData meta = connection.getMetaData();
+        try (ResultSet rs = meta.getIndexInfo(connection.getCatalog(), null, TViewed.NAME, unique, false)) {
+            while (rs.next()) {
+                if (index.equalsIgnoreCase(rs.getString("INDEX_NAME"))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static void execute(Connection connection, String sql) throws SQLException {
+        try (Statement stmt = connection.createStatement()) {
+            stmt.executeUpdate(sql);
+        }
+    }
+
+    /**
+     * Punto de entrada para ejecutar la migración desde la línea de comandos.
+     * @param args No se utilizan.
+     */
+    public static void main(String[] args) {
+        new ViewedMigration().migrate();
+    }
+}
@@ -1,11 +1,12 @@
 package com.anncode.amazonviewer.model;
 
 import com.anncode.amazonviewer.dao.BookDAO;
+import com.anncode.amazonviewer.dao.PageCache;
 import com.anncode.util.AmazonUtil;
 
-import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Date;
+import java.util.List;
 
 /**
  * Es una clase que representa los libros en la aplicación.
@@ -21,7 +22,10 @@ public class Book extends Publication implements IVisualizable, BookDAO {
     private int id;
     private String isbn;
     private int timeReaded;
+    /** Páginas en memoria; {@code null} cuando se cargan bajo demanda con {@link PageCache} */
     private ArrayList<Page> pages;
+    /** Total de páginas del libro, conocido sin cargar su contenido */
+    private int pageCount;
 
     /**
      * Constructor para crear una instancia de la clase {@code Book}
@@ -30,7 +34,7 @@ public class Book extends Publication implements IVisualizable, BookDAO {
      * @param edititionDate Fecha de edición del libro.
      * @param editorial     Nombre del editorial del libro.
      * @param authors       Arreglo de autores del libro.
-     * @param pages         Lista de páginas del libro.
+     * @param pages         Lista de páginas del libro, o {@code null} para cargarlas bajo demanda.
      */
     public Book(String title, Date edititionDate, String editorial, String authors, ArrayList<Page> pages) {
         super(title, edititionDate, editorial);
@@ -92,8 +96,9 @@ public class Book extends Publication implements IVisualizable, BookDAO {
     }
 
     /**
-     * Obtiene la lista de páginas del libro.
-     * @return Un {@code ArrayList} de objetos {@link Page}.
+     * Obtiene la lista de páginas del libro cuando están en memoria.
+     * @return Un {@code ArrayList} de objetos {@link Page}, o {@code null} si las
+     * páginas se cargan bajo demanda (ver {@link #getPage(int)}).
      */
     public ArrayList<Page> getPages() {
         return pages;
@@ -115,6 +120,42 @@ public class Book extends Publication implements IVisualizable, BookDAO {
         this.pages = pages;
     }
 
+    /**
+     * Obtiene el total de páginas del libro.
+     * @return La cantidad de páginas en memoria o, si se cargan bajo demanda,
+     * el total registrado en la base de datos.
+     */
+    public int getPageCount() {
+        return pages != null ? pages.size() : pageCount;
+    }
+
+    /**
+     * Define el total de páginas del libro sin cargar su contenido.
+     * @param pageCount La cantidad de páginas registradas en la base de datos.
+     */
+    public void setPageCount(int pageCount) {
+        this.pageCount = pageCount;
+    }
+
+    /**
+     * Obtiene la página en la posición indicada.
+     * <p>
+     * Si las páginas no están en memoria, se solicitan a la {@link PageCache}
+     * compartida, que las carga por ventanas y precarga la ventana contigua.
+     * </p>
+     * @param position La posición de la página (0 = primera página).
+     * @return La {@link Page} solicitada, o {@code null} si no existe.
+     */
+    public Page getPage(int position) {
+        if (pages != null) {
+            return position < pages.size() ? pages.get(position) : null;
+        }
+        PageCache cache = PageCache.getInstance();
+        Page page = cache.getPage(getId(), position);
+        cache.prefetchAround(getId(), position, pageCount);
+        return page;
+    }
+
     /**
      * <p>
      * Construye una representación en cadena de texto detallada del libro.
@@ -125,9 +166,8 @@ public class Book extends Publication implements IVisualizable, BookDAO {
      */
     @Override
     public String toString() {
-        // Creamos el formato deseado: día/mes/año
-        SimpleDateFormat sdf = new SimpleDateFormat("dd/MM/yyyy");
-        String dateFormated = sdf.format(getEditionDate());
+        // Formato día/mes/año compartido por todas las publicaciones
+        String dateFormated = formatEditionDate();
 
         String detailBook = "\n :: DETALLES DEL LIBRO ::" +
                 "\n Título: " + getTitle() +
@@ -138,10 +178,8 @@ public class Book extends Publication implements IVisualizable, BookDAO {
         String[] authors = getAuthors();
 
         if (authors != null && authors.length > 0) {
-            for (int i = 0; i < authors.length; i++) {
-                // Añadimos el autor y una coma si no es el último
-                detailBook += authors[i] + (i < authors.length - 1 ? ", " : "");
-            }
+            // Autores separados por coma
+            detailBook += String.join(", ", authors);
         } else {
             detailBook += "Sin autores registrados";
         }
@@ -171,8 +209,9 @@ public class Book extends Publication implements IVisualizable, BookDAO {
     /**
      * Método que simula la lectura de un libro, calcula el tiempo transcurrido
      * y marca el libro como leído.
+     * @param session La sesión del usuario que lee el libro.
      */
-    public void view() {
+    public void view(Session session) {
         // 1. Iniciamos en false para asegurar que solo la lectura completa lo cambie
         setReaded(false);
         Date dateI = startToSee(new Date());
@@ -184,23 +223,24 @@ public class Book extends Publication implements IVisualizable, BookDAO {
         System.out.println(this.toString());
 
         do {
+            Page page = getPage(i);
             System.out.println("==============================================");
             System.out.println(" LEYENDO: " + getTitle().toUpperCase());
-            System.out.println(" Página: " + getPages().get(i).getNumber() + " de " + getPages().size());
+            System.out.println(" Página: " + (page != null ? page.getNumber() : i + 1) + " de " + getPageCount());
             System.out.println("----------------------------------------------");
-            System.out.println(getPages().get(i).getContent());
+            System.out.println(page != null ? page.getContent() : "Página no disponible.");
             System.out.println("==============================================\n");
 
             if (i > 0) System.out.println("1. Regresar Página");
-            if (i < getPages().size() - 1) System.out.println("2. Siguiente Página");
+            if (i < getPageCount() - 1) System.out.println("2. Siguiente Página");
             System.out.println("0. Cerrar Libro");
 
             response = AmazonUtil.validateUserResponseMenu(0, 2);
 
-            if (response == 2 && i < getPages().size() - 1) {
+            if (response == 2 && i < getPageCount() - 1) {
                 i++;
                 // Detectamos si el usuario llegó a la última página
-                if (i == getPages().size() - 1) {
+                if (i == getPageCount() - 1) {
                     finished = true;
                 }
             } else if (response == 1 && i > 0) {
@@ -210,11 +250,11 @@ public class Book extends Publication implements IVisualizable, BookDAO {
         } while (response != 0);
 
         // 2. Lógica de Persistencia: Solo si leyó hasta el final
-        if (finished || getPages().size() == 1) {
+        if (finished || getPageCount() == 1) {
             setReaded(true); // Actualizamos objeto en memoria
 
             // INSERT en la base de datos (Tabla viewed)
-            this.setBookRead(this);
+            this.setBookRead(session, this);
 
             System.out.println("**********************************************");
             System.out.println(" ¡LIBRO COMPLETADO! Registrado en tu historial.");
@@ -226,21 +266,42 @@ public class Book extends Publication implements IVisualizable, BookDAO {
     }
 
     /**
-     * Genera datos de prueba para los libros.
+     * Carga el catálogo de libros desde la base de datos.
+     * <p>
+     * Sólo se obtiene el total de páginas de cada libro con
+     * {@link BookDAO#readPageCounts(java.util.List)}; el contenido se carga
+     * bajo demanda mientras se lee (ver {@link #getPage(int)}).
+     * </p>
+     * @param session La sesión del usuario, para marcar los libros leídos.
      * @return Un {@code ArrayList} de objetos {@link Book}.
      */
-    public static ArrayList<Book> makeBookList() {
+    public static ArrayList<Book> makeBookList(Session session) {
         BookDAO bookDAO = new BookDAO() {};
-        ArrayList<Book> books = bookDAO.read();
+        ArrayList<Book> books = bookDAO.read(session);
+        loadPageCounts(books);
+        return books;
+    }
 
-        for (Book book : books) {
-            ArrayList<Page> pagesFromDB = bookDAO.readPages(book.getId());
+    /**
+     * Asigna el total de páginas a cada libro y una página de aviso a los que no tienen contenido.
+     * @param books Los libros recién leídos (el catálogo completo o una página del menú).
+     */
+    public static void loadPageCounts(List<Book> books) {
+        new BookDAO() {}.readPageCounts(books);
+        addPlaceholderPages(books);
+    }
 
-            if (pagesFromDB.isEmpty()) {
-                pagesFromDB.add(new Page(1, "Sin contenido en DB."));
+    /**
+     * Asigna una página de aviso a los libros que no tienen contenido.
+     * @param books Los libros con su total de páginas ya asignado.
+     */
+    public static void addPlaceholderPages(List<Book> books) {
+        for (Book book : books) {
+            if (book.getPageCount() == 0) {
+                ArrayList<Page> placeholder = new ArrayList<>();
+                placeholder.add(new Page(1, "Sin contenido en DB."));
+                book.setPages(placeholder);
             }
-            book.setPages(pagesFromDB);
         }
-        return books;
     }
 }
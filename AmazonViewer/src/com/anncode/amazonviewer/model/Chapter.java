@@ -3,8 +3,6 @@ package com.anncode.amazonviewer.model;
 import com.anncode.amazonviewer.dao.ChapterDAO;
 import com.anncode.amazonviewer.dao.SerieDAO;
 
-import java.sql.Connection;
-import java.sql.SQLException;
 import java.util.ArrayList;
 
 /**
@@ -93,53 +91,51 @@ public class Chapter extends Movie implements ChapterDAO {
 
     /**
      * Obtiene los capítulos de la DB.
+     * @param session La sesión del usuario, para marcar los capítulos vistos.
      * @param serie Serie.
      * @return {@code ArrayList<Chapter>} con los capítulos de la serie dada.
      */
-    public static ArrayList<Chapter> makeChaptersList(Serie serie) {
+    public static ArrayList<Chapter> makeChaptersList(Session session, Serie serie) {
         ChapterDAO chapterDAO = new ChapterDAO() {};
-        return chapterDAO.read(serie.getId()); // Lee los capítulos asociados al ID de la serie
+        return chapterDAO.read(session, serie.getId()); // Lee los capítulos asociados al ID de la serie
     }
 
     /**
-     * {@inheritDoc}
-     * <p>
-     * Sobrescribe el comportamiento para marcar el capítulo como visto y
-     * verifica si todos los capítulos de la serie han sido visualizados.
-     * De ser así, marca automáticamente la {@link Serie} como vista.
-     * </p>
+     * {@link Movie#view(Session)} registra la reproducción con este método: un capítulo
+     * se registra como material "Chapter", no como película, para que cuente al
+     * verificar si la serie está completa.
+     * @param session La sesión del usuario.
+     * @param movie   El elemento reproducido.
+     * @return El elemento con su estado actualizado.
      */
     @Override
-    public void view() {
-        super.view(); // Marca el capítulo como visto en DB
-
-        ArrayList<Chapter> chapters = getSerie().getChapters();
-        int chapterViewedCounter = 0;
-
-        if (chapters != null) {
-            for (Chapter chapter : chapters) {
-                if (chapter.getIsViewed()) {
-                    chapterViewedCounter++;
-                }
-            }
-
-            if (chapterViewedCounter == chapters.size()) {
-                // 1. Marcar en memoria
-                getSerie().setViewed(true);
-                // 2. Marcar en Base de Datos usando el DAO
-                SerieDAO serieDAO = new SerieDAO() {};
-                serieDAO.setSerieViewed(getSerie());
-            }
+    public Movie setMovieViewed(Session session, Movie movie) {
+        if (movie instanceof Chapter) {
+            return setChapterViewed(session, (Chapter) movie);
         }
+        return super.setMovieViewed(session, movie);
     }
 
     /**
-     * Obtiene el identificador del material dado el nombre del material.
      * {@inheritDoc}
+     * <p>
+     * Sobrescribe el comportamiento para marcar el capítulo como visto y
+     * verifica si todos los capítulos de la serie han sido visualizados.
+     * De ser así, marca automáticamente la {@link Serie} como vista.
+     * </p>
      */
     @Override
-    public int getMaterialIdByName(String name, Connection conn) throws SQLException {
-        // Le indicamos que use la implementación de ChapterDAO (o MovieDAO, son idénticas)
-        return ChapterDAO.super.getMaterialIdByName(name, conn);
+    public void view(Session session) {
+        super.view(session); // Marca el capítulo como visto en DB
+
+        // El historial en memoria responde con una intersección, sin recorrer los capítulos
+        // Una serie ya marcada no se vuelve a registrar al repetir un capítulo
+        if (!getSerie().getIsViewed() && getSerie().isCompletelyViewed(session.getViewedIndex())) {
+            // 1. Marcar en memoria
+            getSerie().setViewed(true);
+            // 2. Marcar en Base de Datos usando el DAO
+            SerieDAO serieDAO = new SerieDAO() {};
+            serieDAO.setSerieViewed(session, getSerie());
+        }
     }
 }
@@ -4,7 +4,7 @@ package com.anncode.amazonviewer.model;
  * Clase padre abstracta de la familia Films.
  * <p>
  * Esta clase es la base para todas las producciones. Como es abstracta
- * no puede crearse instancias. Contiene el método {@code view()}
+ * no puede crearse instancias. Contiene el método {@code view(Session)}
  * que es obligatorio implementar.
  * </p>
  * @author Luigi
@@ -164,9 +164,10 @@ public abstract class Film {
     }
 
     /**
-     * {@code view()} es un método abstracto obligatorio de implementar.
+     * {@code view(Session)} es un método abstracto obligatorio de implementar.
      * Define la lógica de negocio para marcar un contenido como visualizado.
+     * @param session La sesión del usuario que visualiza el contenido.
      */
-    public abstract void view();
+    public abstract void view(Session session);
 
 }
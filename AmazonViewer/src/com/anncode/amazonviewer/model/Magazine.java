@@ -1,8 +1,8 @@
 package com.anncode.amazonviewer.model;
 
 import com.anncode.amazonviewer.dao.MagazineDAO;
+import com.anncode.util.AmazonUtil;
 
-import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Date;
 
@@ -57,9 +57,8 @@ public class Magazine extends Publication implements MagazineDAO {
      */
     @Override
     public String toString() {
-        // Creamos el formato deseado: día/mes/año
-        SimpleDateFormat sdf = new SimpleDateFormat("dd/MM/yyyy");
-        String dateFormated = sdf.format(getEditionDate());
+        // Formato día/mes/año compartido por todas las publicaciones
+        String dateFormated = formatEditionDate();
 
         String detailMagazine = "\n :: DETALLES DE LA REVISTA ::" +
                     "\n Título: " + getTitle() +
@@ -70,10 +69,8 @@ public class Magazine extends Publication implements MagazineDAO {
         String[] authors = getAuthors();
 
         if (authors != null && authors.length > 0) {
-            for (int i = 0; i < authors.length; i++) {
-                // Añadimos el autor y una coma si no es el último
-                detailMagazine += authors[i] + (i < authors.length - 1 ? ", " : "");
-            }
+            // Autores separados por coma
+            detailMagazine += String.join(", ", authors);
         } else {
             detailMagazine += "Sin autores registrados";
         }
@@ -86,25 +83,27 @@ public class Magazine extends Publication implements MagazineDAO {
      * Se utiliza para poblar la interfaz de usuario con datos de prueba
      * durante la ejecución inicial del programa.
      * </p>
+     * @param session La sesión del usuario, para marcar las revistas leídas.
      * @return Un {@code ArrayList} con 5 ejemplares de {@link Magazine} inicializados.
      */
-    public static ArrayList<Magazine> makeMagazineList() {
+    public static ArrayList<Magazine> makeMagazineList(Session session) {
         MagazineDAO magazineDAO = new MagazineDAO() {};
-        return magazineDAO.read();
+        return magazineDAO.read(session);
     }
 
     /**
      * Método que simula la visualización de una revista.
      * Al ejecutarse, muestra la ficha técnica y marca automáticamente
      * la revista como leída en la Base de Datos.
+     * @param session La sesión del usuario que abre la revista.
      */
-    public void view() {
+    public void view(Session session) {
         // 1. Marcamos como leído en el objeto (Memoria)
         setReaded(true);
 
         // 2. Persistencia: Guardar en la tabla 'viewed' de MySQL
         // Como Magazine implementa MagazineDAO, podemos llamar al método default
-        this.setMagazineRead(this);
+        this.setMagazineRead(session, this);
 
         // 3. Feedback visual para el usuario
         System.out.println("==============================================");
@@ -112,14 +111,12 @@ public class Magazine extends Publication implements MagazineDAO {
         System.out.println("==============================================");
 
         // Simulación de carga rápida
-        try {
+        if (AmazonUtil.isAnimations()) {
             System.out.print("Cargando contenido");
             for (int i = 0; i < 3; i++) {
-                Thread.sleep(300);
+                AmazonUtil.pause(300);
                 System.out.print(".");
             }
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
         }
 
         // 4. Mostrar la información técnica (toString corregido anteriormente)
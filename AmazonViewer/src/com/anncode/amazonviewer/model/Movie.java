@@ -1,6 +1,7 @@
 package com.anncode.amazonviewer.model;
 
 import com.anncode.amazonviewer.dao.MovieDAO;
+import com.anncode.util.AmazonUtil;
 import java.util.ArrayList;
 import java.util.Date;
 
@@ -121,11 +122,12 @@ public class Movie extends Film implements IVisualizable, MovieDAO {
 
     /**
      * Método estático que genera una lista de películas de prueba.
+     * @param session La sesión del usuario, para marcar las películas vistas.
      * @return Un {@code ArrayList} con objetos {@link Movie} para inicializar la aplicación.
      */
-    public static ArrayList<Movie> makeMoviesList() {
+    public static ArrayList<Movie> makeMoviesList(Session session) {
         MovieDAO movieDAO = new MovieDAO() {};
-        return movieDAO.read();
+        return movieDAO.read(session);
     }
 
     /**
@@ -136,32 +138,29 @@ public class Movie extends Film implements IVisualizable, MovieDAO {
      * </p>
      */
     @Override
-    public void view() {
+    public void view(Session session) {
         // 1. Marcamos como visto en memoria
         setViewed(true);
 
         // 2. INSERT DINÁMICO: Llamamos al método de la interfaz MovieDAO
         // pasándole 'this' (esta película específica con su ID de la DB)
-        this.setMovieViewed(this);
+        this.setMovieViewed(session, this);
 
         Date dateI = startToSee(new Date());
 
         System.out.println("\nReproduciendo: " + getTitle());
 
         // Simulación de barra de progreso profesional
-        int totalPasos = 20;
-        for (int i = 0; i <= totalPasos; i++) {
-            StringBuilder bar = new StringBuilder("[");
-            for (int j = 0; j < totalPasos; j++) {
-                bar.append((j < i) ? "=" : " ");
-            }
-            bar.append("] ").append(i * 50 / totalPasos).append("%");
-            System.out.print("\r" + bar.toString());
-
-            try {
-                Thread.sleep(50);
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
+        if (AmazonUtil.isAnimations()) {
+            int totalPasos = 20;
+            for (int i = 0; i <= totalPasos; i++) {
+                StringBuilder bar = new StringBuilder("[");
+                for (int j = 0; j < totalPasos; j++) {
+                    bar.append((j < i) ? "=" : " ");
+                }
+                bar.append("] ").append(i * 50 / totalPasos).append("%");
+                System.out.print("\r" + bar.toString());
+                AmazonUtil.pause(50);
             }
         }
 
@@ -1,5 +1,8 @@
 package com.anncode.amazonviewer.model;
 
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
 import java.util.Date;
 
 /**
@@ -13,6 +16,12 @@ import java.util.Date;
  */
 public class Publication {
 
+    /**
+     * Formato día/mes/año de la fecha de edición. A diferencia de {@code SimpleDateFormat}
+     * es inmutable, así que una sola instancia sirve a todos los hilos que renderizan fichas.
+     */
+    private static final DateTimeFormatter EDITION_DATE_FORMAT = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+
     /** Título de la publicación */
     private String title;
     /** Fecha en la que se realizó la edición */
@@ -61,6 +70,16 @@ public class Publication {
         return editionDate;
     }
 
+    /**
+     * Da formato día/mes/año a la fecha de edición, en la zona horaria local.
+     * @return La fecha de edición formateada.
+     */
+    protected String formatEditionDate() {
+        // Instant.ofEpochMilli también acepta java.sql.Date, cuyo toInstant() no está soportado
+        return EDITION_DATE_FORMAT.format(
+                Instant.ofEpochMilli(editionDate.getTime()).atZone(ZoneId.systemDefault()));
+    }
+
     /**
      * Define la fecha de edición de la obra.
      * @param editionDate La fecha de edición a establecer.
@@ -1,6 +1,10 @@
 package com.anncode.amazonviewer.model;
 
+import com.anncode.amazonviewer.dao.ChapterDAO;
 import com.anncode.amazonviewer.dao.SerieDAO;
+import com.anncode.amazonviewer.dao.ViewedIndex;
+import com.anncode.amazonviewer.db.DataBase.MaterialNames;
+import com.anncode.util.RoaringBitmap;
 
 import java.util.ArrayList;
 
@@ -22,6 +26,8 @@ public class Serie extends Film {
     private int sessionQuantity;
     /** Listado de capítulos que componen la serie */
     private ArrayList<Chapter> chapters;
+    /** Identificadores de los capítulos, para cruzarlos con el historial del usuario */
+    private RoaringBitmap chapterIds = new RoaringBitmap();
 
     /**
      * Constructor por defecto de la clase {@code Serie}.
@@ -90,11 +96,42 @@ public class Serie extends Film {
     }
 
     /**
-     * Asigna una lista de capítulos a la serie.
+     * Asigna una lista de capítulos a la serie y los vincula a esta instancia.
      * @param chapters Colección de capítulos a establecer.
      */
     public void setChapters(ArrayList<Chapter> chapters) {
         this.chapters = chapters;
+        RoaringBitmap ids = new RoaringBitmap();
+        if (chapters != null) {
+            for (Chapter chapter : chapters) {
+                // Cada capítulo apunta a esta misma instancia para compartir su estado
+                chapter.setSerie(this);
+                ids.add(chapter.getId());
+            }
+        }
+        this.chapterIds = ids;
+    }
+
+    /**
+     * Obtiene los identificadores de los capítulos de la serie.
+     * <p>
+     * Permite contar los capítulos vistos con una intersección contra el
+     * {@link ViewedIndex} del usuario, sin recorrer la lista de capítulos.
+     * </p>
+     * @return Un {@link RoaringBitmap} con los {@code id} de los capítulos.
+     */
+    public RoaringBitmap getChapterIds() {
+        return chapterIds;
+    }
+
+    /**
+     * Indica si el usuario ya vio todos los capítulos de la serie según su historial.
+     * @param viewedIndex El índice de elementos vistos del usuario.
+     * @return {@code true} si la serie tiene capítulos y todos están registrados como vistos.
+     */
+    public boolean isCompletelyViewed(ViewedIndex viewedIndex) {
+        int total = chapterIds.getCardinality();
+        return total > 0 && viewedIndex.countViewed(MaterialNames.CHAPTER, chapterIds) == total;
     }
 
     /**
@@ -115,23 +152,21 @@ public class Serie extends Film {
     }
 
     /**
-     * Genera una lista de series predefinidas para pruebas.
+     * Carga el catálogo de series desde la base de datos junto con sus capítulos.
      * <p>
-     * Este método también se encarga de disparar la creación de capítulos
-     * para cada serie generada mediante {@link Chapter#makeChaptersList(Serie)}.
+     * Los capítulos de todas las series se obtienen con una sola consulta mediante
+     * {@link ChapterDAO#readChapters(Session, java.util.List)}, en lugar de una consulta por serie.
      * </p>
+     * @param session La sesión del usuario, para marcar las series y capítulos vistos.
      * @return Un {@code ArrayList} de objetos {@link Serie} con sus respectivos capítulos cargados.
      */
-    public static ArrayList<Serie> makeSeriesList() {
+    public static ArrayList<Serie> makeSeriesList(Session session) {
         SerieDAO serieDAO = new SerieDAO() {};
-        ArrayList<Serie> series = serieDAO.read(); // Carga las series desde la DB
+        ArrayList<Serie> series = serieDAO.read(session); // Carga las series desde la DB
 
-        for (Serie serie : series) {
-            // Obtenemos los capítulos de la DB
-            ArrayList<Chapter> chapters = Chapter.makeChaptersList(serie);
-            // LOS ASIGNAMOS A LA SERIE ACTUAL
-            serie.setChapters(chapters);
-        }
+        // Obtenemos los capítulos de todas las series y LOS ASIGNAMOS a cada una
+        ChapterDAO chapterDAO = new ChapterDAO() {};
+        chapterDAO.readChapters(session, series);
 
         return series;
     }
@@ -144,7 +179,7 @@ public class Serie extends Film {
      * </p>
      */
     @Override
-    public void view() {
+    public void view(Session session) {
         setViewed(true);
     }
 }
\ No newline at end of file
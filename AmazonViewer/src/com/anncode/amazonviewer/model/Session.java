@@ -0,0 +1,73 @@
+package com.anncode.amazonviewer.model;
+
+import com.anncode.amazonviewer.dao.CatalogSnapshot;
+import com.anncode.amazonviewer.dao.ViewedIndex;
+
+import java.util.Objects;
+
+/**
+ * Contexto de un usuario conectado: su identidad, su historial de vistos y el
+ * catálogo que está navegando.
+ * <p>
+ * Los DAOs y los modelos reciben la sesión de forma explícita en lugar de leer un
+ * usuario global, de modo que un mismo proceso puede atender muchas sesiones a la vez.
+ * El {@link ViewedIndex} está sincronizado y cada sesión tiene el suyo; los objetos del
+ * catálogo que entrega un DAO pertenecen a la sesión que los pidió, porque sus marcas
+ * de visto dependen del usuario.
+ * </p>
+ * @author Luigi
+ * @version 1.4
+ * @since 2026-10-17
+ */
+public final class Session {
+
+    private final User user;
+    private final ViewedIndex viewedIndex;
+    private volatile CatalogSnapshot catalog;
+
+    /**
+     * Crea la sesión de un usuario que ya inició sesión.
+     * <p>
+     * La sesión no consulta la base de datos: recibe el historial ya cargado (ver
+     * {@code UserDAO.openSession}), de modo que el modelo no depende de los DAOs.
+     * </p>
+     * @param user        El usuario, con su ID asignado por la base de datos.
+     * @param viewedIndex El historial de vistos del usuario, ya cargado.
+     */
+    public Session(User user, ViewedIndex viewedIndex) {
+        this.user = Objects.requireNonNull(user, "user");
+        this.viewedIndex = Objects.requireNonNull(viewedIndex, "viewedIndex");
+    }
+
+    /** @return El usuario de la sesión. */
+    public User getUser() {
+        return user;
+    }
+
+    /** @return El ID del usuario de la sesión. */
+    public int getUserId() {
+        return user.getId();
+    }
+
+    /** @return El historial de elementos vistos o leídos del usuario. */
+    public ViewedIndex getViewedIndex() {
+        return viewedIndex;
+    }
+
+    /**
+     * Obtiene el catálogo completo cargado para la sesión, si existe.
+     * @return El catálogo, o {@code null} si la sesión sólo navega por páginas o aún
+     * no lo necesitó (la consola lo carga con el primer reporte general).
+     */
+    public CatalogSnapshot getCatalog() {
+        return catalog;
+    }
+
+    /**
+     * Asigna el catálogo completo de la sesión.
+     * @param catalog El catálogo cargado, con las marcas de visto de este usuario.
+     */
+    public void setCatalog(CatalogSnapshot catalog) {
+        this.catalog = catalog;
+    }
+}
@@ -1,5 +1,7 @@
 package com.anncode.amazonviewer.model;
 
+import com.anncode.amazonviewer.dao.ViewedIndex;
+
 /**
  * Representa al usuario activo dentro de la aplicación.
  * <p>
@@ -15,6 +17,8 @@ package com.anncode.amazonviewer.model;
 public class User {
     private int id;
     private String name;
+    /** Historial de elementos vistos o leídos, cargado al iniciar sesión */
+    private ViewedIndex viewedIndex;
 
     /**
      * Constructor para inicializar un usuario con su nombre.
@@ -56,4 +60,21 @@ public class User {
     public void setName(String name) {
         this.name = name;
     }
-}
\ No newline at end of file
+
+    /**
+     * Obtiene el índice en memoria de los elementos vistos o leídos por el usuario.
+     * @return El {@link ViewedIndex} del usuario, o {@code null} si aún no se ha cargado.
+     */
+    public ViewedIndex getViewedIndex() {
+        return viewedIndex;
+    }
+
+    /**
+     * Asigna el índice de elementos vistos o leídos. Generalmente invocado por
+     * {@code UserDAO} al iniciar sesión.
+     * @param viewedIndex El índice cargado desde la tabla {@code viewed}.
+     */
+    public void setViewedIndex(ViewedIndex viewedIndex) {
+        this.viewedIndex = viewedIndex;
+    }
+}
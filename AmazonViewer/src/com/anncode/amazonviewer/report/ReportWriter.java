@@ -0,0 +1,165 @@
+package com.anncode.amazonviewer.report;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Escritor de reportes en streaming sobre un {@link FileChannel}.
+ * <p>
+ * Reemplaza la construcción del reporte completo en un {@code String} antes de
+ * escribirlo: cada entrada se codifica en UTF-8 a medida que se agrega y los bytes se
+ * vuelcan al canal cada vez que se llena el búfer. La memoria usada es la de los dos
+ * búferes, sin importar el tamaño del reporte, y el costo crece linealmente con la
+ * cantidad de entradas.
+ * </p>
+ * <p>
+ * Implementa {@link Appendable}, así que cualquier código que escriba sobre un
+ * {@code StringBuilder} puede escribir directamente al archivo. Debe cerrarse (por
+ * ejemplo con <i>try-with-resources</i>) para volcar lo pendiente.
+ * </p>
+ * @author Luigi
+ * @version 1.4
+ * @since 2026-10-17
+ */
+public final class ReportWriter implements Appendable, Closeable {
+
+    /** Tamaño en bytes del búfer de salida. */
+    public static final int BUFFER_SIZE = Integer.getInteger("amazonviewer.report.bufferSize", 64 * 1024);
+
+    private final FileChannel channel;
+    private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    private final CharBuffer chars = CharBuffer.allocate(8 * 1024);
+    private final ByteBuffer bytes = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    private long written;
+    private boolean closed;
+
+    private ReportWriter(FileChannel channel) {
+        this.channel = channel;
+    }
+
+    /**
+     * Crea (o reemplaza) el archivo del reporte.
+     * @param path La ruta del archivo.
+     * @return El escritor, que debe cerrarse al terminar.
+     * @throws IOException Si el archivo no se puede abrir.
+     */
+    public static ReportWriter open(Path path) throws IOException {
+        return new ReportWriter(FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE));
+    }
+
+    @Override
+    public ReportWriter append(CharSequence csq) throws IOException {
+        CharSequence text = csq == null ? "null" : csq;
+        return append(text, 0, text.length());
+    }
+
+    @Override
+    public ReportWriter append(CharSequence csq, int start, int end) throws IOException {
+        CharSequence text = csq == null ? "null" : csq;
+        ensureOpen();
+        int i = start;
+        while (i < end) {
+            int n = Math.min(chars.remaining(), end - i);
+            if (text instanceof String) {
+                chars.put((String) text, i, i + n);
+            } else {
+                for (int j = 0; j < n; j++) {
+                    chars.put(text.charAt(i + j));
+                }
+            }
+            i += n;
+            if (!chars.hasRemaining()) {
+                encode(false);
+            }
+        }
+        return this;
+    }
+
+    @Override
+    public ReportWriter append(char c) throws IOException {
+        ensureOpen();
+        chars.put(c);
+        if (!chars.hasRemaining()) {
+            encode(false);
+        }
+        return this;
+    }
+
+    /**
+     * Agrega un salto de línea.
+     * @return Este escritor.
+     * @throws IOException Si falla la escritura.
+     */
+    public ReportWriter newLine() throws IOException {
+        return append('\n');
+    }
+
+    /** @return Los bytes escritos en el canal hasta el momento. */
+    public long getBytesWritten() {
+        return written;
+    }
+
+    /**
+     * Vuelca lo pendiente y cierra el archivo.
+     * @throws IOException Si falla la escritura.
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            encode(true);
+            while (encoder.flush(bytes) == CoderResult.OVERFLOW) {
+                drain();
+            }
+            drain();
+        } finally {
+            channel.close();
+        }
+    }
+
+    /**
+     * Codifica los caracteres acumulados. Un surrogate alto al final queda en el búfer
+     * hasta recibir su pareja, salvo al cerrar.
+     */
+    private void encode(boolean endOfInput) throws IOException {
+        chars.flip();
+        while (true) {
+            CoderResult result = encoder.encode(chars, bytes, endOfInput);
+            if (result.isOverflow()) {
+                drain();
+            } else {
+                break;
+            }
+        }
+        chars.compact();
+    }
+
+    private void drain() throws IOException {
+        bytes.flip();
+        while (bytes.hasRemaining()) {
+            written += channel.write(bytes);
+        }
+        bytes.clear();
+    }
+
+    private void ensureOpen() throws IOException {
+        if (closed) {
+            throw new IOException("El reporte ya fue cerrado");
+        }
+    }
+}
@@ -0,0 +1,241 @@
+package com.anncode.amazonviewer.report;
+
+import com.anncode.amazonviewer.dao.BookDAO;
+import com.anncode.amazonviewer.dao.CatalogSnapshot;
+import com.anncode.amazonviewer.dao.ChapterDAO;
+import com.anncode.amazonviewer.dao.MovieDAO;
+import com.anncode.amazonviewer.dao.ViewedIndex;
+import com.anncode.amazonviewer.dao.ViewedWriteQueue;
+import com.anncode.amazonviewer.db.DataBase.MaterialNames;
+import com.anncode.amazonviewer.model.Book;
+import com.anncode.amazonviewer.model.Chapter;
+import com.anncode.amazonviewer.model.Movie;
+import com.anncode.amazonviewer.model.Serie;
+import com.anncode.amazonviewer.model.Session;
+import com.anncode.util.RoaringBitmap;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.ToIntFunction;
+import java.util.stream.Stream;
+
+/**
+ * Contenido del reporte de elementos vistos o leídos de una sesión.
+ * <p>
+ * Recorre el catálogo de la sesión y consulta el historial del usuario en su
+ * {@link ViewedIndex}, que es la fuente de verdad: los menús paginados trabajan con
+ * sus propias instancias, así que las marcas del catálogo cargado pueden estar atrasadas.
+ * </p>
+ * <p>
+ * El reporte de un día ({@link #writeDay(Session, LocalDate, Appendable)}) no recorre el
+ * catálogo: consulta en {@code viewed} sólo las filas de esa fecha, de modo que su costo
+ * depende de la actividad del día y no del historial acumulado. Como {@code viewed}
+ * guarda una fila por elemento con la fecha de su última visualización, el reporte de
+ * un día lista lo que se vio <i>por última vez</i> ese día.
+ * </p>
+ * <p>
+ * El reporte general renderiza las fichas en paralelo por tramos del catálogo (ver
+ * {@link #write(Session, Appendable, int)}) y las escribe en el orden del catálogo.
+ * </p>
+ * @author Luigi
+ * @version 1.4
+ * @since 2026-10-17
+ */
+public final class ViewedReport {
+
+    /** Elementos del catálogo por tramo renderizado en paralelo. */
+    public static final int CHUNK_SIZE = Integer.getInteger("amazonviewer.report.chunkSize", 2048);
+    /** Tramos renderizados en paralelo por defecto. */
+    public static final int PARALLELISM = Integer.getInteger("amazonviewer.report.parallelism",
+            Runtime.getRuntime().availableProcessors());
+
+    private ViewedReport() {
+    }
+
+    /**
+     * Construye el listado de películas, capítulos y libros vistos o leídos.
+     * @param session La sesión, con su catálogo cargado.
+     * @return El texto del reporte, una ficha por elemento.
+     */
+    public static String content(Session session) {
+        StringBuilder content = new StringBuilder();
+        try {
+            write(session, content);
+        } catch (IOException e) {
+            // StringBuilder no lanza IOException
+            throw new UncheckedIOException(e);
+        }
+        return content.toString();
+    }
+
+    /**
+     * Escribe el listado de vistos o leídos con {@link #PARALLELISM} tramos en curso.
+     * @param session La sesión, con su catálogo cargado.
+     * @param out     El destino, normalmente un {@link ReportWriter}.
+     * @return La cantidad de fichas escritas.
+     * @throws IOException Si falla la escritura.
+     * @see #write(Session, Appendable, int)
+     */
+    public static int write(Session session, Appendable out) throws IOException {
+        return write(session, out, PARALLELISM);
+    }
+
+    /**
+     * Escribe el listado de vistos o leídos sin construir el texto completo en memoria.
+     * <p>
+     * Cada catálogo (películas, capítulos en el orden de sus series y libros) se divide en
+     * tramos de {@link #CHUNK_SIZE} elementos que se renderizan como tareas del
+     * {@link ForkJoinPool#commonPool()}. El hilo que llama escribe los tramos en su orden
+     * original a medida que terminan, de modo que el resultado es idéntico al de un
+     * recorrido secuencial. Sólo hay {@code parallelism * 2} tramos en curso a la vez:
+     * la memoria depende del tamaño del tramo y no del reporte.
+     * </p>
+     * @param session     La sesión, con su catálogo cargado.
+     * @param out         El destino, normalmente un {@link ReportWriter}.
+     * @param parallelism La cantidad de tramos a renderizar en paralelo; con {@code 1} todo
+     *                    se renderiza en el hilo que llama.
+     * @return La cantidad de fichas escritas.
+     * @throws IOException Si falla la escritura.
+     */
+    public static int write(Session session, Appendable out, int parallelism) throws IOException {
+        ViewedIndex viewed = session.getViewedIndex();
+        CatalogSnapshot catalog = session.getCatalog();
+
+        List<Chapter> chapters = new ArrayList<>();
+        for (Serie serie : catalog.getSeries()) {
+            chapters.addAll(serie.getChapters());
+        }
+
+        // Copias del historial: los tramos las consultan sin competir por el candado del índice
+        List<RenderTask<?>> tasks = new ArrayList<>();
+        split(tasks, catalog.getMovies(), viewed.copyOf(MaterialNames.MOVIE), Movie::getId);
+        split(tasks, chapters, viewed.copyOf(MaterialNames.CHAPTER), Chapter::getId);
+        split(tasks, catalog.getBooks(), viewed.copyOf(MaterialNames.BOOK), Book::getId);
+
+        int entries = 0;
+        if (parallelism <= 1 || tasks.size() <= 1) {
+            for (RenderTask<?> task : tasks) {
+                out.append(task.invoke());
+                entries += task.entries;
+            }
+            return entries;
+        }
+
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+        int window = parallelism * 2;
+        for (int i = 0; i < Math.min(window, tasks.size()); i++) {
+            pool.execute(tasks.get(i));
+        }
+        for (int i = 0; i < tasks.size(); i++) {
+            RenderTask<?> task = tasks.get(i);
+            try {
+                out.append(task.join());
+            } catch (IOException | RuntimeException e) {
+                for (int j = i + 1; j < Math.min(i + window, tasks.size()); j++) {
+                    tasks.get(j).cancel(false);
+                }
+                throw e;
+            }
+            entries += task.entries;
+            tasks.set(i, null); // El texto del tramo ya se escribió
+            if (i + window < tasks.size()) {
+                pool.execute(tasks.get(i + window));
+            }
+        }
+        return entries;
+    }
+
+    private static <T> void split(List<RenderTask<?>> tasks, List<T> elements, RoaringBitmap viewed,
+                                  ToIntFunction<T> idOf) {
+        for (int from = 0; from < elements.size(); from += CHUNK_SIZE) {
+            int to = Math.min(elements.size(), from + CHUNK_SIZE);
+            tasks.add(new RenderTask<>(elements.subList(from, to), viewed, idOf));
+        }
+    }
+
+    /**
+     * Tramo del reporte: renderiza las fichas de los elementos vistos de una porción del
+     * catálogo. Sólo lee sus elementos y una copia inmutable del historial.
+     */
+    private static final class RenderTask<T> extends RecursiveTask<String> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final List<T> elements;
+        private final RoaringBitmap viewed;
+        private final ToIntFunction<T> idOf;
+        /** Fichas escritas; visible para quien haya esperado la tarea con {@code join()}. */
+        private int entries;
+
+        RenderTask(List<T> elements, RoaringBitmap viewed, ToIntFunction<T> idOf) {
+            this.elements = elements;
+            this.viewed = viewed;
+            this.idOf = idOf;
+        }
+
+        @Override
+        protected String compute() {
+            StringBuilder text = new StringBuilder();
+            for (T element : elements) {
+                if (viewed.contains(idOf.applyAsInt(element))) {
+                    text.append(element.toString()).append('\n');
+                    entries++;
+                }
+            }
+            return text.toString();
+        }
+    }
+
+    /**
+     * Escribe las películas, capítulos y libros que el usuario vio o leyó por última vez en un día.
+     * <p>
+     * La tabla {@code viewed} guarda una fila por (usuario, material, elemento): volver a
+     * ver un elemento incrementa su {@code view_count} y mueve su fecha a la más reciente
+     * ({@link com.anncode.amazonviewer.db.NamedQuery#VIEWED_UPSERT}). Un elemento visto
+     * este día y de nuevo otro día posterior aparece sólo en el reporte de ese otro día.
+     * </p>
+     * <p>
+     * Antes de consultar se vuelcan las visualizaciones pendientes de la
+     * {@link ViewedWriteQueue}, para que el reporte incluya las de la sesión actual.
+     * Cada sección es una consulta por rango sobre el índice (id_user, date) cuyas filas
+     * se escriben a medida que llegan.
+     * </p>
+     * @param session La sesión del usuario.
+     * @param day     El día del reporte, en la zona horaria local.
+     * @param out     El destino, normalmente un {@link ReportWriter}.
+     * @return La cantidad de fichas escritas.
+     * @throws IOException Si falla la escritura.
+     */
+    public static int writeDay(Session session, LocalDate day, Appendable out) throws IOException {
+        if (!ViewedWriteQueue.getInstance().flush()) {
+            System.err.println("Hay visualizaciones sin guardar: el reporte puede estar incompleto.");
+        }
+        Timestamp from = Timestamp.valueOf(day.atStartOfDay());
+        Timestamp to = Timestamp.valueOf(day.plusDays(1).atStartOfDay());
+
+        int entries = writeAll(new MovieDAO() {}.streamViewedMovies(session, from, to), out);
+        entries += writeAll(new ChapterDAO() {}.streamViewedChapters(session, from, to), out);
+        entries += writeAll(new BookDAO() {}.streamViewedBooks(session, from, to), out);
+        return entries;
+    }
+
+    /** Escribe una ficha por elemento del flujo y lo cierra, liberando su conexión. */
+    private static int writeAll(Stream<?> rows, Appendable out) throws IOException {
+        int entries = 0;
+        try (Stream<?> elements = rows) {
+            Iterator<?> it = elements.iterator();
+            while (it.hasNext()) {
+                out.append(it.next().toString()).append('\n');
+                entries++;
+            }
+        }
+        return entries;
+    }
+}
@@ -0,0 +1,353 @@
+package com.anncode.amazonviewer.server;
+
+import com.anncode.amazonviewer.dao.BookDAO;
+import com.anncode.amazonviewer.dao.CatalogPage;
+import com.anncode.amazonviewer.dao.CatalogPager.PageReader;
+import com.anncode.amazonviewer.dao.ChapterDAO;
+import com.anncode.amazonviewer.dao.MagazineDAO;
+import com.anncode.amazonviewer.dao.MovieDAO;
+import com.anncode.amazonviewer.dao.PageCache;
+import com.anncode.amazonviewer.dao.SerieDAO;
+import com.anncode.amazonviewer.dao.ViewedWriteQueue;
+import com.anncode.amazonviewer.db.ConnectionPool;
+import com.anncode.amazonviewer.db.StatementCache;
+import com.anncode.amazonviewer.model.Chapter;
+import com.anncode.amazonviewer.model.Page;
+import com.anncode.amazonviewer.model.Serie;
+import com.anncode.amazonviewer.model.Session;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+
+/**
+ * Atiende las rutas {@code /api/...} del {@link CatalogServer}.
+ * <p>
+ * Rutas disponibles ({@code {catalogo}} es {@code movies}, {@code series}, {@code books}
+ * o {@code magazines}):
+ * </p>
+ * <ul>
+ *     <li>{@code GET /api/{catalogo}?after=id|before=id&size=n}: una página del catálogo.</li>
+ *     <li>{@code GET /api/{catalogo}/{id}}: la ficha de un elemento.</li>
+ *     <li>{@code POST /api/{catalogo}/{id}/viewed}: marca el elemento como visto o leído
+ *     (las series se marcan solas al ver su último capítulo).</li>
+ *     <li>{@code GET /api/series/{id}/chapters}: los capítulos de una serie.</li>
+ *     <li>{@code POST /api/series/{id}/chapters/{idCapitulo}/viewed}: marca un capítulo.</li>
+ *     <li>{@code GET /api/books/{id}/pages?offset=n&limit=n}: una ventana de páginas.</li>
+ *     <li>{@code GET /api/stats}: métricas del pool, las sentencias y la cola de escritura.</li>
+ * </ul>
+ * <p>
+ * Todas las rutas, salvo {@code stats}, identifican al usuario con la cabecera
+ * {@code X-User}; el servidor mantiene una {@link Session} por usuario.
+ * </p>
+ * @author Luigi
+ * @version 1.4
+ * @since 2026-10-17
+ */
+final class CatalogHandler implements HttpHandler {
+
+    /** Tamaño de página cuando la petición no lo indica. */
+    static final int DEFAULT_PAGE_SIZE = 20;
+    /** Tamaño máximo de página o de ventana de páginas de libro. */
+    static final int MAX_PAGE_SIZE = 100;
+    private static final List<String> CATALOGS = Arrays.asList("movies", "series", "books", "magazines");
+
+    private final CatalogServer server;
+    private final MovieDAO movieDAO = new MovieDAO() {};
+    private final SerieDAO serieDAO = new SerieDAO() {};
+    private final ChapterDAO chapterDAO = new ChapterDAO() {};
+    private final BookDAO bookDAO = new BookDAO() {};
+    private final MagazineDAO magazineDAO = new MagazineDAO() {};
+
+    CatalogHandler(CatalogServer server) {
+        this.server = server;
+    }
+
+    @Override
+    public void handle(HttpExchange exchange) throws IOException {
+        try {
+            JsonWriter json = new JsonWriter();
+            route(exchange, json);
+            send(exchange, 200, json);
+        } catch (ApiException e) {
+            send(exchange, e.status, new JsonWriter().beginObject().field("error", e.getMessage()).endObject());
+        } catch (RuntimeException e) {
+            System.err.println("Error al atender " + exchange.getRequestURI() + ": " + e);
+            send(exchange, 500, new JsonWriter().beginObject().field("error", "Error interno").endObject());
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void route(HttpExchange exchange, JsonWriter json) {
+        String method = exchange.getRequestMethod();
+        String[] path = segments(exchange.getRequestURI().getPath());
+        Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+
+        if (path.length == 1 && path[0].equals("stats")) {
+            requireMethod(method, "GET");
+            stats(json);
+            return;
+        }
+
+        String catalog = path.length == 0 ? "" : path[0];
+        if (!CATALOGS.contains(catalog)) {
+            throw new ApiException(404, "Ruta no encontrada");
+        }
+        Session session = server.session(exchange.getRequestHeaders().getFirst("X-User"));
+        switch (catalog) {
+            case "movies":
+                catalog(method, path, query, json,
+                        (afterId, size) -> movieDAO.readPageAfter(session, afterId, size),
+                        (beforeId, size) -> movieDAO.readPageBefore(session, beforeId, size),
+                        id -> movieDAO.readById(session, id),
+                        CatalogJson::movie,
+                        movie -> movieDAO.setMovieViewed(session, movie));
+                break;
+            case "series":
+                if (path.length >= 3 && path[2].equals("chapters")) {
+                    chapters(method, path, session, json);
+                } else {
+                    catalog(method, path, query, json,
+                            (afterId, size) -> serieDAO.readPageAfter(session, afterId, size),
+                            (beforeId, size) -> serieDAO.readPageBefore(session, beforeId, size),
+                            id -> serieDAO.readById(session, id),
+                            CatalogJson::serie,
+                            null);
+                }
+                break;
+            case "books":
+                if (path.length == 3 && path[2].equals("pages")) {
+                    requireMethod(method, "GET");
+                    bookPages(intSegment(path[1]), query, json);
+                } else {
+                    catalog(method, path, query, json,
+                            (afterId, size) -> bookDAO.readPageAfter(session, afterId, size),
+                            (beforeId, size) -> bookDAO.readPageBefore(session, beforeId, size),
+                            id -> bookDAO.readById(session, id),
+                            CatalogJson::book,
+                            book -> {
+                                bookDAO.setBookRead(session, book);
+                                book.setReaded(true);
+                            });
+                }
+                break;
+            case "magazines":
+                catalog(method, path, query, json,
+                        (afterId, size) -> magazineDAO.readPageAfter(session, afterId, size),
+                        (beforeId, size) -> magazineDAO.readPageBefore(session, beforeId, size),
+                        id -> magazineDAO.readById(session, id),
+                        CatalogJson::magazine,
+                        magazine -> magazineDAO.setMagazineRead(session, magazine));
+                break;
+            default:
+                throw new ApiException(404, "Ruta no encontrada");
+        }
+    }
+
+    /**
+     * Rutas comunes a los cuatro catálogos: página, ficha y marca de visto.
+     * @param markViewed La marca de visto, o {@code null} si el catálogo no la admite.
+     */
+    private <T> void catalog(String method, String[] path, Map<String, String> query, JsonWriter json,
+                             PageReader<T> after, PageReader<T> before, IntFunction<T> byId,
+                             BiConsumer<JsonWriter, T> writer, Consumer<T> markViewed) {
+        if (path.length == 1) {
+            requireMethod(method, "GET");
+            int size = Math.min(MAX_PAGE_SIZE, intParam(query, "size", DEFAULT_PAGE_SIZE));
+            if (size < 1) {
+                throw new ApiException(400, "El parámetro size debe ser positivo");
+            }
+            CatalogPage<T> page = query.containsKey("before")
+                    ? before.read(intParam(query, "before", 0), size)
+                    : after.read(intParam(query, "after", 0), size);
+            CatalogJson.page(json, page, writer);
+            return;
+        }
+
+        T item = byId.apply(intSegment(path[1]));
+        if (item == null) {
+            throw new ApiException(404, "Elemento no encontrado");
+        }
+        if (path.length == 2) {
+            requireMethod(method, "GET");
+        } else if (path.length == 3 && path[2].equals("viewed") && markViewed != null) {
+            requireMethod(method, "POST");
+            markViewed.accept(item);
+        } else {
+            throw new ApiException(404, "Ruta no encontrada");
+        }
+        writer.accept(json, item);
+    }
+
+    private void chapters(String method, String[] path, Session session, JsonWriter json) {
+        int idSerie = intSegment(path[1]);
+        Serie serie = serieDAO.readById(session, idSerie);
+        if (serie == null) {
+            throw new ApiException(404, "Serie no encontrada");
+        }
+        ArrayList<Chapter> chapters = chapterDAO.read(session, idSerie);
+        serie.setChapters(chapters);
+
+        if (path.length == 3) {
+            requireMethod(method, "GET");
+            CatalogJson.list(json, chapters, CatalogJson::chapter);
+            return;
+        }
+        if (path.length != 5 || !path[4].equals("viewed")) {
+            throw new ApiException(404, "Ruta no encontrada");
+        }
+        requireMethod(method, "POST");
+
+        int idChapter = intSegment(path[3]);
+        Chapter chapter = null;
+        for (Chapter candidate : chapters) {
+            if (candidate.getId() == idChapter) {
+                chapter = candidate;
+            }
+        }
+        if (chapter == null) {
+            throw new ApiException(404, "Capítulo no encontrado");
+        }
+        chapterDAO.setChapterViewed(session, chapter);
+
+        // Igual que Chapter.view: al ver el último capítulo pendiente se marca la serie
+        if (!serie.getIsViewed() && serie.isCompletelyViewed(session.getViewedIndex())) {
+            serieDAO.setSerieViewed(session, serie);
+            serie.setViewed(true);
+        }
+        json.beginObject().name("chapter");
+        CatalogJson.chapter(json, chapter);
+        json.field("serieViewed", serie.getIsViewed()).endObject();
+    }
+
+    private void bookPages(int idBook, Map<String, String> query, JsonWriter json) {
+        int offset = intParam(query, "offset", 0);
+        int limit = Math.min(MAX_PAGE_SIZE, intParam(query, "limit", DEFAULT_PAGE_SIZE));
+        if (offset < 0 || limit < 1) {
+            throw new ApiException(400, "Parámetros offset/limit inválidos");
+        }
+
+        // Las páginas no dependen del usuario: todas las sesiones comparten la PageCache
+        PageCache cache = PageCache.getInstance();
+        List<Page> pages = new ArrayList<>(limit);
+        for (int position = offset; position < offset + limit; position++) {
+            Page page = cache.getPage(idBook, position);
+            if (page == null) {
+                break;
+            }
+            pages.add(page);
+        }
+        json.beginObject()
+                .field("bookId", idBook)
+                .field("offset", offset);
+        CatalogJson.list(json.name("pages"), pages, CatalogJson::page);
+        json.endObject();
+    }
+
+    private void stats(JsonWriter json) {
+        ConnectionPool pool = ConnectionPool.getInstance();
+        ViewedWriteQueue queue = ViewedWriteQueue.getInstance();
+        json.beginObject()
+                .field("sessions", server.getSessionCount())
+                .name("pool").beginObject()
+                .field("active", pool.getActiveCount())
+                .field("idle", pool.getIdleCount())
+                .field("waiting", pool.getWaitingThreads())
+                .field("acquired", pool.getAcquiredCount())
+                .field("timeouts", pool.getTimeoutCount())
+                .endObject()
+                .name("statements").beginObject()
+                .field("hits", StatementCache.getHitCount())
+                .field("misses", StatementCache.getMissCount())
+                .endObject()
+                .name("viewedQueue").beginObject()
+                .field("depth", queue.getQueueDepth())
+                .field("enqueued", queue.getEnqueuedCount())
+                .field("written", queue.getWrittenCount())
+                .field("failures", queue.getFailureCount())
+                .field("deadLettered", queue.getDeadLetterCount())
+                .endObject()
+                .endObject();
+    }
+
+    private static void send(HttpExchange exchange, int status, JsonWriter json) throws IOException {
+        byte[] body = json.toBytes();
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static void requireMethod(String method, String expected) {
+        if (!expected.equals(method)) {
+            throw new ApiException(405, "Método no permitido: se esperaba " + expected);
+        }
+    }
+
+    /** Segmentos de la ruta después de {@code /api/}, sin vacíos. */
+    private static String[] segments(String path) {
+        List<String> segments = new ArrayList<>();
+        for (String segment : path.substring(CatalogServer.CONTEXT.length()).split("/")) {
+            if (!segment.isEmpty()) {
+                segments.add(segment);
+            }
+        }
+        return segments.toArray(new String[0]);
+    }
+
+    /** Parámetros de la consulta; sólo se usan valores numéricos, así que no se decodifican. */
+    private static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> params = new HashMap<>();
+        if (rawQuery != null) {
+            for (String pair : rawQuery.split("&")) {
+                int eq = pair.indexOf('=');
+                if (eq > 0) {
+                    params.put(pair.substring(0, eq), pair.substring(eq + 1));
+                }
+            }
+        }
+        return params;
+    }
+
+    private static int intParam(Map<String, String> query, String name, int defaultValue) {
+        String value = query.get(name);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new ApiException(400, "El parámetro " + name + " debe ser numérico");
+        }
+    }
+
+    private static int intSegment(String segment) {
+        try {
+            return Integer.parseInt(segment);
+        } catch (NumberFormatException e) {
+            throw new ApiException(404, "Ruta no encontrada");
+        }
+    }
+
+    /** Error de la petición que se responde con su código HTTP. */
+    static final class ApiException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+        final int status;
+
+        ApiException(int status, String message) {
+            super(message);
+            this.status = status;
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.anncode.amazonviewer.server;
+
+import com.anncode.amazonviewer.dao.CatalogPage;
+import com.anncode.amazonviewer.model.Book;
+import com.anncode.amazonviewer.model.Chapter;
+import com.anncode.amazonviewer.model.Magazine;
+import com.anncode.amazonviewer.model.Movie;
+import com.anncode.amazonviewer.model.Page;
+import com.anncode.amazonviewer.model.Serie;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.Date;
+import java.util.List;
+import java.util.function.BiConsumer;
+
+/**
+ * Representación JSON de los elementos del catálogo que entrega el {@link CatalogServer}.
+ * <p>
+ * Las fechas se escriben en formato ISO ({@code yyyy-MM-dd}) y los autores como arreglo.
+ * </p>
+ * @author Luigi
+ * @version 1.4
+ * @since 2026-10-17
+ */
+final class CatalogJson {
+
+    private static final DateTimeFormatter ISO_DATE = DateTimeFormatter.ISO_LOCAL_DATE.withZone(ZoneId.systemDefault());
+
+    private CatalogJson() {
+    }
+
+    static void movie(JsonWriter json, Movie movie) {
+        json.beginObject()
+                .field("id", movie.getId())
+                .field("title", movie.getTitle())
+                .field("genre", movie.getGenre())
+                .field("creator", movie.getCreator())
+                .field("duration", movie.getDuration())
+                .field("year", movie.getYear())
+                .field("viewed", movie.getIsViewed())
+                .endObject();
+    }
+
+    static void serie(JsonWriter json, Serie serie) {
+        json.beginObject()
+                .field("id", serie.getId())
+                .field("title", serie.getTitle())
+                .field("genre", serie.getGenre())
+                .field("creator", serie.getCreator())
+                .field("duration", serie.getDuration())
+                .field("sessionQuantity", serie.getSessionQuantity())
+                .field("viewed", serie.getIsViewed())
+                .endObject();
+    }
+
+    static void chapter(JsonWriter json, Chapter chapter) {
+        json.beginObject()
+                .field("id", chapter.getId())
+                .field("title", chapter.getTitle())
+                .field("duration", chapter.getDuration())
+                .field("year", chapter.getYear())
+                .field("sessionNumber", chapter.getSessionNumber())
+                .field("viewed", chapter.getIsViewed())
+                .endObject();
+    }
+
+    static void book(JsonWriter json, Book book) {
+        json.beginObject()
+                .field("id", book.getId())
+                .field("title", book.getTitle())
+                .field("editionDate", date(book.getEditionDate()))
+                .field("editorial", book.getEditorial())
+                .field("isbn", book.getIsbn());
+        authors(json, book.getAuthors());
+        json.field("pageCount", book.getPageCount())
+                .field("readed", book.getIsReaded())
+                .endObject();
+    }
+
+    static void magazine(JsonWriter json, Magazine magazine) {
+        json.beginObject()
+                .field("id", magazine.getId())
+                .field("title", magazine.getTitle())
+                .field("editionDate", date(magazine.getEditionDate()))
+                .field("editorial", magazine.getEditorial());
+        authors(json, magazine.getAuthors());
+        json.field("readed", magazine.getIsReaded())
+                .endObject();
+    }
+
+    static void page(JsonWriter json, Page page) {
+        json.beginObject()
+                .field("id", page.getId())
+                .field("number", page.getNumber())
+                .field("content", page.getContent())
+                .endObject();
+    }
+
+    /**
+     * Escribe una página del catálogo con sus llaves de navegación.
+     * <p>
+     * El cliente pide la siguiente página con {@code ?after=lastId} y la anterior con
+     * {@code ?before=firstId}.
+     * </p>
+     */
+    static <T> void page(JsonWriter json, CatalogPage<T> page, BiConsumer<JsonWriter, T> item) {
+        json.beginObject()
+                .field("firstId", page.getFirstId())
+                .field("lastId", page.getLastId())
+                .field("hasPrevious", page.hasPrevious())
+                .field("hasNext", page.hasNext());
+        list(json.name("items"), page.getItems(), item);
+        json.endObject();
+    }
+
+    static <T> void list(JsonWriter json, List<T> items, BiConsumer<JsonWriter, T> item) {
+        json.beginArray();
+        for (T element : items) {
+            item.accept(json, element);
+        }
+        json.endArray();
+    }
+
+    private static void authors(JsonWriter json, String[] authors) {
+        json.name("authors").beginArray();
+        for (String author : authors) {
+            json.value(author.trim());
+        }
+        json.endArray();
+    }
+
+    private static String date(Date date) {
+        // java.sql.Date no admite toInstant(): se convierte desde los milisegundos
+        return date == null ? null : ISO_DATE.format(Instant.ofEpochMilli(date.getTime()));
+    }
+}
@@ -0,0 +1,171 @@
+package com.anncode.amazonviewer.server;
+
+import com.anncode.amazonviewer.dao.UserDAO;
+import com.anncode.amazonviewer.db.ConnectionPool;
+import com.anncode.amazonviewer.db.MaterialRegistry;
+import com.anncode.amazonviewer.model.Session;
+import com.anncode.amazonviewer.server.CatalogHandler.ApiException;
+import com.anncode.util.VirtualThreads;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Servicio HTTP embebido del catálogo, basado en {@code com.sun.net.httpserver} del JDK.
+ * <p>
+ * Expone el catálogo paginado, las fichas, las páginas de los libros y el registro de
+ * vistos sobre los mismos DAOs que usa la consola (ver {@link CatalogHandler} para las
+ * rutas). Cada petición corre en su propio hilo de {@link VirtualThreads}: mientras
+ * espera a la base de datos no ocupa un hilo de plataforma, de modo que la concurrencia
+ * queda limitada por el {@link ConnectionPool} y no por el número de hilos.
+ * </p>
+ * <p>
+ * Se inicia con {@code java com.anncode.amazonviewer.server.CatalogServer [puerto]}; el
+ * puerto por defecto es {@code -Damazonviewer.http.port} u 8080.
+ * </p>
+ * @author Luigi
+ * @version 1.4
+ * @since 2026-10-17
+ */
+public final class CatalogServer {
+
+    /** Puerto por defecto del servicio. */
+    public static final int PORT = Integer.getInteger("amazonviewer.http.port", 8080);
+    /** Conexiones pendientes de aceptar que admite el socket. */
+    public static final int BACKLOG = Integer.getInteger("amazonviewer.http.backlog", 1024);
+    /** Sesiones abiertas como máximo; al llenarse se descartan las inactivas. */
+    public static final int MAX_SESSIONS = Integer.getInteger("amazonviewer.http.maxSessions", 10_000);
+    /** Inactividad (ms) tras la cual una sesión se descarta y se vuelve a iniciar. */
+    public static final long SESSION_IDLE_MS = Long.getLong("amazonviewer.http.sessionIdleMs", 30 * 60_000L);
+    /** Longitud máxima del nombre de usuario (la columna {@code user.name}). */
+    static final int MAX_USER_NAME = 100;
+    /** Prefijo de las rutas del servicio. */
+    static final String CONTEXT = "/api/";
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final UserDAO userDAO = new UserDAO() {};
+    private final ConcurrentMap<String, OpenSession> sessions = new ConcurrentHashMap<>();
+
+    /**
+     * Crea el servicio sobre un puerto local, sin iniciarlo.
+     * @param port El puerto a escuchar ({@code 0} para uno libre cualquiera).
+     * @throws IOException Si el puerto no se puede abrir.
+     */
+    public CatalogServer(int port) throws IOException {
+        server = HttpServer.create(new InetSocketAddress(port), BACKLOG);
+        executor = VirtualThreads.newExecutor("amazonviewer-http");
+        server.setExecutor(executor);
+        server.createContext(CONTEXT, new CatalogHandler(this));
+    }
+
+    /**
+     * Carga los datos compartidos y comienza a aceptar peticiones.
+     */
+    public void start() {
+        MaterialRegistry.getInstance().load();
+        server.start();
+    }
+
+    /**
+     * Deja de aceptar peticiones y espera a que terminen las que están en curso.
+     * @param delaySeconds Segundos máximos de espera.
+     */
+    public void stop(int delaySeconds) {
+        server.stop(delaySeconds);
+        executor.shutdown();
+    }
+
+    /** @return El puerto en el que escucha el servicio. */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /** @return La cantidad de sesiones abiertas. */
+    public int getSessionCount() {
+        return sessions.size();
+    }
+
+    /**
+     * Obtiene la sesión de un usuario, iniciándola la primera vez que se presenta.
+     * <p>
+     * Una sesión inactiva por más de {@link #SESSION_IDLE_MS} se vuelve a iniciar. Si ya
+     * hay {@link #MAX_SESSIONS} abiertas, primero se descartan las inactivas y, si no
+     * alcanza, se responde 503. Un inicio de sesión fallido (la base de datos no respondió)
+     * también responde 503 y no se guarda, para no registrar vistas con un usuario sin id.
+     * </p>
+     * @param userName El nombre recibido en la cabecera {@code X-User}.
+     * @return La sesión del usuario.
+     */
+    Session session(String userName) {
+        if (userName == null || userName.trim().isEmpty()) {
+            throw new ApiException(401, "Falta la cabecera X-User");
+        }
+        String name = userName.trim();
+        if (name.length() > MAX_USER_NAME) {
+            throw new ApiException(400, "El nombre de usuario admite hasta " + MAX_USER_NAME + " caracteres");
+        }
+        long now = System.currentTimeMillis();
+        OpenSession open = sessions.get(name);
+        if (open != null && !open.isIdle(now)) {
+            open.lastAccess = now;
+            return open.session;
+        }
+        if (open == null && sessions.size() >= MAX_SESSIONS) {
+            evictIdle(now);
+            if (sessions.size() >= MAX_SESSIONS) {
+                throw new ApiException(503, "Demasiadas sesiones abiertas");
+            }
+        }
+
+        // El inicio de sesión consulta la base de datos: se hace fuera del mapa y,
+        // si dos peticiones del mismo usuario compiten, se conserva la primera
+        Session created = userDAO.openSession(name);
+        if (created.getUserId() <= 0) {
+            throw new ApiException(503, "No se pudo iniciar la sesión; intente más tarde");
+        }
+        OpenSession fresh = new OpenSession(created, now);
+        OpenSession current = open == null
+                ? sessions.putIfAbsent(name, fresh)
+                : (sessions.replace(name, open, fresh) ? null : sessions.get(name));
+        return current == null ? created : current.session;
+    }
+
+    private void evictIdle(long now) {
+        sessions.values().removeIf(open -> open.isIdle(now));
+    }
+
+    /** Sesión guardada junto con el momento de su último uso. */
+    private static final class OpenSession {
+        final Session session;
+        volatile long lastAccess;
+
+        OpenSession(Session session, long now) {
+            this.session = session;
+            this.lastAccess = now;
+        }
+
+        boolean isIdle(long now) {
+            return now - lastAccess > SESSION_IDLE_MS;
+        }
+    }
+
+    /**
+     * Inicia el servicio hasta que se detenga el proceso.
+     * @param args Opcionalmente, el puerto a escuchar.
+     * @throws IOException Si el puerto no se puede abrir.
+     */
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : PORT;
+        CatalogServer server = new CatalogServer(port);
+        // Se detiene antes de que el pool cierre sus conexiones
+        ConnectionPool.getInstance().addShutdownTask(() -> server.stop(1));
+        server.start();
+        System.out.println(">>> Catálogo HTTP en http://localhost:" + server.getPort() + CONTEXT +
+                (VirtualThreads.isAvailable() ? " (hilos virtuales)" : " (hilos de plataforma)"));
+    }
+}
@@ -0,0 +1,206 @@
+package com.anncode.amazonviewer.server;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Prueba de rendimiento del {@link CatalogServer} contra la base de datos local.
+ * <p>
+ * Lanza varios clientes concurrentes que, durante un tiempo fijo, repiten una mezcla
+ * de peticiones: páginas del catálogo (50 %), fichas (25 %), páginas de libros (15 %)
+ * y marcas de visto (10 %). Al terminar informa peticiones por segundo, latencia media
+ * y errores. Cada cliente usa su propio usuario ({@code bench-N}), así que la prueba
+ * también ejercita muchas sesiones a la vez.
+ * </p>
+ * <p>
+ * Uso: {@code java ...CatalogServerBenchmark [url]}. Sin URL inicia un servidor en el
+ * mismo proceso sobre un puerto libre. Parámetros: {@code -Damazonviewer.bench.clients}
+ * (32), {@code -Damazonviewer.bench.seconds} (30) y {@code -Damazonviewer.bench.warmupSeconds} (5).
+ * </p>
+ * @author Luigi
+ * @version 1.4
+ * @since 2026-10-17
+ */
+public final class CatalogServerBenchmark {
+
+    private static final int CLIENTS = Integer.getInteger("amazonviewer.bench.clients", 32);
+    private static final int SECONDS = Integer.getInteger("amazonviewer.bench.seconds", 30);
+    private static final int WARMUP_SECONDS = Integer.getInteger("amazonviewer.bench.warmupSeconds", 5);
+    private static final String[] CATALOGS = {"movies", "series", "books", "magazines"};
+    /** Índices de {@link #CATALOGS} que admiten {@code POST .../viewed}. */
+    private static final int[] VIEWABLE = {0, 2, 3};
+    private static final int BOOKS = 2;
+    private static final Pattern ID = Pattern.compile("\\{\"id\":(\\d+)");
+
+    private final String baseUrl;
+    /** Ids conocidos de cada catálogo, en el orden de {@link #CATALOGS}. */
+    private final List<List<Integer>> ids = new ArrayList<>();
+    private final AtomicBoolean measuring = new AtomicBoolean();
+    private final AtomicBoolean running = new AtomicBoolean(true);
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder latencyNanos = new LongAdder();
+
+    private CatalogServerBenchmark(String baseUrl) {
+        this.baseUrl = baseUrl;
+    }
+
+    /**
+     * Ejecuta la prueba.
+     * @param args Opcionalmente, la URL base del servicio (ej. {@code http://localhost:8080/api/}).
+     * @throws Exception Si no se puede iniciar el servidor o leer el catálogo.
+     */
+    public static void main(String[] args) throws Exception {
+        CatalogServer server = null;
+        String baseUrl;
+        if (args.length > 0) {
+            baseUrl = args[0].endsWith("/") ? args[0] : args[0] + "/";
+        } else {
+            server = new CatalogServer(0);
+            server.start();
+            baseUrl = "http://localhost:" + server.getPort() + CatalogServer.CONTEXT;
+        }
+
+        try {
+            new CatalogServerBenchmark(baseUrl).run();
+        } finally {
+            if (server != null) {
+                server.stop(0);
+            }
+        }
+    }
+
+    private void run() throws IOException, InterruptedException {
+        // Los ids de la primera página de cada catálogo alimentan las fichas y las marcas
+        for (String catalog : CATALOGS) {
+            List<Integer> catalogIds = new ArrayList<>();
+            Matcher matcher = ID.matcher(get(catalog + "?size=" + CatalogHandler.MAX_PAGE_SIZE, "bench-0"));
+            while (matcher.find()) {
+                catalogIds.add(Integer.parseInt(matcher.group(1)));
+            }
+            ids.add(catalogIds);
+        }
+        System.out.println(">>> Benchmark " + baseUrl + ": " + CLIENTS + " clientes, " +
+                WARMUP_SECONDS + " s de calentamiento, " + SECONDS + " s de medición");
+
+        List<Thread> clients = new ArrayList<>(CLIENTS);
+        for (int i = 0; i < CLIENTS; i++) {
+            String user = "bench-" + i;
+            Thread client = new Thread(() -> client(user), "bench-client-" + i);
+            client.setDaemon(true);
+            client.start();
+            clients.add(client);
+        }
+
+        TimeUnit.SECONDS.sleep(WARMUP_SECONDS);
+        measuring.set(true);
+        long start = System.nanoTime();
+        TimeUnit.SECONDS.sleep(SECONDS);
+        measuring.set(false);
+        double elapsed = (System.nanoTime() - start) / 1e9;
+        running.set(false);
+        for (Thread client : clients) {
+            client.join(TimeUnit.SECONDS.toMillis(5));
+        }
+
+        long total = requests.sum();
+        System.out.printf(">>> Peticiones: %d en %.1f s -> %.1f req/s%n", total, elapsed, total / elapsed);
+        System.out.printf(">>> Latencia media: %.2f ms | errores: %d%n",
+                total == 0 ? 0.0 : latencyNanos.sum() / 1e6 / total, errors.sum());
+    }
+
+    private void client(String user) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (running.get()) {
+            int roll = random.nextInt(100);
+            int catalog = random.nextInt(CATALOGS.length);
+            String method = "GET";
+            String path = null;
+            if (roll >= 90) {
+                // Las series se marcan por capítulo: sólo se marcan películas, libros y revistas
+                catalog = VIEWABLE[random.nextInt(VIEWABLE.length)];
+                int id = randomId(catalog, random);
+                if (id > 0) {
+                    method = "POST";
+                    path = CATALOGS[catalog] + "/" + id + "/viewed";
+                }
+            } else if (roll >= 75) {
+                int id = randomId(BOOKS, random);
+                if (id > 0) {
+                    path = "books/" + id + "/pages?limit=10";
+                }
+            } else if (roll >= 50) {
+                int id = randomId(catalog, random);
+                if (id > 0) {
+                    path = CATALOGS[catalog] + "/" + id;
+                }
+            }
+            if (path == null) {
+                path = CATALOGS[catalog] + "?size=" + CatalogHandler.DEFAULT_PAGE_SIZE;
+            }
+
+            long start = System.nanoTime();
+            boolean ok;
+            try {
+                ok = request(method, path, user) < 400;
+            } catch (IOException e) {
+                ok = false;
+            }
+            if (measuring.get()) {
+                latencyNanos.add(System.nanoTime() - start);
+                requests.increment();
+                if (!ok) {
+                    errors.increment();
+                }
+            }
+        }
+    }
+
+    /** Un id conocido del catálogo, o {@code -1} si el catálogo está vacío. */
+    private int randomId(int catalog, ThreadLocalRandom random) {
+        List<Integer> catalogIds = ids.get(catalog);
+        return catalogIds.isEmpty() ? -1 : catalogIds.get(random.nextInt(catalogIds.size()));
+    }
+
+    private String get(String path, String user) throws IOException {
+        HttpURLConnection connection = open("GET", path, user);
+        try (InputStream in = connection.getInputStream()) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private int request(String method, String path, String user) throws IOException {
+        HttpURLConnection connection = open(method, path, user);
+        int status = connection.getResponseCode();
+        // Se consume el cuerpo completo para que la conexión se reutilice (keep-alive)
+        InputStream in = status < 400 ? connection.getInputStream() : connection.getErrorStream();
+        if (in != null) {
+            try (InputStream body = in) {
+                body.readAllBytes();
+            }
+        }
+        return status;
+    }
+
+    private HttpURLConnection open(String method, String path, String user) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL(baseUrl + path).openConnection();
+        connection.setRequestMethod(method);
+        connection.setRequestProperty("X-User", user);
+        if ("POST".equals(method)) {
+            connection.setDoOutput(true);
+            connection.setFixedLengthStreamingMode(0);
+        }
+        return connection;
+    }
+}
@@ -15,6 +15,10 @@ import java.util.Scanner;
  */
 public class AmazonUtil {
 
+    /** Si es {@code false}, se omiten las pausas de las animaciones de consola. */
+    private static volatile boolean animations =
+            Boolean.parseBoolean(System.getProperty("amazonviewer.animations", "true"));
+
     /**
      * Constructor por defecto de la clase AmazonUtil.
      * <p>
@@ -69,4 +73,37 @@ public class AmazonUtil {
         return response;
     }
 
-}
\ No newline at end of file
+    /**
+     * Indica si las animaciones de consola (barras de progreso y pausas) están activas.
+     * @return {@code true} salvo que se desactiven con {@link #setAnimations(boolean)}
+     * o con {@code -Damazonviewer.animations=false}.
+     */
+    public static boolean isAnimations() {
+        return animations;
+    }
+
+    /**
+     * Activa o desactiva las animaciones de consola. Las ejecuciones automatizadas
+     * (pruebas de carga, scripts) las desactivan para no medir pausas artificiales.
+     * @param enabled {@code true} para mostrarlas.
+     */
+    public static void setAnimations(boolean enabled) {
+        animations = enabled;
+    }
+
+    /**
+     * Pausa el hilo actual como parte de una animación; no hace nada si las
+     * animaciones están desactivadas.
+     * @param millis Duración de la pausa en milisegundos.
+     */
+    public static void pause(long millis) {
+        if (!animations) {
+            return;
+        }
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
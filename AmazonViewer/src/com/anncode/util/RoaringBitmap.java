@@ -0,0 +1,385 @@
+package com.anncode.util;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * Mapa de bits comprimido para conjuntos de enteros no negativos, al estilo <i>Roaring</i>.
+ * <p>
+ * Los valores se reparten en contenedores según sus 16 bits altos. Cada contenedor
+ * guarda los 16 bits bajos como un arreglo ordenado de {@code char} mientras tiene
+ * pocos elementos (hasta {@value #ARRAY_MAX}) y como un mapa de bits de 8&nbsp;KB
+ * cuando se vuelve denso. De esta forma un usuario con cientos de miles de
+ * elementos vistos ocupa pocos kilobytes y las consultas {@link #contains(int)}
+ * son de tiempo constante, mientras que la intersección ({@link #andCardinality(RoaringBitmap)})
+ * recorre sólo palabras de 64 bits o arreglos ordenados.
+ * </p>
+ * <p>
+ * No es seguro para uso concurrente sin sincronización externa.
+ * </p>
+ * @author Luigi
+ * @version 1.4
+ * @since 2026-10-17
+ */
+public class RoaringBitmap {
+
+    /** Cardinalidad máxima de un contenedor de arreglo antes de pasar a mapa de bits. */
+    static final int ARRAY_MAX = 4096;
+
+    private char[] keys = new char[4];
+    private Container[] containers = new Container[4];
+    private int size;
+
+    /**
+     * Crea un mapa de bits vacío.
+     */
+    public RoaringBitmap() {
+    }
+
+    /**
+     * Crea un mapa de bits con los valores indicados.
+     * @param values Los valores iniciales.
+     * @return Un nuevo {@code RoaringBitmap} que contiene todos los valores.
+     */
+    public static RoaringBitmap of(int... values) {
+        RoaringBitmap bitmap = new RoaringBitmap();
+        for (int value : values) {
+            bitmap.add(value);
+        }
+        return bitmap;
+    }
+
+    /**
+     * Agrega un valor al conjunto.
+     * @param value El valor a agregar.
+     * @return {@code true} si el valor no estaba presente.
+     */
+    public boolean add(int value) {
+        char high = (char) (value >>> 16);
+        int i = indexOfKey(high);
+        if (i < 0) {
+            i = -i - 1;
+            insertContainer(i, high, new ArrayContainer());
+        }
+        Container container = containers[i];
+        int before = container.cardinality;
+        containers[i] = container.add((char) value);
+        return containers[i].cardinality > before;
+    }
+
+    /**
+     * Indica si el valor pertenece al conjunto.
+     * @param value El valor a buscar.
+     * @return {@code true} si el valor está presente.
+     */
+    public boolean contains(int value) {
+        int i = indexOfKey((char) (value >>> 16));
+        return i >= 0 && containers[i].contains((char) value);
+    }
+
+    /**
+     * Obtiene la cantidad de valores almacenados.
+     * @return El número de elementos del conjunto.
+     */
+    public int getCardinality() {
+        int cardinality = 0;
+        for (int i = 0; i < size; i++) {
+            cardinality += containers[i].cardinality;
+        }
+        return cardinality;
+    }
+
+    /**
+     * Indica si el conjunto está vacío.
+     * @return {@code true} si no contiene elementos.
+     */
+    public boolean isEmpty() {
+        return getCardinality() == 0;
+    }
+
+    /**
+     * Cuenta los elementos comunes con otro mapa de bits sin materializar la intersección.
+     * @param other El otro conjunto.
+     * @return La cardinalidad de la intersección.
+     */
+    public int andCardinality(RoaringBitmap other) {
+        int count = 0;
+        int i = 0;
+        int j = 0;
+        while (i < size && j < other.size) {
+            char a = keys[i];
+            char b = other.keys[j];
+            if (a == b) {
+                count += containers[i].andCardinality(other.containers[j]);
+                i++;
+                j++;
+            } else if (a < b) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Calcula la intersección de dos mapas de bits.
+     * @param a El primer conjunto.
+     * @param b El segundo conjunto.
+     * @return Un nuevo {@code RoaringBitmap} con los elementos comunes.
+     */
+    public static RoaringBitmap and(RoaringBitmap a, RoaringBitmap b) {
+        RoaringBitmap result = new RoaringBitmap();
+        int i = 0;
+        int j = 0;
+        while (i < a.size && j < b.size) {
+            char ka = a.keys[i];
+            char kb = b.keys[j];
+            if (ka == kb) {
+                Container c = a.containers[i].and(b.containers[j]);
+                if (c.cardinality > 0) {
+                    result.insertContainer(result.size, ka, c);
+                }
+                i++;
+                j++;
+            } else if (ka < kb) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Recorre los valores en orden ascendente.
+     * @param action La acción a ejecutar con cada valor.
+     */
+    public void forEach(IntConsumer action) {
+        for (int i = 0; i < size; i++) {
+            containers[i].forEach(keys[i] << 16, action);
+        }
+    }
+
+    /**
+     * Copia los valores a un arreglo.
+     * @return Un arreglo nuevo con los valores en orden ascendente.
+     */
+    public int[] toArray() {
+        int[] values = new int[getCardinality()];
+        int[] pos = {0};
+        forEach(v -> values[pos[0]++] = v);
+        return values;
+    }
+
+    /**
+     * Estima la memoria ocupada por los contenedores.
+     * @return Tamaño aproximado en bytes.
+     */
+    public long getSizeInBytes() {
+        long bytes = keys.length * 2L + containers.length * 8L;
+        for (int i = 0; i < size; i++) {
+            bytes += containers[i].sizeInBytes();
+        }
+        return bytes;
+    }
+
+    private int indexOfKey(char high) {
+        // Acceso rápido al último contenedor: los identificadores suelen llegar en orden
+        if (size > 0 && keys[size - 1] == high) {
+            return size - 1;
+        }
+        return Arrays.binarySearch(keys, 0, size, high);
+    }
+
+    private void insertContainer(int i, char high, Container container) {
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, size * 2);
+            containers = Arrays.copyOf(containers, size * 2);
+        }
+        System.arraycopy(keys, i, keys, i + 1, size - i);
+        System.arraycopy(containers, i, containers, i + 1, size - i);
+        keys[i] = high;
+        containers[i] = container;
+        size++;
+    }
+
+    /** Contenedor de los 16 bits bajos de un bloque de 65536 valores. */
+    private abstract static class Container {
+        int cardinality;
+
+        abstract Container add(char low);
+
+        abstract boolean contains(char low);
+
+        abstract int andCardinality(Container other);
+
+        abstract Container and(Container other);
+
+        abstract void forEach(int base, IntConsumer action);
+
+        abstract long sizeInBytes();
+    }
+
+    /** Contenedor disperso: arreglo ordenado de valores. */
+    private static final class ArrayContainer extends Container {
+        char[] content = new char[4];
+
+        @Override
+        Container add(char low) {
+            int i = Arrays.binarySearch(content, 0, cardinality, low);
+            if (i >= 0) {
+                return this;
+            }
+            if (cardinality >= ARRAY_MAX) {
+                return toBitmap().add(low);
+            }
+            i = -i - 1;
+            if (cardinality == content.length) {
+                content = Arrays.copyOf(content, Math.min(ARRAY_MAX, cardinality * 2));
+            }
+            System.arraycopy(content, i, content, i + 1, cardinality - i);
+            content[i] = low;
+            cardinality++;
+            return this;
+        }
+
+        @Override
+        boolean contains(char low) {
+            return Arrays.binarySearch(content, 0, cardinality, low) >= 0;
+        }
+
+        @Override
+        int andCardinality(Container other) {
+            if (other instanceof BitmapContainer) {
+                return other.andCardinality(this);
+            }
+            ArrayContainer o = (ArrayContainer) other;
+            int count = 0;
+            int i = 0;
+            int j = 0;
+            while (i < cardinality && j < o.cardinality) {
+                if (content[i] == o.content[j]) {
+                    count++;
+                    i++;
+                    j++;
+                } else if (content[i] < o.content[j]) {
+                    i++;
+                } else {
+                    j++;
+                }
+            }
+            return count;
+        }
+
+        @Override
+        Container and(Container other) {
+            ArrayContainer result = new ArrayContainer();
+            result.content = new char[Math.max(1, Math.min(cardinality, other.cardinality))];
+            for (int i = 0; i < cardinality; i++) {
+                if (other.contains(content[i])) {
+                    result.content[result.cardinality++] = content[i];
+                }
+            }
+            return result;
+        }
+
+        @Override
+        void forEach(int base, IntConsumer action) {
+            for (int i = 0; i < cardinality; i++) {
+                action.accept(base | content[i]);
+            }
+        }
+
+        @Override
+        long sizeInBytes() {
+            return 16L + content.length * 2L;
+        }
+
+        BitmapContainer toBitmap() {
+            BitmapContainer bitmap = new BitmapContainer();
+            for (int i = 0; i < cardinality; i++) {
+                bitmap.add(content[i]);
+            }
+            return bitmap;
+        }
+    }
+
+    /** Contenedor denso: 1024 palabras de 64 bits. */
+    private static final class BitmapContainer extends Container {
+        final long[] words = new long[1024];
+
+        @Override
+        Container add(char low) {
+            long mask = 1L << low;
+            int w = low >>> 6;
+            if ((words[w] & mask) == 0) {
+                words[w] |= mask;
+                cardinality++;
+            }
+            return this;
+        }
+
+        @Override
+        boolean contains(char low) {
+            return (words[low >>> 6] & (1L << low)) != 0;
+        }
+
+        @Override
+        int andCardinality(Container other) {
+            if (other instanceof BitmapContainer) {
+                long[] o = ((BitmapContainer) other).words;
+                int count = 0;
+                for (int i = 0; i < words.length; i++) {
+                    count += Long.bitCount(words[i] & o[i]);
+                }
+                return count;
+            }
+            ArrayContainer o = (ArrayContainer) other;
+            int count = 0;
+            for (int i = 0; i < o.cardinality; i++) {
+                if (contains(o.content[i])) {
+                    count++;
+                }
+            }
+            return count;
+        }
+
+        @Override
+        Container and(Container other) {
+            if (other instanceof ArrayContainer) {
+                return other.and(this);
+            }
+            long[] o = ((BitmapContainer) other).words;
+            BitmapContainer result = new BitmapContainer();
+            for (int i = 0; i < words.length; i++) {
+                result.words[i] = words[i] & o[i];
+                result.cardinality += Long.bitCount(result.words[i]);
+            }
+            if (result.cardinality > ARRAY_MAX) {
+                return result;
+            }
+            ArrayContainer array = new ArrayContainer();
+            array.content = new char[Math.max(1, result.cardinality)];
+            result.forEach(0, v -> array.content[array.cardinality++] = (char) v);
+            return array;
+        }
+
+        @Override
+        void forEach(int base, IntConsumer action) {
+            for (int w = 0; w < words.length; w++) {
+                long word = words[w];
+                while (word != 0) {
+                    int bit = Long.numberOfTrailingZeros(word);
+                    action.accept(base | (w << 6) | bit);
+                    word &= word - 1;
+                }
+            }
+        }
+
+        @Override
+        long sizeInBytes() {
+            return 16L + words.length * 8L;
+        }
+    }
+}
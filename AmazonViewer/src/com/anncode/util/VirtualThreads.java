@@ -0,0 +1,69 @@
+package com.anncode.util;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fábrica de ejecutores para tareas de entrada/salida (consultas a la base de datos).
+ * <p>
+ * En Java 21 o superior entrega un ejecutor de hilos virtuales
+ * ({@code Executors.newVirtualThreadPerTaskExecutor()}), que crea un hilo barato por
+ * tarea. El proyecto compila con un nivel de lenguaje anterior, así que el método se
+ * resuelve por reflexión; en JVMs sin hilos virtuales se usa un grupo de hilos de
+ * plataforma <i>daemon</i> que crece bajo demanda.
+ * </p>
+ * @author Luigi
+ * @version 1.4
+ * @since 2026-10-17
+ */
+public final class VirtualThreads {
+
+    private static final Method VIRTUAL_FACTORY = lookup();
+
+    private VirtualThreads() {
+    }
+
+    /**
+     * Indica si la JVM actual dispone de hilos virtuales.
+     * @return {@code true} si {@link #newExecutor(String)} entrega hilos virtuales.
+     */
+    public static boolean isAvailable() {
+        return VIRTUAL_FACTORY != null;
+    }
+
+    /**
+     * Crea un ejecutor de un hilo por tarea.
+     * @param name Prefijo del nombre de los hilos cuando se usan hilos de plataforma.
+     * @return Un ejecutor que debe cerrarse con {@link ExecutorService#shutdown()} al terminar.
+     */
+    public static ExecutorService newExecutor(String name) {
+        if (VIRTUAL_FACTORY != null) {
+            try {
+                return (ExecutorService) VIRTUAL_FACTORY.invoke(null);
+            } catch (ReflectiveOperationException e) {
+                System.err.println("No se pudieron crear hilos virtuales: " + e.getMessage());
+            }
+        }
+        return Executors.newCachedThreadPool(daemonFactory(name));
+    }
+
+    private static ThreadFactory daemonFactory(String name) {
+        AtomicInteger counter = new AtomicInteger(1);
+        return r -> {
+            Thread t = new Thread(r, name + "-" + counter.getAndIncrement());
+            t.setDaemon(true);
+            return t;
+        };
+    }
+
+    private static Method lookup() {
+        try {
+            return Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package com.anncode.amazonviewer.dao;
+
+import com.anncode.amazonviewer.db.TestDatabase;
+import com.anncode.amazonviewer.model.Movie;
+import com.anncode.amazonviewer.model.Session;
+import com.anncode.amazonviewer.model.User;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Pruebas de {@link CatalogPager} sobre las consultas por llave de {@link MovieDAO},
+ * contra H2 en memoria: catálogo vacío, última página llena o parcial e ids con huecos.
+ * @author Luigi
+ * @version 1.4
+ * @since 2026-10-17
+ */
+class CatalogPagerTest {
+
+    private static final int PAGE_SIZE = 3;
+
+    private final MovieDAO movieDAO = new MovieDAO() {};
+    private Session session;
+
+    @BeforeAll
+    static void database() {
+        assumeTrue(TestDatabase.use(), "H2 no está en el classpath");
+    }
+
+    @BeforeEach
+    void clear() throws SQLException {
+        TestDatabase.execute("DELETE FROM movie");
+        User user = new User("pager");
+        user.setId(1);
+        ViewedIndex viewed = new ViewedIndex(user.getId());
+        user.setViewedIndex(viewed);
+        session = new Session(user, viewed);
+    }
+
+    @Test
+    void emptyCatalogHasNoNeighbours() {
+        CatalogPager<Movie> pager = pager();
+        assertEquals(0, pager.current().size());
+        assertFalse(pager.current().hasPrevious());
+        assertFalse(pager.current().hasNext());
+        assertFalse(pager.next());
+        assertFalse(pager.previous());
+    }
+
+    @Test
+    void fullLastPageHasNoNext() throws SQLException {
+        insert(1, 2, 3, 4, 5, 6);
+        CatalogPager<Movie> pager = pager();
+        assertIds(pager, 1, 2, 3);
+        assertFalse(pager.current().hasPrevious());
+        assertTrue(pager.current().hasNext());
+
+        assertTrue(pager.next());
+        assertIds(pager, 4, 5, 6);
+        assertTrue(pager.current().hasPrevious());
+        assertFalse(pager.current().hasNext());
+        assertFalse(pager.next());
+
+        assertTrue(pager.previous());
+        assertIds(pager, 1, 2, 3);
+        assertFalse(pager.current().hasPrevious());
+        assertFalse(pager.previous());
+    }
+
+    @Test
+    void partialLastPageWalksBackToFullPages() throws SQLException {
+        insert(1, 2, 3, 4, 5, 6, 7);
+        CatalogPager<Movie> pager = pager();
+        assertTrue(pager.next());
+        assertTrue(pager.next());
+        assertIds(pager, 7);
+        assertFalse(pager.current().hasNext());
+
+        assertTrue(pager.previous());
+        assertIds(pager, 4, 5, 6);
+        assertTrue(pager.current().hasPrevious());
+        assertTrue(pager.current().hasNext());
+    }
+
+    @Test
+    void gapsInIdsAreWalkedInOrder() throws SQLException {
+        int[] ids = {2, 5, 9, 10, 40, 41, 100, 1000};
+        insert(ids);
+        CatalogPager<Movie> pager = pager();
+
+        List<Integer> forward = new ArrayList<>(ids(pager));
+        while (pager.next()) {
+            forward.addAll(ids(pager));
+        }
+        assertEquals(Arrays.asList(2, 5, 9, 10, 40, 41, 100, 1000), forward);
+
+        List<Integer> backward = new ArrayList<>();
+        while (pager.previous()) {
+            backward.addAll(0, ids(pager));
+        }
+        assertEquals(Arrays.asList(2, 5, 9, 10, 40, 41), backward);
+    }
+
+    @Test
+    void rowsDeletedBehindThePagerLeaveAnEmptyPage() throws SQLException {
+        insert(1, 2, 3, 4);
+        CatalogPager<Movie> pager = pager();
+        TestDatabase.execute("DELETE FROM movie WHERE id = 4");
+
+        // La página siguiente ya no existe: queda vacía, pero se puede volver atrás
+        assertTrue(pager.next());
+        assertEquals(0, pager.current().size());
+        assertFalse(pager.current().hasNext());
+        assertTrue(pager.previous());
+        assertIds(pager, 1, 2, 3);
+    }
+
+    @Test
+    void rowsDeletedAheadOfThePagerLeaveAnEmptyPage() throws SQLException {
+        insert(1, 2, 3, 4, 5, 6);
+        CatalogPager<Movie> pager = pager();
+        assertTrue(pager.next());
+        TestDatabase.execute("DELETE FROM movie WHERE id <= 3");
+
+        // Al volver desde la página vacía se recupera la página completa
+        assertTrue(pager.previous());
+        assertEquals(0, pager.current().size());
+        assertFalse(pager.current().hasPrevious());
+        assertTrue(pager.next());
+        assertIds(pager, 4, 5, 6);
+    }
+
+    private CatalogPager<Movie> pager() {
+        return new CatalogPager<>(
+                (key, size) -> movieDAO.readPageAfter(session, key, size),
+                (key, size) -> movieDAO.readPageBefore(session, key, size),
+                PAGE_SIZE);
+    }
+
+    private static void insert(int... ids) throws SQLException {
+        String[] sql = new String[ids.length];
+        for (int i = 0; i < ids.length; i++) {
+            sql[i] = "INSERT INTO movie (id, title, genre, creator, duration, year) VALUES (" +
+                    ids[i] + ", 'Película " + ids[i] + "', 'Drama', 'Director', 90, 2000)";
+        }
+        TestDatabase.execute(sql);
+    }
+
+    private static List<Integer> ids(CatalogPager<Movie> pager) {
+        List<Integer> ids = new ArrayList<>();
+        for (Movie movie : pager.current().getItems()) {
+            ids.add(movie.getId());
+        }
+        return ids;
+    }
+
+    private static void assertIds(CatalogPager<Movie> pager, Integer... expected) {
+        assertEquals(Arrays.asList(expected), ids(pager));
+    }
+}
@@ -0,0 +1,194 @@
+package com.anncode.amazonviewer.dao;
+
+import com.anncode.amazonviewer.db.DataBase.MaterialNames;
+import com.anncode.amazonviewer.db.TestDatabase;
+import com.anncode.amazonviewer.model.Book;
+import com.anncode.amazonviewer.model.Chapter;
+import com.anncode.amazonviewer.model.Magazine;
+import com.anncode.amazonviewer.model.Movie;
+import com.anncode.amazonviewer.model.Serie;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Pruebas de {@link CatalogSnapshot}: codificación de ida y vuelta, rechazo de archivos
+ * vencidos o dañados y, contra H2 en memoria, qué cambios invalidan la huella.
+ * @author Luigi
+ * @version 1.4
+ * @since 2026-10-17
+ */
+class CatalogSnapshotTest {
+
+    private static final long[] FINGERPRINT = {3, 3, 17, 1, 7, -5};
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void roundTripKeepsEveryField() throws IOException {
+        Path path = dir.resolve("catalog.snapshot");
+        catalog().write(path, FINGERPRINT);
+
+        CatalogSnapshot read = CatalogSnapshot.read(path, FINGERPRINT);
+        assertNotNull(read);
+
+        assertEquals(3, read.getMovies().size());
+        Movie movie = read.getMovies().get(2);
+        assertEquals(3, movie.getId());
+        assertEquals("Película ñ 3", movie.getTitle());
+        assertEquals("Drama", movie.getGenre());
+        assertEquals(103, movie.getDuration());
+        assertEquals(2020, movie.getYear());
+
+        Serie serie = read.getSeries().get(0);
+        assertEquals(7, serie.getId());
+        assertEquals(2, serie.getSessionQuantity());
+        assertEquals(2, serie.getChapters().size());
+        Chapter chapter = serie.getChapters().get(1);
+        assertEquals(10, chapter.getId());
+        assertEquals("Capítulo 2", chapter.getTitle());
+        assertEquals(2, chapter.getSessionNumber());
+        assertSame(serie, chapter.getSerie());
+
+        Book book = read.getBooks().get(0);
+        assertEquals(4, book.getId());
+        assertEquals("978-1", book.getIsbn());
+        assertEquals(new Date(86_400_000L), book.getEditionDate());
+        assertArrayEquals(new String[]{"Autora A", "Autor B"}, book.getAuthors());
+        assertEquals(42, book.getPageCount());
+        Book noDate = read.getBooks().get(1);
+        assertNull(noDate.getEditionDate());
+        assertNull(noDate.getIsbn());
+
+        Magazine magazine = read.getMagazines().get(0);
+        assertEquals(3, magazine.getId());
+        assertEquals("Revista", magazine.getTitle());
+        assertEquals("Editorial", magazine.getEditorial());
+    }
+
+    @Test
+    void emptyCatalogRoundTrips() throws IOException {
+        Path path = dir.resolve("catalog.snapshot");
+        new CatalogSnapshot(new ArrayList<>(), new ArrayList<>(), new ArrayList<>(), new ArrayList<>())
+                .write(path, FINGERPRINT);
+        CatalogSnapshot read = CatalogSnapshot.read(path, FINGERPRINT);
+        assertNotNull(read);
+        assertTrue(read.getMovies().isEmpty());
+        assertTrue(read.getSeries().isEmpty());
+        assertTrue(read.getBooks().isEmpty());
+        assertTrue(read.getMagazines().isEmpty());
+    }
+
+    @Test
+    void staleDamagedOrMissingFilesAreRejected() throws IOException {
+        Path path = dir.resolve("catalog.snapshot");
+        assertNull(CatalogSnapshot.read(path, FINGERPRINT));
+
+        catalog().write(path, FINGERPRINT);
+        long[] other = FINGERPRINT.clone();
+        other[2]++;
+        assertNull(CatalogSnapshot.read(path, other));
+        assertNull(CatalogSnapshot.read(path, Arrays.copyOf(FINGERPRINT, FINGERPRINT.length - 1)));
+
+        byte[] raw = Files.readAllBytes(path);
+        byte[] flipped = raw.clone();
+        flipped[raw.length / 2] ^= 1;
+        Files.write(path, flipped);
+        assertNull(CatalogSnapshot.read(path, FINGERPRINT));
+
+        Files.write(path, Arrays.copyOf(raw, raw.length - 5));
+        assertNull(CatalogSnapshot.read(path, FINGERPRINT));
+    }
+
+    @Test
+    void viewedStateComesFromTheIndex() {
+        CatalogSnapshot snapshot = catalog();
+        ViewedIndex viewed = new ViewedIndex(1);
+        viewed.markViewed(MaterialNames.MOVIE, 2);
+        viewed.markViewed(MaterialNames.CHAPTER, 10);
+        viewed.markViewed(MaterialNames.BOOK, 5);
+        snapshot.applyViewed(viewed);
+
+        assertFalse(snapshot.getMovies().get(0).getIsViewed());
+        assertTrue(snapshot.getMovies().get(1).getIsViewed());
+        assertFalse(snapshot.getSeries().get(0).getChapters().get(0).getIsViewed());
+        assertTrue(snapshot.getSeries().get(0).getChapters().get(1).getIsViewed());
+        assertFalse(snapshot.getBooks().get(0).getIsReaded());
+        assertTrue(snapshot.getBooks().get(1).getIsReaded());
+    }
+
+    @Test
+    void fingerprintTracksCatalogEditsButNotPageContent() throws SQLException {
+        assumeTrue(TestDatabase.use(), "H2 no está en el classpath");
+        TestDatabase.execute("DELETE FROM page", "DELETE FROM chapter", "DELETE FROM serie",
+                "DELETE FROM book", "DELETE FROM magazine", "DELETE FROM movie",
+                "INSERT INTO movie (id, title, genre, creator, duration, year) VALUES (1, 'M', 'Drama', 'D', 90, 2000)",
+                "INSERT INTO book (id, title, editorial, isbn, authors) VALUES (1, 'L', 'E', '1', 'A')",
+                "INSERT INTO page (id, number, content, id_book) VALUES (1, 1, 'uno', 1), (2, 2, 'dos', 1)");
+
+        long[] before = CatalogSnapshot.fingerprint();
+        assertNotNull(before);
+        // Cinco tablas con cantidad, id máximo y suma; page sólo con cantidad e id máximo
+        assertEquals(17, before.length);
+
+        TestDatabase.execute("UPDATE page SET content = 'otro'");
+        assertArrayEquals(before, CatalogSnapshot.fingerprint());
+
+        TestDatabase.execute("INSERT INTO page (id, number, content, id_book) VALUES (3, 3, 'tres', 1)");
+        long[] pageAdded = CatalogSnapshot.fingerprint();
+        assertFalse(Arrays.equals(before, pageAdded));
+
+        TestDatabase.execute("UPDATE movie SET duration = 91");
+        assertFalse(Arrays.equals(pageAdded, CatalogSnapshot.fingerprint()));
+    }
+
+    private static CatalogSnapshot catalog() {
+        ArrayList<Movie> movies = new ArrayList<>();
+        for (int id = 1; id <= 3; id++) {
+            Movie movie = new Movie("Película ñ " + id, "Drama", "Director", 100 + id, (short) 2020);
+            movie.setId(id);
+            movies.add(movie);
+        }
+
+        Serie serie = new Serie("Serie", "Comedia", "Creador", 30, 2);
+        serie.setId(7);
+        ArrayList<Chapter> chapters = new ArrayList<>();
+        for (int n = 1; n <= 2; n++) {
+            Chapter chapter = new Chapter("Capítulo " + n, "Comedia", "Creador", 30, (short) 2001, n, serie);
+            chapter.setId(8 + n);
+            chapters.add(chapter);
+        }
+        serie.setChapters(chapters);
+        ArrayList<Serie> series = new ArrayList<>();
+        series.add(serie);
+
+        ArrayList<Book> books = new ArrayList<>();
+        Book book = new Book("Libro", new Date(86_400_000L), "Editorial", "Autora A,Autor B", null);
+        book.setId(4);
+        book.setIsbn("978-1");
+        book.setPageCount(42);
+        books.add(book);
+        Book noDate = new Book("Sin fecha", null, "Editorial", null, null);
+        noDate.setId(5);
+        noDate.setPageCount(0);
+        books.add(noDate);
+
+        ArrayList<Magazine> magazines = new ArrayList<>();
+        Magazine magazine = new Magazine("Revista", new Date(0), "Editorial");
+        magazine.setId(3);
+        magazines.add(magazine);
+
+        return new CatalogSnapshot(movies, series, books, magazines);
+    }
+}
@@ -0,0 +1,145 @@
+package com.anncode.amazonviewer.dao;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas de {@link ViewedJournal}: recuperación tras reabrir, corte en un registro con
+ * CRC inválido y compactación con confirmaciones atrasadas.
+ * @author Luigi
+ * @version 1.4
+ * @since 2026-10-17
+ */
+class ViewedJournalTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void pendingEventsSurviveReopen() throws IOException {
+        Path path = dir.resolve("viewed.journal");
+        ViewedJournal journal = new ViewedJournal(path);
+        long first = journal.append(event(1));
+        journal.append(event(2));
+        journal.append(event(3));
+        journal.acknowledge(first);
+        journal.close();
+
+        journal = new ViewedJournal(path);
+        List<ViewedEvent> pending = journal.readPending();
+        assertEquals(2, pending.size());
+        assertEvent(2, pending.get(0));
+        assertEvent(3, pending.get(1));
+        assertEquals(2, journal.getPendingCount());
+
+        // Confirmar con las posiciones leídas deja la bitácora vacía
+        journal.acknowledge(pending.get(1).getJournalPosition());
+        assertEquals(0, journal.getPendingCount());
+        journal.close();
+        assertTrue(new ViewedJournal(path).readPending().isEmpty());
+    }
+
+    @Test
+    void corruptRecordEndsRecovery() throws IOException {
+        Path path = dir.resolve("viewed.journal");
+        ViewedJournal journal = new ViewedJournal(path);
+        journal.append(event(1));
+        journal.append(event(2));
+        journal.append(event(3));
+        journal.close();
+
+        // Un byte alterado en el segundo registro invalida su CRC
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long offset = ViewedJournal.HEADER_SIZE + ViewedJournal.RECORD_SIZE + 8;
+            ByteBuffer one = ByteBuffer.allocate(1);
+            channel.read(one, offset);
+            one.flip();
+            one.put(0, (byte) (one.get(0) ^ 0x55));
+            channel.write(one, offset);
+        }
+
+        journal = new ViewedJournal(path);
+        List<ViewedEvent> pending = journal.readPending();
+        assertEquals(1, pending.size());
+        assertEvent(1, pending.get(0));
+        assertEquals(1, journal.getPendingCount());
+
+        // Lo que se anexa después reemplaza al resto descartado
+        journal.append(event(4));
+        pending = journal.readPending();
+        assertEquals(2, pending.size());
+        assertEvent(4, pending.get(1));
+        journal.close();
+    }
+
+    @Test
+    void invalidHeaderStartsEmpty() throws IOException {
+        Path path = dir.resolve("viewed.journal");
+        ViewedJournal journal = new ViewedJournal(path);
+        journal.append(event(1));
+        journal.close();
+
+        // Posición de escritura fuera del archivo
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(8).putLong(0, Long.MAX_VALUE), 8);
+        }
+        journal = new ViewedJournal(path);
+        assertTrue(journal.readPending().isEmpty());
+        journal.close();
+    }
+
+    @Test
+    void laggingAcknowledgeCompactsInsteadOfGrowing() throws IOException {
+        Path path = dir.resolve("viewed.journal");
+        ViewedJournal journal = new ViewedJournal(path);
+        int lag = 100;
+        int total = 3 * ViewedJournal.INITIAL_SIZE / ViewedJournal.RECORD_SIZE;
+        Deque<Long> positions = new ArrayDeque<>();
+        long previous = 0;
+
+        // Tráfico constante: la cola nunca confirma todo lo anexado
+        for (int i = 1; i <= total; i++) {
+            long position = journal.append(event(i));
+            assertTrue(position > previous, "las posiciones lógicas deben crecer");
+            previous = position;
+            positions.addLast(position);
+            if (positions.size() > lag) {
+                journal.acknowledge(positions.removeFirst());
+            }
+        }
+        assertEquals(lag, journal.getPendingCount());
+        journal.close();
+        assertEquals(ViewedJournal.INITIAL_SIZE, Files.size(path));
+
+        journal = new ViewedJournal(path);
+        List<ViewedEvent> pending = journal.readPending();
+        assertEquals(lag, pending.size());
+        assertEvent(total - lag + 1, pending.get(0));
+        assertEvent(total, pending.get(lag - 1));
+        journal.close();
+    }
+
+    private static ViewedEvent event(int n) {
+        return new ViewedEvent(n % 7 + 1, n % 4 + 1, n, 1_700_000_000_000L + n);
+    }
+
+    private static void assertEvent(int n, ViewedEvent actual) {
+        ViewedEvent expected = event(n);
+        assertEquals(expected.getIdUser(), actual.getIdUser());
+        assertEquals(expected.getIdMaterial(), actual.getIdMaterial());
+        assertEquals(expected.getIdElement(), actual.getIdElement());
+        assertEquals(expected.getTimestamp(), actual.getTimestamp());
+    }
+}
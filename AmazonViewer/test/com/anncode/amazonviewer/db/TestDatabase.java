@@ -0,0 +1,54 @@
+package com.anncode.amazonviewer.db;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Base de datos H2 en memoria para las pruebas que necesitan SQL real.
+ * <p>
+ * {@link #use()} debe llamarse antes de que se cargue {@link DatabaseBackend}: fija el
+ * motor H2 y una URL en memoria, de modo que las pruebas no tocan {@code ./data} ni un
+ * servidor MySQL. El esquema lo crea el {@link ConnectionPool} al conectar.
+ * </p>
+ * @author Luigi
+ * @version 1.4
+ * @since 2026-10-17
+ */
+public final class TestDatabase {
+
+    private static final String URL = "jdbc:h2:mem:amazonviewer-test;DB_CLOSE_DELAY=-1" +
+            ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=USER,YEAR";
+
+    private TestDatabase() {
+    }
+
+    /**
+     * Selecciona H2 en memoria como motor de la prueba.
+     * @return {@code true} si el driver de H2 está en el classpath y el motor activo es H2.
+     */
+    public static boolean use() {
+        System.setProperty("amazonviewer.db.backend", "h2");
+        System.setProperty("amazonviewer.db.h2Url", URL);
+        try {
+            Class.forName("org.h2.Driver");
+        } catch (ClassNotFoundException e) {
+            return false;
+        }
+        return DatabaseBackend.get().isEmbedded();
+    }
+
+    /**
+     * Ejecuta sentencias sobre la base de datos de prueba.
+     * @param sql Las sentencias, en orden.
+     * @throws SQLException Si alguna falla.
+     */
+    public static void execute(String... sql) throws SQLException {
+        try (Connection connection = ConnectionPool.getInstance().getConnection();
+             Statement stmt = connection.createStatement()) {
+            for (String statement : sql) {
+                stmt.executeUpdate(statement);
+            }
+        }
+    }
+}
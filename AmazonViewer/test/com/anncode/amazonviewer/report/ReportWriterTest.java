@@ -0,0 +1,98 @@
+package com.anncode.amazonviewer.report;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas de {@link ReportWriter}: los pares surrogate que caen en el borde de los
+ * búferes se codifican enteros, sin importar cómo se agregue el texto.
+ * @author Luigi
+ * @version 1.4
+ * @since 2026-10-17
+ */
+class ReportWriterTest {
+
+    /** Emoji fuera del plano básico: dos {@code char} y cuatro bytes en UTF-8. */
+    private static final String EMOJI = "🎬";
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void surrogatePairAcrossCharBufferBoundary() throws IOException {
+        // El búfer de caracteres es de 8 KB: se recorren los desplazamientos alrededor del borde
+        for (int prefix = 8 * 1024 - 4; prefix <= 8 * 1024 + 4; prefix++) {
+            String text = repeat("a", prefix) + EMOJI + "ñ" + EMOJI;
+            assertWritten(text, Mode.STRING);
+            assertWritten(text, Mode.CHAR_SEQUENCE);
+            assertWritten(text, Mode.CHARS);
+        }
+    }
+
+    @Test
+    void surrogatePairsAcrossByteBufferBoundary() throws IOException {
+        // Más de un búfer de bytes de emojis, con un prefijo impar para desalinearlos
+        String text = "x" + repeat(EMOJI + "é", ReportWriter.BUFFER_SIZE / 3);
+        assertWritten(text, Mode.STRING);
+        assertWritten(text, Mode.CHAR_SEQUENCE);
+    }
+
+    @Test
+    void loneHighSurrogateAtCloseIsReplaced() throws IOException {
+        Path path = dir.resolve("reporte.txt");
+        try (ReportWriter report = ReportWriter.open(path)) {
+            report.append("fin").append('\uD83C');
+        }
+        assertEquals("fin?", new String(Files.readAllBytes(path), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void appendAfterCloseFails() throws IOException {
+        ReportWriter report = ReportWriter.open(dir.resolve("reporte.txt"));
+        report.close();
+        report.close();
+        assertThrows(IOException.class, () -> report.append("tarde"));
+    }
+
+    private enum Mode { STRING, CHAR_SEQUENCE, CHARS }
+
+    private void assertWritten(String text, Mode mode) throws IOException {
+        Path path = dir.resolve("reporte-" + mode + ".txt");
+        ReportWriter report = ReportWriter.open(path);
+        try {
+            switch (mode) {
+                case STRING:
+                    report.append(text);
+                    break;
+                case CHAR_SEQUENCE:
+                    report.append(new StringBuilder(text), 0, text.length());
+                    break;
+                default:
+                    for (int i = 0; i < text.length(); i++) {
+                        report.append(text.charAt(i));
+                    }
+                    break;
+            }
+        } finally {
+            report.close();
+        }
+        byte[] expected = text.getBytes(StandardCharsets.UTF_8);
+        assertArrayEquals(expected, Files.readAllBytes(path), mode.toString());
+        assertEquals(expected.length, report.getBytesWritten());
+    }
+
+    private static String repeat(String s, int times) {
+        StringBuilder text = new StringBuilder(s.length() * times);
+        for (int i = 0; i < times; i++) {
+            text.append(s);
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,94 @@
+package com.anncode.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas de {@link RoaringBitmap}: pertenencia, cambio de contenedor e intersecciones,
+ * contrastadas con un {@link TreeSet} como referencia.
+ * @author Luigi
+ * @version 1.4
+ * @since 2026-10-17
+ */
+class RoaringBitmapTest {
+
+    @Test
+    void addReportsOnlyNewValues() {
+        RoaringBitmap bitmap = new RoaringBitmap();
+        assertTrue(bitmap.isEmpty());
+        assertTrue(bitmap.add(7));
+        assertFalse(bitmap.add(7));
+        assertTrue(bitmap.contains(7));
+        assertFalse(bitmap.contains(8));
+        assertEquals(1, bitmap.getCardinality());
+    }
+
+    @Test
+    void valuesAcrossContainersStaySorted() {
+        RoaringBitmap bitmap = RoaringBitmap.of(Integer.MAX_VALUE, 65_536, 0, 65_535, 1 << 20, 3);
+        assertArrayEquals(new int[]{0, 3, 65_535, 65_536, 1 << 20, Integer.MAX_VALUE}, bitmap.toArray());
+        assertFalse(bitmap.contains(65_537));
+        assertFalse(bitmap.contains(1));
+    }
+
+    @Test
+    void denseContainerKeepsEveryValue() {
+        RoaringBitmap bitmap = new RoaringBitmap();
+        for (int value = 0; value <= RoaringBitmap.ARRAY_MAX; value++) {
+            assertTrue(bitmap.add(value * 2));
+        }
+        // El contenedor ya pasó a mapa de bits: duplicados y pertenencia siguen igual
+        assertFalse(bitmap.add(0));
+        assertEquals(RoaringBitmap.ARRAY_MAX + 1, bitmap.getCardinality());
+        assertTrue(bitmap.contains(RoaringBitmap.ARRAY_MAX * 2));
+        assertFalse(bitmap.contains(1));
+
+        int[] values = bitmap.toArray();
+        for (int i = 0; i < values.length; i++) {
+            assertEquals(i * 2, values[i]);
+        }
+    }
+
+    @Test
+    void intersectionsMatchReference() {
+        Random random = new Random(42);
+        // Mezcla de contenedores dispersos (arreglo) y densos (mapa de bits)
+        int[][] shapes = {{500, 1 << 18}, {20_000, 1 << 16}, {60_000, 1 << 17}};
+        for (int[] a : shapes) {
+            for (int[] b : shapes) {
+                TreeSet<Integer> left = new TreeSet<>();
+                TreeSet<Integer> right = new TreeSet<>();
+                RoaringBitmap x = fill(random, a[0], a[1], left);
+                RoaringBitmap y = fill(random, b[0], b[1], right);
+                left.retainAll(right);
+
+                assertEquals(left.size(), x.andCardinality(y));
+                assertEquals(left.size(), y.andCardinality(x));
+                assertArrayEquals(left.stream().mapToInt(Integer::intValue).toArray(), RoaringBitmap.and(x, y).toArray());
+            }
+        }
+    }
+
+    @Test
+    void disjointIntersectionIsEmpty() {
+        RoaringBitmap a = RoaringBitmap.of(1, 2, 3);
+        RoaringBitmap b = RoaringBitmap.of(4, 70_000);
+        assertEquals(0, a.andCardinality(b));
+        assertTrue(RoaringBitmap.and(a, b).isEmpty());
+        assertTrue(RoaringBitmap.and(a, new RoaringBitmap()).isEmpty());
+    }
+
+    private static RoaringBitmap fill(Random random, int count, int range, TreeSet<Integer> reference) {
+        RoaringBitmap bitmap = new RoaringBitmap();
+        for (int i = 0; i < count; i++) {
+            int value = random.nextInt(range);
+            assertEquals(reference.add(value), bitmap.add(value));
+        }
+        assertEquals(reference.size(), bitmap.getCardinality());
+        return bitmap;
+    }
+}